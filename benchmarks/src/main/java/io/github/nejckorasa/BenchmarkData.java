@@ -0,0 +1,193 @@
+package io.github.nejckorasa;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Generates base and working collections used across benchmarks
+ */
+public final class BenchmarkData {
+    static final int MAX_EQUALITIES = 8;
+
+    private static final long SEED = 42L;
+
+    /**
+     * Key types items are matched by
+     */
+    public enum KeyType {
+        LONG(Row::getId),
+        STRING(Row::getCode),
+        COMPOSITE(r -> new CompositeKey(r.getRegion(), r.getCode()));
+
+        private final Function<Row, Serializable> keyExtractor;
+
+        KeyType(Function<Row, Serializable> keyExtractor) {
+            this.keyExtractor = keyExtractor;
+        }
+
+        Function<Row, Serializable> keyExtractor() {
+            return keyExtractor;
+        }
+    }
+
+    private BenchmarkData() {
+    }
+
+    static List<Row> baseRows(int size) {
+        List<Row> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(Row.of(i, 0));
+        }
+        return rows;
+    }
+
+    /**
+     * Builds working rows from base rows. Approximately changeRatio of rows are changed, changes are evenly distributed
+     * between updated, removed and replaced (removed and added) rows. All other rows are copied, so matched pairs are
+     * never compared by reference.
+     */
+    static List<Row> workingRows(List<Row> baseRows, double changeRatio) {
+        var random = new Random(SEED);
+        List<Row> rows = new ArrayList<>(baseRows.size());
+        for (int i = 0; i < baseRows.size(); i++) {
+            var base = baseRows.get(i);
+            if (random.nextDouble() < changeRatio) {
+                switch (i % 3) {
+                    case 0:
+                        rows.add(Row.of(base.getId(), 1));
+                        break;
+                    case 1:
+                        break;
+                    default:
+                        rows.add(Row.of(baseRows.size() + i, 0));
+                }
+            } else {
+                rows.add(Row.of(base.getId(), 0));
+            }
+        }
+        return rows;
+    }
+
+    static List<Function<Row, ?>> equalities(int count) {
+        List<Function<Row, ?>> equalities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int field = i;
+            equalities.add(r -> r.getField(field));
+        }
+        return equalities;
+    }
+
+    @SuppressWarnings("unchecked")
+    static EqPair<Row, Row>[] eqPairs(int count) {
+        var equalities = equalities(count);
+        EqPair<Row, Row>[] eqPairs = new EqPair[count];
+        for (int i = 0; i < count; i++) {
+            eqPairs[i] = EqPair.of(equalities.get(i), equalities.get(i));
+        }
+        return eqPairs;
+    }
+
+    /**
+     * Benchmarked item, fields are of mixed types to avoid comparing only one kind of values
+     */
+    static final class Row {
+        private final long id;
+        private final String code;
+        private final int region;
+        private final Object[] fields;
+
+        private Row(long id, String code, int region, Object[] fields) {
+            this.id = id;
+            this.code = code;
+            this.region = region;
+            this.fields = fields;
+        }
+
+        /**
+         * Creates row with given id, version changes value of the first field
+         */
+        static Row of(long id, int version) {
+            var fields = new Object[MAX_EQUALITIES];
+            for (int i = 0; i < MAX_EQUALITIES; i++) {
+                switch (i % 3) {
+                    case 0:
+                        fields[i] = (int) id + i;
+                        break;
+                    case 1:
+                        fields[i] = "field-" + id + "-" + i;
+                        break;
+                    default:
+                        fields[i] = id * i;
+                }
+            }
+            fields[0] = (int) id + version;
+            return new Row(id, "code-" + id, (int) (id % 16), fields);
+        }
+
+        long getId() {
+            return id;
+        }
+
+        String getCode() {
+            return code;
+        }
+
+        int getRegion() {
+            return region;
+        }
+
+        Object getField(int index) {
+            return fields[index];
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Row)) {
+                return false;
+            }
+            final Row row = (Row) o;
+            return id == row.id && region == row.region && Objects.equals(code, row.code)
+                    && Arrays.equals(fields, row.fields);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, code, region);
+        }
+    }
+
+    static final class CompositeKey implements Serializable {
+        private final int region;
+        private final String code;
+
+        CompositeKey(int region, String code) {
+            this.region = region;
+            this.code = code;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CompositeKey)) {
+                return false;
+            }
+            final CompositeKey that = (CompositeKey) o;
+            return region == that.region && Objects.equals(code, that.code);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * region + Objects.hashCode(code);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.BenchmarkData.KeyType;
+import io.github.nejckorasa.BenchmarkData.Row;
+import io.github.nejckorasa.result.CmpResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmarks {@link CollectionCmp#compare(Function, Function, java.util.function.BiFunction)} through both builders
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CollectionCmpBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"0.0", "0.01", "0.5"})
+    private double changeRatio;
+
+    @Param({"LONG", "STRING", "COMPOSITE"})
+    private KeyType keyType;
+
+    @Param({"1", "4", "8"})
+    private int equalities;
+
+    private List<Row> baseRows;
+    private List<Row> workingRows;
+    private Function<Row, Serializable> keyExtractor;
+    private Function<Row, ?>[] equalityFunctions;
+    private EqPair<Row, Row>[] eqPairs;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        baseRows = BenchmarkData.baseRows(size);
+        workingRows = BenchmarkData.workingRows(baseRows, changeRatio);
+        keyExtractor = keyType.keyExtractor();
+        equalityFunctions = BenchmarkData.equalities(equalities).toArray(Function[]::new);
+        eqPairs = BenchmarkData.eqPairs(equalities);
+    }
+
+    @Benchmark
+    public CmpResult<Row, Row> compareDefaultEquals() {
+        return CollectionCmp.of(baseRows, workingRows, keyExtractor).compare();
+    }
+
+    @Benchmark
+    public CmpResult<Row, Row> compareEqualities() {
+        return CollectionCmp.of(baseRows, workingRows, keyExtractor).compare(equalityFunctions);
+    }
+
+    @Benchmark
+    public CmpResult<Row, Row> compareSingleIndexEqualities() {
+        return CollectionCmp.of(baseRows, workingRows, keyExtractor)
+                .strategy(CmpStrategy.SINGLE_INDEX)
+                .compare(equalityFunctions);
+    }
+
+    /**
+     * Always matched by primitive id, regardless of key type
+     */
+    @Benchmark
+    public CmpResult<Row, Row> compareLongKeyEqualities() {
+        return CollectionCmp.ofLongKey(baseRows, workingRows, Row::getId).compare(equalityFunctions);
+    }
+
+    @Benchmark
+    public CmpResult<Row, Row> compareEqPairs() {
+        return CollectionCmp.of(baseRows, workingRows, keyExtractor, keyExtractor).compare(eqPairs);
+    }
+}
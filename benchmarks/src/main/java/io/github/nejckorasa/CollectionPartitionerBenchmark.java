@@ -0,0 +1,59 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.BenchmarkData.KeyType;
+import io.github.nejckorasa.BenchmarkData.Row;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmarks {@link CollectionPartitioner}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CollectionPartitionerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"LONG", "STRING", "COMPOSITE"})
+    private KeyType keyType;
+
+    private List<Row> rows;
+    private Function<Row, Serializable> keyExtractor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rows = BenchmarkData.baseRows(size);
+        keyExtractor = keyType.keyExtractor();
+    }
+
+    @Benchmark
+    public Map<Serializable, Row> buildPartition() {
+        return CollectionPartitioner.buildPartition(rows, keyExtractor);
+    }
+
+    @Benchmark
+    public boolean canPartition() {
+        return CollectionPartitioner.canPartition(rows, keyExtractor);
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.BenchmarkData.Row;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Benchmarks building and applying equals functions built by {@link EqualsUtils}.
+ * <p>Lives in the same package as {@link EqualsUtils} which is package private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EqualsUtilsBenchmark {
+
+    @Param({"1", "4", "8"})
+    private int equalities;
+
+    @Param({"true", "false"})
+    private boolean equal;
+
+    private Row base;
+    private Row working;
+    private List<Function<Row, ?>> equalityFunctions;
+    private List<EqPair<Row, Row>> eqPairs;
+    private BiFunction<Row, Row, Boolean> equalitiesFunction;
+    private BiFunction<Row, Row, Boolean> eqPairsFunction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        base = Row.of(1, 0);
+        working = Row.of(1, equal ? 0 : 1);
+        equalityFunctions = BenchmarkData.equalities(equalities);
+        eqPairs = List.of(BenchmarkData.eqPairs(equalities));
+        equalitiesFunction = EqualsUtils.buildEqualsFunctionFromEqualities(equalityFunctions);
+        eqPairsFunction = EqualsUtils.buildEqualsFunctionFromEqualityPairs(eqPairs);
+    }
+
+    @Benchmark
+    public BiFunction<Row, Row, Boolean> buildFromEqualities() {
+        return EqualsUtils.buildEqualsFunctionFromEqualities(equalityFunctions);
+    }
+
+    @Benchmark
+    public BiFunction<Row, Row, Boolean> buildFromEqualityPairs() {
+        return EqualsUtils.buildEqualsFunctionFromEqualityPairs(eqPairs);
+    }
+
+    @Benchmark
+    public Boolean applyEqualities() {
+        return equalitiesFunction.apply(base, working);
+    }
+
+    @Benchmark
+    public Boolean applyEqualityPairs() {
+        return eqPairsFunction.apply(base, working);
+    }
+
+    @Benchmark
+    public boolean eqPairIsEqual() {
+        return eqPairs.get(0).isEqual(base, working);
+    }
+}
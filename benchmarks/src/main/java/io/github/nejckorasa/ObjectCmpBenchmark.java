@@ -0,0 +1,80 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.BenchmarkData.Row;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Benchmarks all {@link ObjectCmp} equals overloads
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ObjectCmpBenchmark {
+
+    @Param({"1", "4", "8"})
+    private int equalities;
+
+    @Param({"true", "false"})
+    private boolean equal;
+
+    private Row base;
+    private Row working;
+    private BiFunction<Row, Row, Boolean> equalsFunction;
+    private Function<Row, ?> equality;
+    private List<Function<Row, ?>> equalityFunctions;
+    private EqPair<Row, Row>[] eqPairs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        base = Row.of(1, 0);
+        working = Row.of(1, equal ? 0 : 1);
+        equalsFunction = Row::equals;
+        equalityFunctions = BenchmarkData.equalities(equalities);
+        equality = equalityFunctions.get(0);
+        eqPairs = BenchmarkData.eqPairs(equalities);
+    }
+
+    @Benchmark
+    public boolean equalsDefault() {
+        return ObjectCmp.equals(base, working);
+    }
+
+    @Benchmark
+    public boolean equalsFunction() {
+        return ObjectCmp.equals(base, working, equalsFunction);
+    }
+
+    @Benchmark
+    public boolean equalsEquality() {
+        return ObjectCmp.equals(base, working, equality);
+    }
+
+    @Benchmark
+    public boolean equalsEqualities() {
+        return ObjectCmp.equals(base, working, equalityFunctions);
+    }
+
+    @Benchmark
+    public boolean equalsEqPairs() {
+        return ObjectCmp.equals(base, working, eqPairs);
+    }
+}
@@ -0,0 +1,375 @@
+package io.github.nejckorasa.processor;
+
+import io.github.nejckorasa.annotation.CmpField;
+import io.github.nejckorasa.annotation.CmpKey;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Annotation processor generating {@code <Type>Cmp} classes for types with {@link CmpKey} and {@link CmpField} members.
+ * <p>Generated class is placed in the same package as the annotated type and contains:
+ * <ul>
+ *     <li>{@code key(Type)} - key extractor, returns primitive long or int for a single primitive key, nested
+ *     {@code Key} class for composite keys</li>
+ *     <li>{@code equals(Type, Type)} - equals function comparing annotated fields</li>
+ *     <li>{@code of(Collection, Collection)} - {@link io.github.nejckorasa.CollectionCmp} builder matching items by key</li>
+ *     <li>{@code compare(Collection, Collection)} - compares collections using generated key and equals function</li>
+ * </ul>
+ * Members are accessed directly, private fields through their getters. Generated code uses no reflection.
+ */
+public class CmpProcessor extends AbstractProcessor {
+    static final String SUFFIX = "Cmp";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(CmpKey.class.getCanonicalName(), CmpField.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        final Set<TypeElement> types = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                types.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+        for (TypeElement type : types) {
+            process(type);
+        }
+        return true;
+    }
+
+    private void process(TypeElement type) {
+        if (!isAccessible(type)) {
+            error(type, "Type with @CmpKey or @CmpField must not be private");
+            return;
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            error(type, "Generic types are not supported by @CmpKey and @CmpField");
+            return;
+        }
+
+        final List<Property> keys = new ArrayList<>();
+        final List<Property> fields = new ArrayList<>();
+        boolean valid = true;
+        for (Element member : type.getEnclosedElements()) {
+            final boolean key = member.getAnnotation(CmpKey.class) != null;
+            final boolean field = member.getAnnotation(CmpField.class) != null;
+            if (!key && !field) {
+                continue;
+            }
+            final Property property = property(type, member);
+            if (property == null) {
+                valid = false;
+                continue;
+            }
+            if (key) {
+                valid &= validKey(member, property.type);
+                keys.add(property);
+            }
+            if (field) {
+                fields.add(property);
+            }
+        }
+        if (!valid) {
+            return;
+        }
+
+        try {
+            write(type, keys, fields);
+        } catch (IOException e) {
+            error(type, "Could not generate " + generatedName(type) + ": " + e.getMessage());
+        }
+    }
+
+    private Property property(TypeElement type, Element member) {
+        if (member.getModifiers().contains(Modifier.STATIC)) {
+            error(member, "@CmpKey and @CmpField must not be used on static members");
+            return null;
+        }
+        final String name = member.getSimpleName().toString();
+        if (member.getKind() == ElementKind.METHOD) {
+            final ExecutableElement method = (ExecutableElement) member;
+            if (!method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID) {
+                error(member, "@CmpKey and @CmpField methods must have no parameters and return a value");
+                return null;
+            }
+            if (method.getModifiers().contains(Modifier.PRIVATE)) {
+                error(member, "@CmpKey and @CmpField methods must not be private");
+                return null;
+            }
+            return new Property(name, name + "()", method.getReturnType());
+        }
+        if (!member.getModifiers().contains(Modifier.PRIVATE)) {
+            return new Property(name, name, member.asType());
+        }
+        final ExecutableElement getter = getter(type, name, member.asType());
+        if (getter == null) {
+            error(member, "Private field " + name + " needs a non-private getter");
+            return null;
+        }
+        return new Property(name, getter.getSimpleName() + "()", member.asType());
+    }
+
+    private ExecutableElement getter(TypeElement type, String field, TypeMirror fieldType) {
+        final String capitalized = Character.toUpperCase(field.charAt(0)) + field.substring(1);
+        final Set<String> names = Set.of("get" + capitalized, "is" + capitalized, field);
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (names.contains(method.getSimpleName().toString())
+                    && method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && processingEnv.getTypeUtils().isSameType(method.getReturnType(), fieldType)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private boolean validKey(Element member, TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return true;
+        }
+        final TypeMirror serializable = processingEnv.getElementUtils().getTypeElement("java.io.Serializable").asType();
+        if (type.getKind() == TypeKind.ARRAY || !processingEnv.getTypeUtils().isAssignable(type, serializable)) {
+            error(member, "@CmpKey must be a primitive or Serializable non-array type");
+            return false;
+        }
+        return true;
+    }
+
+    private void write(TypeElement type, List<Property> keys, List<Property> fields) throws IOException {
+        final String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        final String name = generatedName(type);
+        final String typeName = type.getQualifiedName().toString();
+
+        final StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("import io.github.nejckorasa.CollectionCmp;\n");
+        src.append("import io.github.nejckorasa.CollectionCmpSameBuilder;\n");
+        src.append("import io.github.nejckorasa.result.CmpResult;\n\n");
+        src.append("import java.util.Arrays;\n");
+        src.append("import java.util.Collection;\n");
+        src.append("import java.util.Objects;\n\n");
+        src.append("/**\n * Key extractor and equals function for {@link ").append(typeName).append("}\n");
+        src.append(" * <p>Generated by {@code ").append(CmpProcessor.class.getName()).append("}, do not edit.\n */\n");
+        src.append("public final class ").append(name).append(" {\n\n");
+        src.append("    private ").append(name).append("() {\n    }\n");
+
+        if (!keys.isEmpty()) {
+            writeKey(src, typeName, keys);
+        }
+        writeEquals(src, typeName, fields);
+        if (!keys.isEmpty()) {
+            writeCompare(src, typeName, name, keys);
+        }
+        if (keys.size() > 1) {
+            writeKeyClass(src, keys);
+        }
+        src.append("}\n");
+
+        final String fileName = packageName.isEmpty() ? name : packageName + "." + name;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(fileName, type).openWriter()) {
+            writer.write(src.toString());
+        }
+    }
+
+    private void writeKey(StringBuilder src, String typeName, List<Property> keys) {
+        final String keyType = keys.size() == 1 ? keys.get(0).type.toString() : "Key";
+        src.append("\n    /**\n     * @param o object to extract key from\n     * @return key used to match objects\n     */\n");
+        src.append("    public static ").append(keyType).append(" key(").append(typeName).append(" o) {\n");
+        if (keys.size() == 1) {
+            src.append("        return o.").append(keys.get(0).access).append(";\n");
+        } else {
+            src.append("        return new Key(");
+            for (int i = 0; i < keys.size(); i++) {
+                src.append(i == 0 ? "" : ", ").append("o.").append(keys.get(i).access);
+            }
+            src.append(");\n");
+        }
+        src.append("    }\n");
+    }
+
+    private void writeEquals(StringBuilder src, String typeName, List<Property> fields) {
+        src.append("\n    /**\n     * @param base    base object\n     * @param working working object\n");
+        src.append("     * @return true if objects are equal\n     */\n");
+        src.append("    public static boolean equals(").append(typeName).append(" base, ").append(typeName).append(" working) {\n");
+        if (fields.isEmpty()) {
+            src.append("        return Objects.equals(base, working);\n    }\n");
+            return;
+        }
+        src.append("        if (base == working) {\n            return true;\n        }\n");
+        src.append("        if (base == null || working == null) {\n            return false;\n        }\n");
+        src.append("        return ");
+        for (int i = 0; i < fields.size(); i++) {
+            final Property field = fields.get(i);
+            src.append(i == 0 ? "" : "\n                && ")
+                    .append(equalsExpression(field.type, "base." + field.access, "working." + field.access));
+        }
+        src.append(";\n    }\n");
+    }
+
+    private void writeCompare(StringBuilder src, String typeName, String name, List<Property> keys) {
+        final TypeKind keyKind = keys.size() == 1 ? keys.get(0).type.getKind() : TypeKind.DECLARED;
+        final String factory = keyKind == TypeKind.LONG ? "ofLongKey" : keyKind == TypeKind.INT ? "ofIntKey" : "of";
+        final String collection = "Collection<" + typeName + ">";
+
+        src.append("\n    /**\n     * @param base    base collection to compare\n");
+        src.append("     * @param working working collection to compare\n");
+        src.append("     * @return builder matching items by generated key\n     */\n");
+        src.append("    public static CollectionCmpSameBuilder<").append(typeName).append("> of(")
+                .append(collection).append(" base, ").append(collection).append(" working) {\n");
+        src.append("        return CollectionCmp.").append(factory).append("(base, working, ").append(name).append("::key);\n");
+        src.append("    }\n");
+
+        src.append("\n    /**\n     * @param base    base collection to compare\n");
+        src.append("     * @param working working collection to compare\n");
+        src.append("     * @return compare result, items are matched by generated key and compared with generated equals function\n     */\n");
+        src.append("    public static CmpResult<").append(typeName).append(", ").append(typeName).append("> compare(")
+                .append(collection).append(" base, ").append(collection).append(" working) {\n");
+        src.append("        return of(base, working).compare(").append(name).append("::equals);\n");
+        src.append("    }\n");
+    }
+
+    private void writeKeyClass(StringBuilder src, List<Property> keys) {
+        src.append("\n    /**\n     * Composite key\n     */\n");
+        src.append("    public static final class Key implements java.io.Serializable {\n");
+        src.append("        private static final long serialVersionUID = 1L;\n\n");
+        for (Property key : keys) {
+            src.append("        private final ").append(key.type).append(" ").append(key.name).append(";\n");
+        }
+
+        src.append("\n        Key(");
+        for (int i = 0; i < keys.size(); i++) {
+            src.append(i == 0 ? "" : ", ").append(keys.get(i).type).append(" ").append(keys.get(i).name);
+        }
+        src.append(") {\n");
+        for (Property key : keys) {
+            src.append("            this.").append(key.name).append(" = ").append(key.name).append(";\n");
+        }
+        src.append("        }\n");
+
+        src.append("\n        @Override\n        public boolean equals(Object o) {\n");
+        src.append("            if (this == o) {\n                return true;\n            }\n");
+        src.append("            if (!(o instanceof Key)) {\n                return false;\n            }\n");
+        src.append("            Key other = (Key) o;\n");
+        src.append("            return ");
+        for (int i = 0; i < keys.size(); i++) {
+            final Property key = keys.get(i);
+            src.append(i == 0 ? "" : "\n                    && ")
+                    .append(equalsExpression(key.type, "this." + key.name, "other." + key.name));
+        }
+        src.append(";\n        }\n");
+
+        src.append("\n        @Override\n        public int hashCode() {\n");
+        src.append("            int h = ").append(hashExpression(keys.get(0).type, "this." + keys.get(0).name)).append(";\n");
+        for (int i = 1; i < keys.size(); i++) {
+            src.append("            h = 31 * h + ").append(hashExpression(keys.get(i).type, "this." + keys.get(i).name)).append(";\n");
+        }
+        src.append("            return h;\n        }\n");
+
+        src.append("\n        @Override\n        public String toString() {\n");
+        src.append("            return \"Key{\" +\n");
+        for (int i = 0; i < keys.size(); i++) {
+            final Property key = keys.get(i);
+            src.append("                    \"").append(i == 0 ? "" : ", ").append(key.name).append("=\" + ")
+                    .append("this.").append(key.name).append(" +\n");
+        }
+        src.append("                    '}';\n        }\n");
+        src.append("    }\n");
+    }
+
+    private static String equalsExpression(TypeMirror type, String base, String working) {
+        switch (type.getKind()) {
+            case FLOAT:
+                return "Float.compare(" + base + ", " + working + ") == 0";
+            case DOUBLE:
+                return "Double.compare(" + base + ", " + working + ") == 0";
+            case ARRAY:
+                final boolean primitive = ((ArrayType) type).getComponentType().getKind().isPrimitive();
+                return (primitive ? "Arrays.equals(" : "Arrays.deepEquals(") + base + ", " + working + ")";
+            default:
+                return type.getKind().isPrimitive()
+                        ? base + " == " + working
+                        : "Objects.equals(" + base + ", " + working + ")";
+        }
+    }
+
+    private static String hashExpression(TypeMirror type, String value) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "Boolean.hashCode(" + value + ")";
+            case BYTE:
+            case SHORT:
+            case CHAR:
+            case INT:
+                return value;
+            case LONG:
+                return "Long.hashCode(" + value + ")";
+            case FLOAT:
+                return "Float.hashCode(" + value + ")";
+            case DOUBLE:
+                return "Double.hashCode(" + value + ")";
+            default:
+                return "Objects.hashCode(" + value + ")";
+        }
+    }
+
+    private static boolean isAccessible(TypeElement type) {
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String generatedName(TypeElement type) {
+        final StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element e = type.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+            name.insert(0, e.getSimpleName() + "_");
+        }
+        return name.append(SUFFIX).toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final class Property {
+        private final String name;
+        private final String access;
+        private final TypeMirror type;
+
+        private Property(String name, String access, TypeMirror type) {
+            this.name = name;
+            this.access = access;
+            this.type = type;
+        }
+    }
+}
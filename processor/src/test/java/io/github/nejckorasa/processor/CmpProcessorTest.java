@@ -0,0 +1,161 @@
+package io.github.nejckorasa.processor;
+
+import io.github.nejckorasa.CollectionCmp;
+import io.github.nejckorasa.result.CmpResult;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CmpProcessorTest {
+
+    private static final String ORDER = "package test;\n" +
+            "import io.github.nejckorasa.annotation.CmpField;\n" +
+            "import io.github.nejckorasa.annotation.CmpKey;\n" +
+            "public class Order {\n" +
+            "    @CmpKey private final long id;\n" +
+            "    @CmpField private final String name;\n" +
+            "    @CmpField final double amount;\n" +
+            "    @CmpField final int[] lines;\n" +
+            "    public Order(long id, String name, double amount, int[] lines) {\n" +
+            "        this.id = id; this.name = name; this.amount = amount; this.lines = lines;\n" +
+            "    }\n" +
+            "    public long getId() { return id; }\n" +
+            "    public String getName() { return name; }\n" +
+            "}\n";
+
+    private static final String LINE = "package test;\n" +
+            "import io.github.nejckorasa.annotation.CmpField;\n" +
+            "import io.github.nejckorasa.annotation.CmpKey;\n" +
+            "public class Outer {\n" +
+            "    public static class Line {\n" +
+            "        @CmpKey final String order;\n" +
+            "        @CmpKey final int number;\n" +
+            "        final String note;\n" +
+            "        public Line(String order, int number, String note) {\n" +
+            "            this.order = order; this.number = number; this.note = note;\n" +
+            "        }\n" +
+            "        @CmpField public String note() { return note; }\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    public void generatesLongKeyAndEquals() throws Exception {
+        var loader = compile(List.of(source("test.Order", ORDER)));
+        Class<?> order = loader.loadClass("test.Order");
+        Class<?> orderCmp = loader.loadClass("test.OrderCmp");
+        Constructor<?> constructor = order.getConstructor(long.class, String.class, double.class, int[].class);
+
+        Object a = constructor.newInstance(1L, "a", 1.5, new int[]{1, 2});
+        Object same = constructor.newInstance(1L, "a", 1.5, new int[]{1, 2});
+        Object changed = constructor.newInstance(1L, "a", 1.5, new int[]{1, 3});
+        Object other = constructor.newInstance(2L, "b", 0.0, new int[0]);
+
+        Method key = orderCmp.getMethod("key", order);
+        Method equals = orderCmp.getMethod("equals", order, order);
+        assertEquals(long.class, key.getReturnType());
+        assertEquals(1L, key.invoke(null, a));
+        assertTrue((Boolean) equals.invoke(null, a, same));
+        assertFalse((Boolean) equals.invoke(null, a, changed));
+        assertFalse((Boolean) equals.invoke(null, a, null));
+
+        CmpResult<?, ?> result = (CmpResult<?, ?>) orderCmp.getMethod("compare", Collection.class, Collection.class)
+                .invoke(null, List.of(a, other), List.of(changed));
+        assertEquals(1, result.getUpdated().size());
+        assertEquals(1, result.getRemoved().size());
+        assertEquals(1L, result.getUpdated().get(0).getKey());
+    }
+
+    @Test
+    public void generatesCompositeKeyForNestedType() throws Exception {
+        var loader = compile(List.of(source("test.Outer", LINE)));
+        Class<?> line = loader.loadClass("test.Outer$Line");
+        Class<?> lineCmp = loader.loadClass("test.Outer_LineCmp");
+        Constructor<?> constructor = line.getConstructor(String.class, int.class, String.class);
+
+        Object a = constructor.newInstance("o1", 1, "x");
+        Object b = constructor.newInstance("o1", 1, "y");
+        Object c = constructor.newInstance("o1", 2, "x");
+
+        Method key = lineCmp.getMethod("key", line);
+        assertEquals(key.invoke(null, a), key.invoke(null, b));
+        assertEquals(key.invoke(null, a).hashCode(), key.invoke(null, b).hashCode());
+        assertNotEquals(key.invoke(null, a), key.invoke(null, c));
+        assertEquals("Key{order=o1, number=1}", key.invoke(null, a).toString());
+
+        CmpResult<?, ?> result = (CmpResult<?, ?>) lineCmp.getMethod("compare", Collection.class, Collection.class)
+                .invoke(null, List.of(a, c), List.of(b, c));
+        assertEquals(1, result.getUpdated().size());
+        assertEquals(1, result.getUnchanged().size());
+    }
+
+    @Test
+    public void reportsPrivateFieldWithoutGetter() throws Exception {
+        var source = "package test;\n" +
+                "public class Broken {\n" +
+                "    @io.github.nejckorasa.annotation.CmpField private String name;\n" +
+                "}\n";
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        assertFalse(run(List.of(source("test.Broken", source)), Files.createTempDirectory("cmp-processor"), diagnostics));
+        assertTrue(diagnostics.getDiagnostics().stream()
+                .anyMatch(d -> d.getKind() == Diagnostic.Kind.ERROR && d.getMessage(null).contains("needs a non-private getter")));
+    }
+
+    private static ClassLoader compile(List<JavaFileObject> sources) throws Exception {
+        var output = Files.createTempDirectory("cmp-processor");
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        assertTrue(run(sources, output, diagnostics), () -> diagnostics.getDiagnostics().stream()
+                .map(d -> d.getMessage(null))
+                .collect(Collectors.joining("\n")));
+        return new URLClassLoader(new URL[]{output.toUri().toURL()}, CmpProcessorTest.class.getClassLoader());
+    }
+
+    private static boolean run(List<JavaFileObject> sources, Path output, DiagnosticCollector<JavaFileObject> diagnostics)
+            throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null)) {
+            files.setLocation(StandardLocation.CLASS_OUTPUT, List.of(output.toFile()));
+            files.setLocation(StandardLocation.SOURCE_OUTPUT, List.of(output.toFile()));
+            files.setLocation(StandardLocation.CLASS_PATH, List.of(location(CollectionCmp.class)));
+            var task = compiler.getTask(null, files, diagnostics, List.of("-Xlint:none"), null, sources);
+            task.setProcessors(List.of(new CmpProcessor()));
+            return task.call();
+        }
+    }
+
+    private static File location(Class<?> type) throws URISyntaxException {
+        return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private static JavaFileObject source(String name, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + name.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
@@ -0,0 +1,296 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpResult;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static io.github.nejckorasa.CollectionPartitioner.buildMultiPartition;
+import static io.github.nejckorasa.CollectionPartitioner.buildPartition;
+import static io.github.nejckorasa.CollectionPartitioner.buildStrictPartition;
+
+/**
+ * Compares collections asynchronously, equals functions of matched items are evaluated concurrently on {@link Executor}.
+ * <p>Collections are partitioned in one executor task, then each matched key becomes its own task. At most
+ * {@code maxInFlight} tasks are submitted at a time, the next one is submitted when one completes, so no thread ever
+ * blocks waiting for a permit and even a single threaded executor makes progress. Equality outcomes are stored by
+ * position and replayed in partition order once all tasks complete, so result is identical to sequential
+ * {@link CollectionCmp#compare(Function, Function, BiFunction)} with partitions.
+ */
+final class AsyncCollectionCmp<B, W> {
+    /**
+     * Default number of equals tasks submitted to executor at a time
+     */
+    static final int DEFAULT_MAX_IN_FLIGHT = 64;
+
+    private final Collection<B> baseList;
+    private final Collection<W> workingList;
+    private final DuplicateKeys duplicateKeys;
+    private final Executor executor;
+    private final int maxInFlight;
+
+    AsyncCollectionCmp(
+            Collection<B> baseList,
+            Collection<W> workingList,
+            DuplicateKeys duplicateKeys,
+            Executor executor,
+            int maxInFlight
+    ) {
+        this.baseList = baseList;
+        this.workingList = workingList;
+        this.duplicateKeys = duplicateKeys;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    CompletableFuture<CmpResult<B, W>> compare(
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction
+    ) {
+        final CompletableFuture<CmpResult<B, W>> result = new CompletableFuture<>();
+        execute(result, () -> {
+            final Tasks tasks;
+            if (duplicateKeys == DuplicateKeys.ALL) {
+                tasks = new GroupTasks(buildMultiPartition(baseList, baseKeyExtractor),
+                        buildMultiPartition(workingList, workingKeyExtractor), equalsFunction, result);
+            } else if (duplicateKeys == DuplicateKeys.FAIL) {
+                tasks = new PairTasks(buildStrictPartition(baseList, baseKeyExtractor),
+                        buildStrictPartition(workingList, workingKeyExtractor), equalsFunction, result);
+            } else {
+                tasks = new PairTasks(buildPartition(baseList, baseKeyExtractor),
+                        buildPartition(workingList, workingKeyExtractor), equalsFunction, result);
+            }
+            tasks.start();
+        });
+        return result;
+    }
+
+    /**
+     * Runs task on executor, any failure, including rejected task, completes result exceptionally
+     */
+    private void execute(CompletableFuture<CmpResult<B, W>> result, Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Indexed tasks submitted to executor with bounded number of tasks in flight
+     */
+    private abstract class Tasks {
+        private final CompletableFuture<CmpResult<B, W>> result;
+        private final Semaphore inFlight = new Semaphore(maxInFlight);
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+        private int count;
+        private int submitted;
+
+        Tasks(CompletableFuture<CmpResult<B, W>> result) {
+            this.result = result;
+        }
+
+        /**
+         * Evaluates task at index, called concurrently for different indexes
+         */
+        abstract void run(int index);
+
+        /**
+         * Builds result once all tasks complete
+         */
+        abstract CmpResult<B, W> finish();
+
+        /**
+         * Collects tasks and submits them with {@link #submit(int)}
+         */
+        abstract void start();
+
+        void submit(int count) {
+            this.count = count;
+            if (count == 0) {
+                result.complete(finish());
+            } else {
+                submit();
+            }
+        }
+
+        /**
+         * Submits tasks while permits are available, only one thread submits at a time and calls made meanwhile are
+         * handled by the submitting thread
+         */
+        private void submit() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (!result.isDone() && submitted < count && inFlight.tryAcquire()) {
+                    final int index = submitted++;
+                    execute(result, () -> {
+                        try {
+                            run(index);
+                        } finally {
+                            inFlight.release();
+                        }
+                        if (completed.incrementAndGet() == count) {
+                            result.complete(finish());
+                        } else {
+                            submit();
+                        }
+                    });
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+    }
+
+    /**
+     * One task per matched key of single item partitions
+     */
+    private final class PairTasks extends Tasks {
+        private final Map<Serializable, B> basePartition;
+        private final Map<Serializable, W> workingPartition;
+        private final BiFunction<B, W, Boolean> equalsFunction;
+        private final List<B> bases = new ArrayList<>();
+        private final List<W> workings = new ArrayList<>();
+        private boolean[] equal;
+        private long[] mismatches;
+
+        private PairTasks(
+                Map<Serializable, B> basePartition,
+                Map<Serializable, W> workingPartition,
+                BiFunction<B, W, Boolean> equalsFunction,
+                CompletableFuture<CmpResult<B, W>> result
+        ) {
+            super(result);
+            this.basePartition = basePartition;
+            this.workingPartition = workingPartition;
+            this.equalsFunction = equalsFunction;
+        }
+
+        @Override
+        void start() {
+            for (Map.Entry<Serializable, B> entry : basePartition.entrySet()) {
+                if (workingPartition.containsKey(entry.getKey())) {
+                    bases.add(entry.getValue());
+                    workings.add(workingPartition.get(entry.getKey()));
+                }
+            }
+            equal = new boolean[bases.size()];
+            mismatches = new long[bases.size()];
+            submit(bases.size());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void run(int index) {
+            final B base = bases.get(index);
+            final W working = workings.get(index);
+            if (equalsFunction instanceof EqualityPlan && base != working && base != null && working != null) {
+                mismatches[index] = ((EqualityPlan<B, W>) equalsFunction).mismatches(base, working);
+                equal[index] = mismatches[index] == 0;
+            } else {
+                equal[index] = ObjectCmp.equals(base, working, equalsFunction);
+            }
+        }
+
+        @Override
+        CmpResult<B, W> finish() {
+            final var sink = new CmpResultSink<B, W>(true);
+            int index = 0;
+            for (Map.Entry<Serializable, B> entry : basePartition.entrySet()) {
+                final Serializable key = entry.getKey();
+                if (!workingPartition.containsKey(key)) {
+                    sink.onRemoved(key, entry.getValue());
+                    continue;
+                }
+                if (equal[index]) {
+                    sink.onUnchanged(key, entry.getValue(), workingPartition.get(key));
+                } else {
+                    sink.onUpdated(key, entry.getValue(), workingPartition.get(key), mismatches[index]);
+                }
+                index++;
+            }
+            for (Map.Entry<Serializable, W> entry : workingPartition.entrySet()) {
+                if (!basePartition.containsKey(entry.getKey())) {
+                    sink.onAdded(entry.getKey(), entry.getValue());
+                }
+            }
+            return sink.toResult();
+        }
+    }
+
+    /**
+     * One task per matched key of multi partitions, each group is compared into its own sink and sinks are merged in
+     * partition order
+     */
+    private final class GroupTasks extends Tasks {
+        private final Map<Serializable, List<B>> basePartition;
+        private final Map<Serializable, List<W>> workingPartition;
+        private final BiFunction<B, W, Boolean> equalsFunction;
+        private final List<Serializable> keys = new ArrayList<>();
+        private final List<CmpResultSink<B, W>> groupSinks = new ArrayList<>();
+        private final List<CmpResultSink<B, W>> sinks = new ArrayList<>();
+
+        private GroupTasks(
+                Map<Serializable, List<B>> basePartition,
+                Map<Serializable, List<W>> workingPartition,
+                BiFunction<B, W, Boolean> equalsFunction,
+                CompletableFuture<CmpResult<B, W>> result
+        ) {
+            super(result);
+            this.basePartition = basePartition;
+            this.workingPartition = workingPartition;
+            this.equalsFunction = equalsFunction;
+        }
+
+        @Override
+        void start() {
+            for (Map.Entry<Serializable, List<B>> entry : basePartition.entrySet()) {
+                final var sink = new CmpResultSink<B, W>(true);
+                if (workingPartition.containsKey(entry.getKey())) {
+                    keys.add(entry.getKey());
+                    groupSinks.add(sink);
+                } else {
+                    entry.getValue().forEach(base -> sink.onRemoved(entry.getKey(), base));
+                }
+                sinks.add(sink);
+            }
+            submit(keys.size());
+        }
+
+        @Override
+        void run(int index) {
+            final Serializable key = keys.get(index);
+            CollectionCmp.compareGroup(key, basePartition.get(key), workingPartition.get(key), equalsFunction,
+                    groupSinks.get(index));
+        }
+
+        @Override
+        CmpResult<B, W> finish() {
+            final var added = new CmpResultSink<B, W>(true);
+            for (Map.Entry<Serializable, List<W>> entry : workingPartition.entrySet()) {
+                if (!basePartition.containsKey(entry.getKey())) {
+                    entry.getValue().forEach(working -> added.onAdded(entry.getKey(), working));
+                }
+            }
+            sinks.add(added);
+            return CmpResultSink.merge(sinks);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpCounts;
+import io.github.nejckorasa.result.CmpResult;
+import io.github.nejckorasa.result.CmpSink;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static io.github.nejckorasa.KeyIndex.ABSENT;
+
+/**
+ * Immutable index of base collection, built once and compared with many working collections.
+ * <p>Base items are indexed by key when index is created, compares only extract keys of working items and probe the
+ * index, the same way as {@link CmpStrategy#SINGLE_INDEX}. Index is never modified after it is created, so it can be
+ * shared between threads and compared with different working collections concurrently. If keys of base items collide,
+ * only the first item is indexed.
+ *
+ * @param <B> base object type
+ * @see CollectionCmp#index(Collection, Function)
+ */
+public final class BaseIndex<B> {
+    private final Object[] items;
+    private final KeyIndex index;
+    private final Function<B, Serializable> keyExtractor;
+
+    BaseIndex(Collection<B> baseList, Function<B, Serializable> keyExtractor) {
+        this.items = baseList.toArray();
+        this.index = SingleIndexCollectionCmp.index(items, keyExtractor);
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * @return number of indexed base items
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @param key key of base item
+     * @return base item with key or {@code null} if there is no such item
+     */
+    @SuppressWarnings("unchecked")
+    public B get(Serializable key) {
+        final int i = index.get(key);
+        return i == ABSENT ? null : (B) items[i];
+    }
+
+    /**
+     * Compares base items with working collection, see {@link CollectionCmp#compare(Function, Function, BiFunction)}
+     *
+     * @param workingList         working collection to compare base items with
+     * @param workingKeyExtractor key extractor used to extract keys from items inside workingList
+     * @param equalsFunction      equals function to compare items matched by key
+     * @return compare result
+     */
+    public <W> CmpResult<B, W> compare(
+            Collection<W> workingList,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction
+    ) {
+        final var sink = new CmpResultSink<B, W>(true);
+        compare(workingList, workingKeyExtractor, equalsFunction, sink);
+        return sink.toResult();
+    }
+
+    /**
+     * Compares base items with working collection of the same type, working keys are extracted with the key extractor
+     * of this index
+     *
+     * @param workingList    working collection to compare base items with
+     * @param equalsFunction equals function to compare items matched by key
+     * @return compare result
+     */
+    public CmpResult<B, B> compare(Collection<B> workingList, BiFunction<B, B, Boolean> equalsFunction) {
+        return compare(workingList, keyExtractor, equalsFunction);
+    }
+
+    /**
+     * Compares base items with working collection, but collects only changed compare pairs, see
+     * {@link CollectionCmp#compareChanges(Function, Function, BiFunction)}
+     *
+     * @param workingList         working collection to compare base items with
+     * @param workingKeyExtractor key extractor used to extract keys from items inside workingList
+     * @param equalsFunction      equals function to compare items matched by key
+     * @return compare result, containing added, updated and removed pairs
+     */
+    public <W> CmpResult<B, W> compareChanges(
+            Collection<W> workingList,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction
+    ) {
+        final var sink = new CmpResultSink<B, W>(false);
+        compare(workingList, workingKeyExtractor, equalsFunction, sink);
+        return sink.toResult();
+    }
+
+    /**
+     * Compares base items with working collection, but only counts compare pairs, see
+     * {@link CollectionCmp#count(Function, Function, BiFunction)}
+     *
+     * @param workingList         working collection to compare base items with
+     * @param workingKeyExtractor key extractor used to extract keys from items inside workingList
+     * @param equalsFunction      equals function to compare items matched by key
+     * @return compare counts
+     */
+    public <W> CmpCounts count(
+            Collection<W> workingList,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction
+    ) {
+        final var sink = new CmpCountsSink<B, W>();
+        compare(workingList, workingKeyExtractor, equalsFunction, sink);
+        return CmpCountsSink.merge(List.of(sink));
+    }
+
+    /**
+     * Checks whether working collection differs from base items, see
+     * {@link CollectionCmp#anyChange(Function, Function, BiFunction)}
+     *
+     * @param workingList         working collection to compare base items with
+     * @param workingKeyExtractor key extractor used to extract keys from items inside workingList
+     * @param equalsFunction      equals function to compare items matched by key
+     * @return true if compare would find any added, removed or updated item
+     */
+    public <W> boolean anyChange(
+            Collection<W> workingList,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction
+    ) {
+        return SingleIndexCollectionCmp.anyChange(items, index, workingList, workingKeyExtractor, equalsFunction, false);
+    }
+
+    /**
+     * Compares base items with working collection and pushes compare pairs to sink
+     *
+     * @param workingList         working collection to compare base items with
+     * @param workingKeyExtractor key extractor used to extract keys from items inside workingList
+     * @param equalsFunction      equals function to compare items matched by key
+     * @param sink                sink that receives all compare pairs
+     */
+    public <W> void compare(
+            Collection<W> workingList,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink
+    ) {
+        SingleIndexCollectionCmp.compareIndexedBase(items, index, workingList, workingKeyExtractor, equalsFunction, sink);
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.nejckorasa;
+
+import java.io.Serializable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Compare options configured by builders and used by {@link CollectionCmp}
+ */
+final class CmpConfig<B, W> {
+    /**
+     * Fork-join pool to compare collections in parallel with or {@code null} to compare sequentially
+     */
+    ForkJoinPool pool;
+
+    /**
+     * Strategy used to match items when compared sequentially
+     */
+    CmpStrategy strategy = CmpStrategy.PARTITION;
+
+    /**
+     * Policy for items with colliding keys, {@link DuplicateKeys#FAIL} and {@link DuplicateKeys#ALL} always partition
+     * collections regardless of strategy
+     */
+    DuplicateKeys duplicateKeys = DuplicateKeys.FIRST;
+
+    /**
+     * Maximum number of equals tasks in flight when compared asynchronously
+     */
+    int maxInFlight = AsyncCollectionCmp.DEFAULT_MAX_IN_FLIGHT;
+
+    /**
+     * Metrics to report compare phases and counters to or {@code null} to not measure compare
+     */
+    CmpMetrics metrics;
+
+    /**
+     * Whether equality plans evaluate all equality pairs of updated items to record all mismatches
+     */
+    boolean allMismatches;
+
+    /**
+     * Whether compare results store compare pairs in columns, see {@link CompactResultSink}
+     */
+    boolean compact;
+
+    /**
+     * Primitive key extractors, when set, items are matched using primitive index, see {@link LongKeyCollectionCmp}
+     */
+    ToLongFunction<B> baseLongKeyExtractor;
+    ToLongFunction<W> workingLongKeyExtractor;
+
+    /**
+     * Boxes primitive keys of compare pairs
+     */
+    LongFunction<Serializable> longKeyBoxing;
+
+    boolean hasLongKeys() {
+        return baseLongKeyExtractor != null;
+    }
+
+    static <B, W> CmpConfig<B, W> longKeys(
+            ToLongFunction<B> baseKeyExtractor,
+            ToLongFunction<W> workingKeyExtractor,
+            LongFunction<Serializable> keyBoxing
+    ) {
+        var config = new CmpConfig<B, W>();
+        config.baseLongKeyExtractor = baseKeyExtractor;
+        config.workingLongKeyExtractor = workingKeyExtractor;
+        config.longKeyBoxing = keyBoxing;
+        return config;
+    }
+}
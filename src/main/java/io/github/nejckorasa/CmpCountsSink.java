@@ -0,0 +1,48 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpCounts;
+import io.github.nejckorasa.result.CmpSink;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Sink that only counts compare pairs, no compare pairs are created
+ */
+final class CmpCountsSink<B, W> implements CmpSink<B, W> {
+    private int removed;
+    private int added;
+    private int updated;
+    private int unchanged;
+
+    @Override
+    public void onAdded(Serializable key, W working) {
+        added++;
+    }
+
+    @Override
+    public void onRemoved(Serializable key, B base) {
+        removed++;
+    }
+
+    @Override
+    public void onUpdated(Serializable key, B base, W working) {
+        updated++;
+    }
+
+    @Override
+    public void onUnchanged(Serializable key, B base, W working) {
+        unchanged++;
+    }
+
+    static <B, W> CmpCounts merge(List<CmpCountsSink<B, W>> sinks) {
+        int removed = 0, added = 0, updated = 0, unchanged = 0;
+        for (CmpCountsSink<B, W> sink : sinks) {
+            removed += sink.removed;
+            added += sink.added;
+            updated += sink.updated;
+            unchanged += sink.unchanged;
+        }
+        return new CmpCounts(removed, added, updated, unchanged);
+    }
+}
@@ -0,0 +1,211 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpSink;
+import io.github.nejckorasa.result.Diff;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Measures one compare, reports to {@link CmpMetrics} and emits {@link CollectionCompareEvent} and
+ * {@link CmpPhaseEvent} flight recorder events. When no metrics are configured and events are not enabled in a recording,
+ * {@link #NONE} is used and all methods return right away, without reading the clock.
+ * <p>Event classes are loaded only when {@code jdk.jfr} module is available, so that compare also runs on runtimes
+ * without flight recorder.
+ */
+final class CmpMeter {
+    static final CmpMeter NONE = new CmpMeter(null, null);
+
+    private final CmpMetrics metrics;
+    private final CollectionCompareEvent event;
+    private final LongAdder equalsInvocations = new LongAdder();
+    private final LongAdder[] diffs;
+    private CmpPhaseEvent phaseEvent;
+    private long phaseStart;
+
+    private CmpMeter(CmpMetrics metrics, CollectionCompareEvent event) {
+        this.metrics = metrics;
+        this.event = event;
+        this.diffs = event == null ? null : counters();
+        this.phaseStart = metrics == null ? 0 : System.nanoTime();
+        this.phaseEvent = event == null ? null : beginPhase();
+    }
+
+    /**
+     * Starts measuring compare of collections with item counts
+     *
+     * @param metrics       metrics to report to, {@code null} if not configured
+     * @param strategy      how items are matched, recorded in event
+     * @param duplicateKeys policy for items with colliding keys, recorded in event
+     * @param baseCount     number of base items
+     * @param workingCount  number of working items
+     * @return meter of compare
+     */
+    static CmpMeter start(CmpMetrics metrics, String strategy, DuplicateKeys duplicateKeys, int baseCount, int workingCount) {
+        CollectionCompareEvent event = Jfr.AVAILABLE ? new CollectionCompareEvent() : null;
+        if (event != null && event.isEnabled()) {
+            event.strategy = strategy;
+            event.duplicateKeys = duplicateKeys.name();
+            event.baseSize = baseCount;
+            event.workingSize = workingCount;
+            event.begin();
+        } else if (metrics == null) {
+            return NONE;
+        } else {
+            event = null;
+        }
+        if (metrics != null) {
+            metrics.onItems(baseCount, workingCount);
+        }
+        return new CmpMeter(metrics, event);
+    }
+
+    /**
+     * @return equals function that counts invocations, equalsFunction itself if not measured. Equality plans are counted
+     * by plan itself, so that mismatches are still recorded
+     */
+    @SuppressWarnings("unchecked")
+    <B, W> BiFunction<B, W, Boolean> count(BiFunction<B, W, Boolean> equalsFunction) {
+        if (this == NONE || equalsFunction == null) {
+            return equalsFunction;
+        }
+        if (equalsFunction instanceof EqualityPlan) {
+            return ((EqualityPlan<B, W>) equalsFunction).counting(equalsInvocations);
+        }
+        return (base, working) -> {
+            equalsInvocations.increment();
+            return equalsFunction.apply(base, working);
+        };
+    }
+
+    /**
+     * @return sink that counts compare pairs of each {@link Diff} for event, sink itself if event is not enabled
+     */
+    <B, W> CmpSink<B, W> count(CmpSink<B, W> sink) {
+        return event == null ? sink : new CountingSink<>(sink, diffs);
+    }
+
+    /**
+     * Reports phase that ended now and started when the previous phase ended
+     */
+    void phase(CmpMetrics.Phase phase) {
+        if (phaseEvent != null) {
+            phaseEvent.end();
+            if (phaseEvent.shouldCommit()) {
+                phaseEvent.phase = phase.name();
+                phaseEvent.equalsInvocations = phase == CmpMetrics.Phase.COMPARE ? equalsInvocations.sum() : 0;
+                phaseEvent.commit();
+            }
+            phaseEvent = beginPhase();
+        }
+        if (metrics != null) {
+            final long now = System.nanoTime();
+            metrics.onPhase(phase, now - phaseStart);
+            phaseStart = now;
+        }
+    }
+
+    void duplicateKeys(int baseDuplicates, int workingDuplicates) {
+        if (event != null) {
+            event.baseDuplicates = baseDuplicates;
+            event.workingDuplicates = workingDuplicates;
+        }
+        if (metrics != null) {
+            metrics.onDuplicateKeys(baseDuplicates, workingDuplicates);
+        }
+    }
+
+    /**
+     * Reports counters collected during compare
+     */
+    void finish() {
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.unchanged = diffs[Diff.UNCHANGED.ordinal()].sum();
+                event.updated = diffs[Diff.UPDATED.ordinal()].sum();
+                event.added = diffs[Diff.ADDED.ordinal()].sum();
+                event.removed = diffs[Diff.REMOVED.ordinal()].sum();
+                event.equalsInvocations = equalsInvocations.sum();
+                event.commit();
+            }
+        }
+        if (metrics != null) {
+            metrics.onEqualsInvocations(equalsInvocations.sum());
+        }
+    }
+
+    private static LongAdder[] counters() {
+        final LongAdder[] counters = new LongAdder[Diff.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    private static CmpPhaseEvent beginPhase() {
+        final CmpPhaseEvent phaseEvent = new CmpPhaseEvent();
+        if (!phaseEvent.isEnabled()) {
+            return null;
+        }
+        phaseEvent.begin();
+        return phaseEvent;
+    }
+
+    /**
+     * Checks once whether flight recorder is available, holder is initialized on the first compare
+     */
+    private static final class Jfr {
+        static final boolean AVAILABLE = available();
+
+        private static boolean available() {
+            try {
+                Class.forName("jdk.jfr.Event", false, CmpMeter.class.getClassLoader());
+                return true;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+    }
+
+    private static final class CountingSink<B, W> implements CmpSink<B, W> {
+        private final CmpSink<B, W> sink;
+        private final LongAdder[] diffs;
+
+        private CountingSink(CmpSink<B, W> sink, LongAdder[] diffs) {
+            this.sink = sink;
+            this.diffs = diffs;
+        }
+
+        @Override
+        public void onAdded(Serializable key, W working) {
+            diffs[Diff.ADDED.ordinal()].increment();
+            sink.onAdded(key, working);
+        }
+
+        @Override
+        public void onRemoved(Serializable key, B base) {
+            diffs[Diff.REMOVED.ordinal()].increment();
+            sink.onRemoved(key, base);
+        }
+
+        @Override
+        public void onUpdated(Serializable key, B base, W working) {
+            diffs[Diff.UPDATED.ordinal()].increment();
+            sink.onUpdated(key, base, working);
+        }
+
+        @Override
+        public void onUpdated(Serializable key, B base, W working, long mismatches) {
+            diffs[Diff.UPDATED.ordinal()].increment();
+            sink.onUpdated(key, base, working, mismatches);
+        }
+
+        @Override
+        public void onUnchanged(Serializable key, B base, W working) {
+            diffs[Diff.UNCHANGED.ordinal()].increment();
+            sink.onUnchanged(key, base, working);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.nejckorasa;
+
+/**
+ * Listener of compare metrics, used to bridge compare phases and counters to any metrics system.
+ * <p>All callbacks do nothing by default, implement only the ones needed. Callbacks are called once per compare, on the
+ * thread that compares, after the measured work is done. When no listener is configured, nothing is measured and
+ * equals function is not wrapped, so compare costs the same as without metrics.
+ *
+ * @see CollectionCmpBuilder#metrics(CmpMetrics)
+ */
+public interface CmpMetrics {
+
+    /**
+     * Compare phase
+     */
+    enum Phase {
+        /**
+         * Extracting keys of base items and partitioning them
+         */
+        PARTITION_BASE,
+
+        /**
+         * Extracting keys of working items and partitioning them
+         */
+        PARTITION_WORKING,
+
+        /**
+         * Matching base items with working items and comparing matched items. When collections are not partitioned
+         * (primitive keys, {@link CmpStrategy#SINGLE_INDEX} or parallel compare), this is the whole compare.
+         */
+        COMPARE,
+
+        /**
+         * Scanning working items for keys that are not in base collection
+         */
+        ADDED_SCAN
+    }
+
+    /**
+     * @param phase compare phase
+     * @param nanos duration of phase in nanoseconds
+     */
+    default void onPhase(Phase phase, long nanos) {
+    }
+
+    /**
+     * @param baseCount    number of items in base collection
+     * @param workingCount number of items in working collection
+     */
+    default void onItems(int baseCount, int workingCount) {
+    }
+
+    /**
+     * Called when collections are partitioned, duplicates are items whose key was already used by another item of the
+     * same collection
+     *
+     * @param baseDuplicates    number of base items with duplicate key
+     * @param workingDuplicates number of working items with duplicate key
+     */
+    default void onDuplicateKeys(int baseDuplicates, int workingDuplicates) {
+    }
+
+    /**
+     * @param invocations number of equals function invocations, items that are the same instance or {@code null} are
+     *                    compared without invoking equals function
+     */
+    default void onEqualsInvocations(long invocations) {
+    }
+}
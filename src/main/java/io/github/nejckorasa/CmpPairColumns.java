@@ -0,0 +1,118 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpPair;
+import io.github.nejckorasa.result.Diff;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Compare pairs of one {@link Diff} stored in parallel arrays of keys and items, {@link CmpPair} views are created when
+ * pairs are read. Only the items that compare pair of diff holds are stored, working items only for updated pairs and
+ * mismatches only once an updated pair has any.
+ */
+final class CmpPairColumns<B, W> extends AbstractList<CmpPair<B, W>> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Serializable[] NO_KEYS = {};
+    private static final Object[] NO_ITEMS = {};
+
+    private final Diff diff;
+    private Serializable[] keys = NO_KEYS;
+    private Object[] items = NO_ITEMS;
+    private Object[] workings;
+    private long[] mismatches;
+    private int size;
+
+    CmpPairColumns(Diff diff) {
+        this.diff = diff;
+        this.workings = diff == Diff.UPDATED ? NO_ITEMS : null;
+    }
+
+    /**
+     * @param key        key of compare pair
+     * @param item       base item, working item of added pairs
+     * @param working    working item of updated pairs, ignored otherwise
+     * @param mismatches mismatches of updated pairs, ignored otherwise
+     */
+    void add(Serializable key, Object item, Object working, long mismatches) {
+        if (size == keys.length) {
+            grow(size + Math.max(INITIAL_CAPACITY, size >> 1));
+        }
+        keys[size] = key;
+        items[size] = item;
+        if (workings != null) {
+            workings[size] = working;
+        }
+        if (mismatches != 0 && diff == Diff.UPDATED) {
+            if (this.mismatches == null) {
+                this.mismatches = new long[keys.length];
+            }
+            this.mismatches[size] = mismatches;
+        }
+        size++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CmpPair<B, W> get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        switch (diff) {
+            case REMOVED:
+                return CmpPair.removed(keys[index], (B) items[index]);
+            case ADDED:
+                return CmpPair.added(keys[index], (W) items[index]);
+            case UPDATED:
+                return CmpPair.updated(keys[index], (B) items[index], (W) workings[index],
+                        mismatches == null ? 0 : mismatches[index]);
+            default:
+                return CmpPair.unchanged(keys[index], (B) items[index]);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void grow(int capacity) {
+        keys = Arrays.copyOf(keys, capacity);
+        items = Arrays.copyOf(items, capacity);
+        if (workings != null) {
+            workings = Arrays.copyOf(workings, capacity);
+        }
+        if (mismatches != null) {
+            mismatches = Arrays.copyOf(mismatches, capacity);
+        }
+    }
+
+    /**
+     * @return columns of all columns one after another, columns itself if there is only one
+     */
+    static <B, W> CmpPairColumns<B, W> concat(Diff diff, List<CmpPairColumns<B, W>> columns) {
+        if (columns.size() == 1) {
+            return columns.get(0);
+        }
+        final var concat = new CmpPairColumns<B, W>(diff);
+        concat.grow(columns.stream().mapToInt(CmpPairColumns::size).sum());
+        for (CmpPairColumns<B, W> part : columns) {
+            System.arraycopy(part.keys, 0, concat.keys, concat.size, part.size);
+            System.arraycopy(part.items, 0, concat.items, concat.size, part.size);
+            if (concat.workings != null) {
+                System.arraycopy(part.workings, 0, concat.workings, concat.size, part.size);
+            }
+            if (part.mismatches != null) {
+                if (concat.mismatches == null) {
+                    concat.mismatches = new long[concat.keys.length];
+                }
+                System.arraycopy(part.mismatches, 0, concat.mismatches, concat.size, part.size);
+            }
+            concat.size += part.size;
+        }
+        return concat;
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpPair;
+import io.github.nejckorasa.result.CmpSink;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+
+/**
+ * Lazy iterator of compare pairs of two partitions. Pairs are produced one base key at a time while iterating, the same
+ * way as {@link CollectionCmp#compare(Map, Map, boolean, BiFunction, CmpSink)}, followed by added items.
+ * <p>Partitions are either single item partitions or multi partitions with groups of items with the same key, see
+ * {@link CollectionPartitioner#buildMultiPartition(java.util.Collection, java.util.function.Function)}.
+ */
+final class CmpPairIterator<B, W> implements Iterator<CmpPair<B, W>>, CmpSink<B, W> {
+    private final Map<Serializable, ?> basePartition;
+    private final Map<Serializable, ?> workingPartition;
+    private final Iterator<? extends Map.Entry<Serializable, ?>> baseEntries;
+    private final Iterator<? extends Map.Entry<Serializable, ?>> workingEntries;
+    private final boolean groups;
+    private final BiFunction<B, W, Boolean> equalsFunction;
+    private final ArrayDeque<CmpPair<B, W>> buffer = new ArrayDeque<>();
+
+    private CmpPairIterator(
+            Map<Serializable, ?> basePartition,
+            Map<Serializable, ?> workingPartition,
+            boolean groups,
+            BiFunction<B, W, Boolean> equalsFunction
+    ) {
+        this.basePartition = basePartition;
+        this.workingPartition = workingPartition;
+        this.baseEntries = basePartition.entrySet().iterator();
+        this.workingEntries = workingPartition.entrySet().iterator();
+        this.groups = groups;
+        this.equalsFunction = equalsFunction;
+    }
+
+    static <B, W> CmpPairIterator<B, W> of(
+            Map<Serializable, B> basePartition,
+            Map<Serializable, W> workingPartition,
+            BiFunction<B, W, Boolean> equalsFunction
+    ) {
+        return new CmpPairIterator<>(basePartition, workingPartition, false, equalsFunction);
+    }
+
+    static <B, W> CmpPairIterator<B, W> ofGroups(
+            Map<Serializable, List<B>> basePartition,
+            Map<Serializable, List<W>> workingPartition,
+            BiFunction<B, W, Boolean> equalsFunction
+    ) {
+        return new CmpPairIterator<>(basePartition, workingPartition, true, equalsFunction);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (buffer.isEmpty()) {
+            if (baseEntries.hasNext()) {
+                nextBase(baseEntries.next());
+            } else if (workingEntries.hasNext()) {
+                nextWorking(workingEntries.next());
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public CmpPair<B, W> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return buffer.poll();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void nextBase(Map.Entry<Serializable, ?> entry) {
+        final Serializable key = entry.getKey();
+        if (groups) {
+            final List<W> workingGroup = (List<W>) workingPartition.get(key);
+            if (workingGroup == null) {
+                ((List<B>) entry.getValue()).forEach(base -> onRemoved(key, base));
+            } else {
+                CollectionCmp.compareGroup(key, (List<B>) entry.getValue(), workingGroup, equalsFunction, this);
+            }
+        } else if (workingPartition.containsKey(key)) {
+            CollectionCmp.compareMatched(key, (B) entry.getValue(), (W) workingPartition.get(key), equalsFunction, this);
+        } else {
+            onRemoved(key, (B) entry.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void nextWorking(Map.Entry<Serializable, ?> entry) {
+        if (basePartition.containsKey(entry.getKey())) {
+            return;
+        }
+        if (groups) {
+            ((List<W>) entry.getValue()).forEach(working -> onAdded(entry.getKey(), working));
+        } else {
+            onAdded(entry.getKey(), (W) entry.getValue());
+        }
+    }
+
+    @Override
+    public void onAdded(Serializable key, W working) {
+        buffer.add(CmpPair.added(key, working));
+    }
+
+    @Override
+    public void onRemoved(Serializable key, B base) {
+        buffer.add(CmpPair.removed(key, base));
+    }
+
+    @Override
+    public void onUpdated(Serializable key, B base, W working) {
+        buffer.add(CmpPair.updated(key, base, working));
+    }
+
+    @Override
+    public void onUpdated(Serializable key, B base, W working, long mismatches) {
+        buffer.add(CmpPair.updated(key, base, working, mismatches));
+    }
+
+    @Override
+    public void onUnchanged(Serializable key, B base, W working) {
+        buffer.add(CmpPair.unchanged(key, base));
+    }
+}
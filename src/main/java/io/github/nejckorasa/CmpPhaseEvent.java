@@ -0,0 +1,23 @@
+package io.github.nejckorasa;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of one {@link CmpMetrics.Phase} of collection compare, see {@link CmpMeter}
+ */
+@Name("io.github.nejckorasa.ComparePhase")
+@Label("Compare Phase")
+@Category("Compare Utils")
+@Description("Partitioning, equality evaluation or added key scan of collection compare")
+final class CmpPhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Equals Invocations")
+    @Description("Equals function invocations so far, reported by equality evaluation phase")
+    long equalsInvocations;
+}
@@ -0,0 +1,123 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpPair;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cold publisher of compare pairs. Each subscription compares collections again, pairs are pulled from a lazy iterator
+ * only as subscriber requests them.
+ * <p>Compare work is done on the thread that subscribes or requests more pairs, and stops as soon as subscription is
+ * cancelled. Partitions are built when the first pair is requested.
+ */
+final class CmpPublisher<B, W> implements Flow.Publisher<CmpPair<B, W>> {
+    private final Supplier<Iterator<CmpPair<B, W>>> pairs;
+
+    /**
+     * @param pairs creates lazy iterator of compare pairs for each subscription
+     */
+    CmpPublisher(Supplier<Iterator<CmpPair<B, W>>> pairs) {
+        this.pairs = pairs;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super CmpPair<B, W>> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        final var subscription = new CmpSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    private final class CmpSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super CmpPair<B, W>> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        private Iterator<CmpPair<B, W>> iterator;
+
+        private CmpSubscription(Flow.Subscriber<? super CmpPair<B, W>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested " + n + " pairs, must be positive");
+            } else {
+                requested.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        /**
+         * Emits requested pairs, only one thread emits at a time and requests made from within onNext are emitted by the
+         * loop instead of recursively. Completes as soon as there are no more pairs, also when demand is used up
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                final long demand = requested.get();
+                long emitted = 0;
+                while (!cancelled) {
+                    if (invalidRequest != null) {
+                        fail(invalidRequest);
+                        break;
+                    }
+                    final CmpPair<B, W> pair;
+                    try {
+                        if (iterator == null) {
+                            if (emitted == demand) {
+                                break;
+                            }
+                            iterator = pairs.get();
+                        }
+                        if (!iterator.hasNext()) {
+                            cancelled = true;
+                            iterator = null;
+                            subscriber.onComplete();
+                            break;
+                        }
+                        if (emitted == demand) {
+                            break;
+                        }
+                        pair = iterator.next();
+                    } catch (Throwable e) {
+                        fail(e);
+                        break;
+                    }
+                    subscriber.onNext(pair);
+                    emitted++;
+                }
+                if (cancelled) {
+                    iterator = null;
+                }
+                if (emitted != 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void fail(Throwable e) {
+            cancelled = true;
+            iterator = null;
+            subscriber.onError(e);
+        }
+    }
+}
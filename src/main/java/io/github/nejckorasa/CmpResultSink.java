@@ -0,0 +1,85 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpPair;
+import io.github.nejckorasa.result.CmpResult;
+import io.github.nejckorasa.result.CmpSink;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sink that collects compare pairs into {@link CmpResult}
+ */
+final class CmpResultSink<B, W> implements CmpSink<B, W> {
+    final List<CmpPair<B, W>> removed = new ArrayList<>();
+    final List<CmpPair<B, W>> added = new ArrayList<>();
+    final List<CmpPair<B, W>> updated = new ArrayList<>();
+    final List<CmpPair<B, W>> unchanged = new ArrayList<>();
+
+    private final boolean collectUnchanged;
+
+    /**
+     * @param collectUnchanged whether to collect unchanged pairs, if not, no unchanged pairs are created
+     */
+    CmpResultSink(boolean collectUnchanged) {
+        this.collectUnchanged = collectUnchanged;
+    }
+
+    @Override
+    public void onAdded(Serializable key, W working) {
+        added.add(CmpPair.added(key, working));
+    }
+
+    @Override
+    public void onRemoved(Serializable key, B base) {
+        removed.add(CmpPair.removed(key, base));
+    }
+
+    @Override
+    public void onUpdated(Serializable key, B base, W working) {
+        updated.add(CmpPair.updated(key, base, working));
+    }
+
+    @Override
+    public void onUpdated(Serializable key, B base, W working, long mismatches) {
+        updated.add(CmpPair.updated(key, base, working, mismatches));
+    }
+
+    @Override
+    public void onUnchanged(Serializable key, B base, W working) {
+        if (collectUnchanged) {
+            unchanged.add(CmpPair.unchanged(key, base));
+        }
+    }
+
+    CmpResult<B, W> toResult() {
+        return new CmpResult<>(removed, added, updated, unchanged);
+    }
+
+    static <B, W> CmpResult<B, W> merge(List<CmpResultSink<B, W>> sinks) {
+        if (sinks.size() == 1) {
+            return sinks.get(0).toResult();
+        }
+
+        int removedCount = 0, addedCount = 0, updatedCount = 0, unchangedCount = 0;
+        for (CmpResultSink<B, W> sink : sinks) {
+            removedCount += sink.removed.size();
+            addedCount += sink.added.size();
+            updatedCount += sink.updated.size();
+            unchangedCount += sink.unchanged.size();
+        }
+
+        final List<CmpPair<B, W>> removed = new ArrayList<>(removedCount);
+        final List<CmpPair<B, W>> added = new ArrayList<>(addedCount);
+        final List<CmpPair<B, W>> updated = new ArrayList<>(updatedCount);
+        final List<CmpPair<B, W>> unchanged = new ArrayList<>(unchangedCount);
+        for (CmpResultSink<B, W> sink : sinks) {
+            removed.addAll(sink.removed);
+            added.addAll(sink.added);
+            updated.addAll(sink.updated);
+            unchanged.addAll(sink.unchanged);
+        }
+        return new CmpResult<>(removed, added, updated, unchanged);
+    }
+}
@@ -0,0 +1,171 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpCounts;
+import io.github.nejckorasa.result.CmpPair;
+import io.github.nejckorasa.result.CmpSample;
+import io.github.nejckorasa.result.CmpSink;
+import io.github.nejckorasa.result.Diff;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Sink that counts all compare pairs, but keeps only a bounded sample of compare pairs of each {@link Diff}, see
+ * {@link CmpSampling}. Compare pairs are created only when they are kept.
+ * <p>Uniform samples use reservoir sampling - the n-th pair of a diff replaces a random kept pair with probability
+ * {@code limit / n}.
+ */
+final class CmpSampleSink<B, W> implements CmpSink<B, W> {
+    private final int limit;
+    private final boolean uniform;
+    private final SplittableRandom random;
+    private final int[] counts = new int[Diff.values().length];
+    private final List<List<CmpPair<B, W>>> samples = new ArrayList<>(Diff.values().length);
+
+    CmpSampleSink(CmpSampling sampling, SplittableRandom random) {
+        this.limit = sampling.getLimit();
+        this.uniform = sampling.isUniform();
+        this.random = random;
+        for (int i = 0; i < Diff.values().length; i++) {
+            samples.add(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public void onAdded(Serializable key, W working) {
+        final int slot = slot(Diff.ADDED);
+        if (slot >= 0) keep(Diff.ADDED, slot, CmpPair.added(key, working));
+    }
+
+    @Override
+    public void onRemoved(Serializable key, B base) {
+        final int slot = slot(Diff.REMOVED);
+        if (slot >= 0) keep(Diff.REMOVED, slot, CmpPair.removed(key, base));
+    }
+
+    @Override
+    public void onUpdated(Serializable key, B base, W working) {
+        onUpdated(key, base, working, 0);
+    }
+
+    @Override
+    public void onUpdated(Serializable key, B base, W working, long mismatches) {
+        final int slot = slot(Diff.UPDATED);
+        if (slot >= 0) keep(Diff.UPDATED, slot, CmpPair.updated(key, base, working, mismatches));
+    }
+
+    @Override
+    public void onUnchanged(Serializable key, B base, W working) {
+        final int slot = slot(Diff.UNCHANGED);
+        if (slot >= 0) keep(Diff.UNCHANGED, slot, CmpPair.unchanged(key, base));
+    }
+
+    /**
+     * Counts pair of diff and decides where to keep it
+     *
+     * @return index of sample to put pair at, or -1 if pair is not kept
+     */
+    private int slot(Diff diff) {
+        final int n = ++counts[diff.ordinal()];
+        if (n <= limit) {
+            return n - 1;
+        }
+        if (!uniform) {
+            return -1;
+        }
+        final int slot = random.nextInt(n);
+        return slot < limit ? slot : -1;
+    }
+
+    private void keep(Diff diff, int slot, CmpPair<B, W> pair) {
+        final List<CmpPair<B, W>> sample = samples.get(diff.ordinal());
+        if (slot == sample.size()) {
+            sample.add(pair);
+        } else {
+            sample.set(slot, pair);
+        }
+    }
+
+    CmpSample<B, W> toSample() {
+        return new CmpSample<>(
+                new CmpCounts(counts[Diff.REMOVED.ordinal()], counts[Diff.ADDED.ordinal()],
+                        counts[Diff.UPDATED.ordinal()], counts[Diff.UNCHANGED.ordinal()]),
+                samples.get(Diff.REMOVED.ordinal()),
+                samples.get(Diff.ADDED.ordinal()),
+                samples.get(Diff.UPDATED.ordinal()),
+                samples.get(Diff.UNCHANGED.ordinal()));
+    }
+
+    /**
+     * Merges samples of shards. First samples are concatenated in shard order. Uniform samples are merged so that the
+     * result is still uniform: each kept pair is drawn from shard with probability proportional to number of its pairs
+     * not drawn yet, pairs of each shard are drawn from its shuffled sample.
+     */
+    static <B, W> CmpSample<B, W> merge(List<CmpSampleSink<B, W>> sinks, SplittableRandom random) {
+        if (sinks.size() == 1) {
+            return sinks.get(0).toSample();
+        }
+        final CmpSampleSink<B, W> first = sinks.get(0);
+        final int[] counts = new int[Diff.values().length];
+        final List<List<CmpPair<B, W>>> samples = new ArrayList<>(counts.length);
+        for (Diff diff : Diff.values()) {
+            final int d = diff.ordinal();
+            for (CmpSampleSink<B, W> sink : sinks) {
+                counts[d] += sink.counts[d];
+            }
+            samples.add(first.uniform ? mergeUniform(sinks, d, first.limit, random) : mergeFirst(sinks, d, first.limit));
+        }
+        return new CmpSample<>(
+                new CmpCounts(counts[Diff.REMOVED.ordinal()], counts[Diff.ADDED.ordinal()],
+                        counts[Diff.UPDATED.ordinal()], counts[Diff.UNCHANGED.ordinal()]),
+                samples.get(Diff.REMOVED.ordinal()),
+                samples.get(Diff.ADDED.ordinal()),
+                samples.get(Diff.UPDATED.ordinal()),
+                samples.get(Diff.UNCHANGED.ordinal()));
+    }
+
+    private static <B, W> List<CmpPair<B, W>> mergeFirst(List<CmpSampleSink<B, W>> sinks, int diff, int limit) {
+        final List<CmpPair<B, W>> sample = new ArrayList<>();
+        for (CmpSampleSink<B, W> sink : sinks) {
+            final List<CmpPair<B, W>> shardSample = sink.samples.get(diff);
+            sample.addAll(shardSample.subList(0, Math.min(shardSample.size(), limit - sample.size())));
+        }
+        return sample;
+    }
+
+    private static <B, W> List<CmpPair<B, W>> mergeUniform(
+            List<CmpSampleSink<B, W>> sinks,
+            int diff,
+            int limit,
+            SplittableRandom random
+    ) {
+        final int[] remaining = new int[sinks.size()];
+        final List<List<CmpPair<B, W>>> shardSamples = new ArrayList<>(sinks.size());
+        long total = 0;
+        for (int i = 0; i < sinks.size(); i++) {
+            remaining[i] = sinks.get(i).counts[diff];
+            total += remaining[i];
+            final List<CmpPair<B, W>> shardSample = new ArrayList<>(sinks.get(i).samples.get(diff));
+            Collections.shuffle(shardSample, new Random(random.nextLong()));
+            shardSamples.add(shardSample);
+        }
+
+        final int[] drawn = new int[sinks.size()];
+        final List<CmpPair<B, W>> sample = new ArrayList<>((int) Math.min(limit, total));
+        while (sample.size() < limit && total > 0) {
+            long pick = random.nextLong(total);
+            int shard = 0;
+            while (pick >= remaining[shard]) {
+                pick -= remaining[shard++];
+            }
+            sample.add(shardSamples.get(shard).get(drawn[shard]++));
+            remaining[shard]--;
+            total--;
+        }
+        return sample;
+    }
+}
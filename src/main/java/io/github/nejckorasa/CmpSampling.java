@@ -0,0 +1,74 @@
+package io.github.nejckorasa;
+
+/**
+ * How many compare pairs of each {@link io.github.nejckorasa.result.Diff} are kept by sampled compare and which ones,
+ * see {@link CollectionCmp#compareSample(java.util.function.Function, java.util.function.Function,
+ * java.util.function.BiFunction, CmpSampling)}. Counts of compare pairs are always exact.
+ */
+public final class CmpSampling {
+    private final int limit;
+    private final boolean uniform;
+    private final Long seed;
+
+    private CmpSampling(int limit, boolean uniform, Long seed) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Sample limit must not be negative, was " + limit);
+        }
+        this.limit = limit;
+        this.uniform = uniform;
+        this.seed = seed;
+    }
+
+    /**
+     * Keeps the first compare pairs of each diff, in the order they are found. When compared in parallel, pairs are
+     * found per shard and the first ones of each shard are kept.
+     *
+     * @param limit maximum number of compare pairs of each diff
+     * @return sampling
+     */
+    public static CmpSampling first(int limit) {
+        return new CmpSampling(limit, false, null);
+    }
+
+    /**
+     * Keeps uniform random sample of compare pairs of each diff, using reservoir sampling, each pair has the same
+     * chance to be kept
+     *
+     * @param limit maximum number of compare pairs of each diff
+     * @return sampling
+     */
+    public static CmpSampling uniform(int limit) {
+        return new CmpSampling(limit, true, null);
+    }
+
+    /**
+     * Keeps uniform random sample of compare pairs of each diff, sample is the same for the same seed when compared
+     * sequentially
+     *
+     * @param limit maximum number of compare pairs of each diff
+     * @param seed  seed of random generator
+     * @return sampling
+     * @see #uniform(int)
+     */
+    public static CmpSampling uniform(int limit, long seed) {
+        return new CmpSampling(limit, true, seed);
+    }
+
+    /**
+     * @return maximum number of compare pairs of each diff
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return true if sample is uniform random, false if the first pairs are kept
+     */
+    public boolean isUniform() {
+        return uniform;
+    }
+
+    Long getSeed() {
+        return seed;
+    }
+}
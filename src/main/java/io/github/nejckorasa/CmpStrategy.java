@@ -0,0 +1,18 @@
+package io.github.nejckorasa;
+
+/**
+ * Strategy used to match items of base and working collections by key
+ */
+public enum CmpStrategy {
+    /**
+     * Both collections are partitioned into maps, see {@link CollectionPartitioner#buildPartition(java.util.Collection,
+     * java.util.function.Function)}. Base partition is then walked and probed against working partition.
+     */
+    PARTITION,
+
+    /**
+     * Only the smaller collection is indexed, the other one is streamed against it. Matched items are marked in a
+     * bitset, so removed and added items are found in the same probe pass, without building another map.
+     */
+    SINGLE_INDEX
+}
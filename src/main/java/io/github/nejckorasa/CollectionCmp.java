@@ -1,18 +1,33 @@
 package io.github.nejckorasa;
 
+import io.github.nejckorasa.result.CmpCounts;
+import io.github.nejckorasa.result.CmpEstimate;
 import io.github.nejckorasa.result.CmpPair;
 import io.github.nejckorasa.result.CmpResult;
+import io.github.nejckorasa.result.CmpSample;
+import io.github.nejckorasa.result.CmpSink;
+import io.github.nejckorasa.result.CompactCmpResult;
 import io.github.nejckorasa.result.Diff;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
+import static io.github.nejckorasa.CollectionPartitioner.buildMultiPartition;
 import static io.github.nejckorasa.CollectionPartitioner.buildPartition;
+import static io.github.nejckorasa.CollectionPartitioner.buildStrictPartition;
 
 /**
  * Class to compare collections of objects
@@ -20,10 +35,16 @@ import static io.github.nejckorasa.CollectionPartitioner.buildPartition;
 public final class CollectionCmp<B, W> {
     private final Collection<B> baseList;
     private final Collection<W> workingList;
+    private final CmpConfig<B, W> config;
 
     CollectionCmp(Collection<B> baseList, Collection<W> workingList) {
+        this(baseList, workingList, new CmpConfig<>());
+    }
+
+    CollectionCmp(Collection<B> baseList, Collection<W> workingList, CmpConfig<B, W> config) {
         this.baseList = baseList;
         this.workingList = workingList;
+        this.config = config;
     }
 
     /**
@@ -61,6 +82,142 @@ public final class CollectionCmp<B, W> {
         return new CollectionCmpSameBuilder<>(baseList, workingList, keyExtractor);
     }
 
+    /**
+     * Initializes builder {@link CollectionCmpBuilder} to compare collections of different object types matched by
+     * primitive long keys.
+     * <p>Items are matched using primitive open addressing index, keys are boxed only when compare pairs are created.
+     * Keys of compare pairs are {@link Long}s. Parallel compare still uses boxed keys.
+     *
+     * @param baseList            base list to compare
+     * @param workingList         working list to compare base list with
+     * @param baseKeyExtractor    key extractor used to extract keys from items inside baseList
+     * @param workingKeyExtractor key extractor used to extract keys from items inside workingList
+     * @return builder to configure
+     */
+    public static <B, W> CollectionCmpBuilder<B, W> ofLongKey(
+            Collection<B> baseList, Collection<W> workingList,
+            ToLongFunction<B> baseKeyExtractor,
+            ToLongFunction<W> workingKeyExtractor
+    ) {
+        return new CollectionCmpBuilder<>(baseList, workingList, CmpConfig.longKeys(baseKeyExtractor, workingKeyExtractor, Long::valueOf));
+    }
+
+    /**
+     * Initializes builder {@link CollectionCmpSameBuilder} to compare collections of same object types matched by
+     * primitive long keys.
+     *
+     * @param baseList     base list to compare
+     * @param workingList  working list to compare base list with
+     * @param keyExtractor key extractor used to extract keys from items inside baseList and workingList
+     * @return builder to configure
+     * @see #ofLongKey(Collection, Collection, ToLongFunction, ToLongFunction)
+     */
+    public static <B> CollectionCmpSameBuilder<B> ofLongKey(
+            Collection<B> baseList,
+            Collection<B> workingList,
+            ToLongFunction<B> keyExtractor
+    ) {
+        return new CollectionCmpSameBuilder<>(baseList, workingList, CmpConfig.longKeys(keyExtractor, keyExtractor, Long::valueOf));
+    }
+
+    /**
+     * Initializes builder {@link CollectionCmpBuilder} to compare collections of different object types matched by
+     * primitive int keys. Keys of compare pairs are {@link Integer}s.
+     *
+     * @param baseList            base list to compare
+     * @param workingList         working list to compare base list with
+     * @param baseKeyExtractor    key extractor used to extract keys from items inside baseList
+     * @param workingKeyExtractor key extractor used to extract keys from items inside workingList
+     * @return builder to configure
+     * @see #ofLongKey(Collection, Collection, ToLongFunction, ToLongFunction)
+     */
+    public static <B, W> CollectionCmpBuilder<B, W> ofIntKey(
+            Collection<B> baseList, Collection<W> workingList,
+            ToIntFunction<B> baseKeyExtractor,
+            ToIntFunction<W> workingKeyExtractor
+    ) {
+        return new CollectionCmpBuilder<>(baseList, workingList,
+                CmpConfig.longKeys(baseKeyExtractor::applyAsInt, workingKeyExtractor::applyAsInt, key -> (int) key));
+    }
+
+    /**
+     * Initializes builder {@link CollectionCmpSameBuilder} to compare collections of same object types matched by
+     * primitive int keys. Keys of compare pairs are {@link Integer}s.
+     *
+     * @param baseList     base list to compare
+     * @param workingList  working list to compare base list with
+     * @param keyExtractor key extractor used to extract keys from items inside baseList and workingList
+     * @return builder to configure
+     * @see #ofLongKey(Collection, Collection, ToLongFunction, ToLongFunction)
+     */
+    public static <B> CollectionCmpSameBuilder<B> ofIntKey(
+            Collection<B> baseList,
+            Collection<B> workingList,
+            ToIntFunction<B> keyExtractor
+    ) {
+        return new CollectionCmpSameBuilder<>(baseList, workingList,
+                CmpConfig.longKeys(keyExtractor::applyAsInt, keyExtractor::applyAsInt, key -> (int) key));
+    }
+
+    /**
+     * Indexes base collection once, so that it can be compared with many working collections, see {@link BaseIndex}.
+     * Index is immutable and can be compared concurrently.
+     *
+     * @param baseList     base collection to index
+     * @param keyExtractor key extractor used to extract keys from items inside baseList
+     * @return base index
+     */
+    public static <B> BaseIndex<B> index(Collection<B> baseList, Function<B, Serializable> keyExtractor) {
+        return new BaseIndex<>(baseList, keyExtractor);
+    }
+
+    /**
+     * Builds snapshot of collection - fingerprints of items by their keys. Snapshot can be stored instead of items and
+     * later compared with {@link #compareFingerprints(Map, Collection, Function, ToLongFunction)}.
+     * <p>If more than one item has the same key, only the first item's fingerprint is kept, the same as in
+     * {@link CollectionPartitioner#buildPartition(Collection, Function)}.
+     *
+     * @param items        items to fingerprint
+     * @param keyExtractor key extractor used to extract keys from items
+     * @param fingerprint  fingerprint function, for example {@link EqualityPlan#baseFingerprint(Object)}
+     * @return map with item fingerprints as values and item keys as keys
+     */
+    public static <O> Map<Serializable, Long> fingerprints(
+            Collection<O> items,
+            Function<O, Serializable> keyExtractor,
+            ToLongFunction<O> fingerprint
+    ) {
+        final Map<Serializable, Long> fingerprints = new HashMap<>();
+        items.forEach(i -> fingerprints.computeIfAbsent(keyExtractor.apply(i), k -> fingerprint.applyAsLong(i)));
+        return fingerprints;
+    }
+
+    /**
+     * Compares snapshot of base items with working collection. Items are matched by key, and are equal if their
+     * fingerprints are equal. Base items are not needed and are represented by their fingerprints in result.
+     * <p>Fingerprints are 64 bit hashes, different items with equal fingerprints are reported as unchanged. Base and
+     * working fingerprint functions must hash the same values, for example {@link EqualityPlan#baseFingerprint(Object)}
+     * and {@link EqualityPlan#workingFingerprint(Object)} of the same plan.
+     *
+     * @param baseFingerprints    fingerprints of base items by their keys, see
+     *                            {@link #fingerprints(Collection, Function, ToLongFunction)}
+     * @param workingList         working list to compare base snapshot with
+     * @param workingKeyExtractor key extractor used to extract keys from items inside workingList
+     * @param workingFingerprint  fingerprint function of working items
+     * @return compare result, base side of compare pairs are fingerprints
+     */
+    public static <W> CmpResult<Long, W> compareFingerprints(
+            Map<Serializable, Long> baseFingerprints,
+            Collection<W> workingList,
+            Function<W, Serializable> workingKeyExtractor,
+            ToLongFunction<W> workingFingerprint
+    ) {
+        final var workingPartition = buildPartition(workingList, workingKeyExtractor);
+        final var sink = new CmpResultSink<Long, W>(true);
+        compare(baseFingerprints, workingPartition, (base, working) -> base == workingFingerprint.applyAsLong(working), sink);
+        return sink.toResult();
+    }
+
     /**
      * Compares collections.
      * <p>Items from {@link #baseList} and {@link #workingList} are compared and merged into pairs based on keys configured by
@@ -71,6 +228,10 @@ public final class CollectionCmp<B, W> {
      * successful, compare result will not always be correct.
      * <p>The end result contains all changes found between collections - added, updated, removed, same and different items.
      * See {@link Diff} and {@link CmpResult}.
+     * <p>If fork-join pool is configured and collections are large enough, compare is performed in parallel, see
+     * {@link ParallelCollectionCmp}.
+     * <p>If compact result is configured, compare pairs are stored in columns of {@link CompactCmpResult} and created
+     * only when read.
      *
      * @param baseKeyExtractor    key extractor used to extract keys from items inside {@link #baseList}
      * @param workingKeyExtractor key extractor used to extract keys from items inside {@link #workingList}
@@ -82,32 +243,512 @@ public final class CollectionCmp<B, W> {
             Function<W, Serializable> workingKeyExtractor,
             BiFunction<B, W, Boolean> equalsFunction
     ) {
+        if (config.compact) {
+            return compare(baseKeyExtractor, workingKeyExtractor, equalsFunction,
+                    () -> new CompactResultSink<>(true), CompactResultSink::merge);
+        }
+        return compare(baseKeyExtractor, workingKeyExtractor, equalsFunction, () -> new CmpResultSink<>(true), CmpResultSink::merge);
+    }
+
+    /**
+     * Compares collections, but collects only changed compare pairs. Unchanged pairs are never created, so result
+     * contains no unchanged pairs.
+     *
+     * @param baseKeyExtractor    key extractor used to extract keys from items inside {@link #baseList}
+     * @param workingKeyExtractor key extractor used to extract keys from items inside {@link #workingList}
+     * @param equalsFunction      equals function to compare items matched by key
+     * @return compare result, containing added, updated and removed pairs
+     * @see #compare(Function, Function, BiFunction)
+     */
+    public CmpResult<B, W> compareChanges(
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction
+    ) {
+        if (config.compact) {
+            return compare(baseKeyExtractor, workingKeyExtractor, equalsFunction,
+                    () -> new CompactResultSink<>(false), CompactResultSink::merge);
+        }
+        return compare(baseKeyExtractor, workingKeyExtractor, equalsFunction, () -> new CmpResultSink<>(false), CmpResultSink::merge);
+    }
+
+    /**
+     * Compares collections, but only counts compare pairs of each {@link Diff}. No compare pairs are created.
+     *
+     * @param baseKeyExtractor    key extractor used to extract keys from items inside {@link #baseList}
+     * @param workingKeyExtractor key extractor used to extract keys from items inside {@link #workingList}
+     * @param equalsFunction      equals function to compare items matched by key
+     * @return compare counts
+     * @see #compare(Function, Function, BiFunction)
+     */
+    public CmpCounts count(
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction
+    ) {
+        return compare(baseKeyExtractor, workingKeyExtractor, equalsFunction, CmpCountsSink::new, CmpCountsSink::merge);
+    }
+
+    /**
+     * Compares collections, but keeps only a bounded sample of compare pairs of each {@link Diff}, while counts of compare
+     * pairs are exact. Memory used by result is bounded regardless of how many items changed, compare pairs that are not
+     * kept are never created.
+     *
+     * @param baseKeyExtractor    key extractor used to extract keys from items inside {@link #baseList}
+     * @param workingKeyExtractor key extractor used to extract keys from items inside {@link #workingList}
+     * @param equalsFunction      equals function to compare items matched by key
+     * @param sampling            how many and which compare pairs are kept
+     * @return exact counts and sample of compare pairs
+     * @see #compare(Function, Function, BiFunction)
+     */
+    public CmpSample<B, W> compareSample(
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSampling sampling
+    ) {
+        final SplittableRandom random = sampling.getSeed() == null
+                ? new SplittableRandom()
+                : new SplittableRandom(sampling.getSeed());
+        return compare(baseKeyExtractor, workingKeyExtractor, equalsFunction,
+                () -> new CmpSampleSink<B, W>(sampling, random.split()), sinks -> CmpSampleSink.merge(sinks, random));
+    }
+
+    /**
+     * Estimates change rates of collections by comparing only a sample of keys, at a fraction of cost of
+     * {@link #count(Function, Function, BiFunction)}.
+     * <p>Keys are sampled by content hash, so both collections sample the same keys and the same keys are sampled on every
+     * run. Only sampled items are partitioned and compared, other items only have their keys extracted and hashed. Keys
+     * are hashed the same way as in {@link SnapshotIndex}, strings, numbers and enums are supported out of the box, other
+     * keys must have {@link Object#hashCode()} that is stable across JVM runs for estimates to be repeatable.
+     *
+     * @param baseKeyExtractor    key extractor used to extract keys from items inside {@link #baseList}
+     * @param workingKeyExtractor key extractor used to extract keys from items inside {@link #workingList}
+     * @param equalsFunction      equals function to compare items matched by key
+     * @param sampleRate          fraction of keys to sample, greater than 0 and at most 1
+     * @return estimated change rates
+     * @throws IllegalArgumentException if sample rate is not greater than 0 and at most 1
+     */
+    public CmpEstimate estimate(
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            double sampleRate
+    ) {
+        if (!(sampleRate > 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("Sample rate must be greater than 0 and at most 1, was " + sampleRate);
+        }
+        final long threshold = (long) (sampleRate * (1L << 53));
+        final var sampled = new CollectionCmp<>(
+                sample(baseList, baseKeyExtractor, threshold), sample(workingList, workingKeyExtractor, threshold), config);
+        return new CmpEstimate(sampled.count(baseKeyExtractor, workingKeyExtractor, equalsFunction), sampleRate);
+    }
+
+    /**
+     * Checks whether collections differ, the same as {@link CmpResult#hasChanges()} of
+     * {@link #compare(Function, Function, BiFunction)}, but returns as soon as the first change is found.
+     * <p>Base items are indexed and working items are streamed against the index, without partitioning working items or
+     * creating compare pairs. Returns on the first working item that is added or not equal to its base item, or right
+     * after indexing if working collection is smaller than number of base keys. With {@link DuplicateKeys#FAIL}, duplicate
+     * keys after the first change are not detected. With {@link DuplicateKeys#ALL}, groups of items are compared in full.
+     *
+     * @param baseKeyExtractor    key extractor used to extract keys from items inside {@link #baseList}
+     * @param workingKeyExtractor key extractor used to extract keys from items inside {@link #workingList}
+     * @param equalsFunction      equals function to compare items matched by key
+     * @return true if there are any added, removed or updated items
+     */
+    public boolean anyChange(
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction
+    ) {
+        if (baseList.isEmpty() || workingList.isEmpty()) {
+            return baseList.size() != workingList.size();
+        }
+        if (config.duplicateKeys == DuplicateKeys.ALL) {
+            return count(baseKeyExtractor, workingKeyExtractor, equalsFunction).getChangesCount() > 0;
+        }
+        final boolean strict = config.duplicateKeys == DuplicateKeys.FAIL;
+        final Object[] baseItems = baseList.toArray();
+        final KeyIndex baseIndex = strict
+                ? SingleIndexCollectionCmp.strictIndex(baseItems, baseKeyExtractor)
+                : SingleIndexCollectionCmp.index(baseItems, baseKeyExtractor);
+        return SingleIndexCollectionCmp.anyChange(baseItems, baseIndex, workingList, workingKeyExtractor, equalsFunction, strict);
+    }
+
+    /**
+     * Compares collections and pushes compare pairs to sink as they are found, no {@link CmpResult} is built.
+     * <p>Items are matched and compared the same way as in {@link #compare(Function, Function, BiFunction)}. When compared
+     * in parallel, sink callbacks are called from pool threads, but never concurrently.
+     *
+     * @param baseKeyExtractor    key extractor used to extract keys from items inside {@link #baseList}
+     * @param workingKeyExtractor key extractor used to extract keys from items inside {@link #workingList}
+     * @param equalsFunction      equals function to compare items matched by key
+     * @param sink                sink that receives all compare pairs
+     */
+    public void compare(
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink
+    ) {
+        final CmpMeter meter = startMeter();
+        if (isParallel()) {
+            new ParallelCollectionCmp<>(baseList, workingList, config.pool, config.duplicateKeys)
+                    .compare(baseKeyExtractor, workingKeyExtractor, meter.count(plan(equalsFunction)), meter.count(sink));
+            meter.phase(CmpMetrics.Phase.COMPARE);
+        } else {
+            compareSequential(baseKeyExtractor, workingKeyExtractor, meter.count(plan(equalsFunction)), meter.count(sink), meter);
+        }
+        meter.finish();
+    }
+
+    /**
+     * Compares collections asynchronously, equals functions of matched items are evaluated concurrently on executor.
+     * <p>Collections are partitioned in an executor task, then equals function of each matched key is evaluated in its own
+     * task, with at most configured number of tasks in flight, see {@link CollectionCmpBuilder#maxInFlight(int)}. Useful
+     * when equals function is expensive or blocking, executor can also be a virtual thread executor. Result is identical
+     * to {@link #compare(Function, Function, BiFunction)} with partitions, fork-join pool and {@link CmpStrategy} are
+     * ignored.
+     *
+     * @param baseKeyExtractor    key extractor used to extract keys from items inside {@link #baseList}
+     * @param workingKeyExtractor key extractor used to extract keys from items inside {@link #workingList}
+     * @param equalsFunction      equals function to compare items matched by key
+     * @param executor            executor to partition collections and evaluate equals functions with
+     * @return future compare result, completed exceptionally if key extractor or equals function fails
+     */
+    public CompletableFuture<CmpResult<B, W>> compareAsync(
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            Executor executor
+    ) {
+        return new AsyncCollectionCmp<>(baseList, workingList, config.duplicateKeys, executor, config.maxInFlight)
+                .compare(baseKeyExtractor, workingKeyExtractor, plan(equalsFunction));
+    }
+
+    /**
+     * Compares collections lazily, compare pairs are published as subscriber requests them.
+     * <p>Publisher is cold, each subscription compares collections again. Both collections are partitioned when the first
+     * pair is requested, then pairs are produced one base key at a time on the thread that requests them, so no more
+     * pairs are compared than requested and cancelled subscription stops compare early. Items are matched and compared
+     * the same way as in {@link #compare(Function, Function, BiFunction)}, but always sequentially and with partitions,
+     * fork-join pool and {@link CmpStrategy} are ignored.
+     *
+     * @param baseKeyExtractor    key extractor used to extract keys from items inside {@link #baseList}
+     * @param workingKeyExtractor key extractor used to extract keys from items inside {@link #workingList}
+     * @param equalsFunction      equals function to compare items matched by key
+     * @return publisher of compare pairs
+     */
+    public Flow.Publisher<CmpPair<B, W>> comparePublisher(
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction
+    ) {
+        return new CmpPublisher<>(() -> {
+            switch (config.duplicateKeys) {
+                case FAIL:
+                    return CmpPairIterator.of(buildStrictPartition(baseList, baseKeyExtractor),
+                            buildStrictPartition(workingList, workingKeyExtractor), plan(equalsFunction));
+                case ALL:
+                    return CmpPairIterator.ofGroups(buildMultiPartition(baseList, baseKeyExtractor),
+                            buildMultiPartition(workingList, workingKeyExtractor), plan(equalsFunction));
+                default:
+                    return CmpPairIterator.of(buildPartition(baseList, baseKeyExtractor),
+                            buildPartition(workingList, workingKeyExtractor), plan(equalsFunction));
+            }
+        });
+    }
+
+    /**
+     * Compares collections into sinks created by sinkFactory, one sink when compared sequentially, one per shard when
+     * compared in parallel, and merges them into result.
+     */
+    private <S extends CmpSink<B, W>, R> R compare(
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            Supplier<S> sinkFactory,
+            Function<List<S>, R> merge
+    ) {
+        final CmpMeter meter = startMeter();
+        final List<S> sinks;
+        if (isParallel()) {
+            sinks = new ParallelCollectionCmp<>(baseList, workingList, config.pool, config.duplicateKeys)
+                    .compare(baseKeyExtractor, workingKeyExtractor, meter.count(plan(equalsFunction)), sinkFactory, meter::count);
+            meter.phase(CmpMetrics.Phase.COMPARE);
+        } else {
+            sinks = List.of(sinkFactory.get());
+            compareSequential(baseKeyExtractor, workingKeyExtractor, meter.count(plan(equalsFunction)), meter.count(sinks.get(0)), meter);
+        }
+        meter.finish();
+        return merge.apply(sinks);
+    }
+
+    private void compareSequential(
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink,
+            CmpMeter meter
+    ) {
+        if (config.duplicateKeys == DuplicateKeys.FAIL) {
+            var basePartition = buildStrictPartition(baseList, baseKeyExtractor);
+            meter.phase(CmpMetrics.Phase.PARTITION_BASE);
+            var workingPartition = buildStrictPartition(workingList, workingKeyExtractor);
+            meter.phase(CmpMetrics.Phase.PARTITION_WORKING);
+            meter.duplicateKeys(0, 0);
+            compare(basePartition, workingPartition, equalsFunction, sink, meter);
+            return;
+        }
+        if (config.duplicateKeys == DuplicateKeys.ALL) {
+            var basePartition = buildMultiPartition(baseList, baseKeyExtractor);
+            meter.phase(CmpMetrics.Phase.PARTITION_BASE);
+            var workingPartition = buildMultiPartition(workingList, workingKeyExtractor);
+            meter.phase(CmpMetrics.Phase.PARTITION_WORKING);
+            meter.duplicateKeys(baseList.size() - basePartition.size(), workingList.size() - workingPartition.size());
+            compareGroups(basePartition, workingPartition, equalsFunction, sink, meter);
+            return;
+        }
+        if (config.hasLongKeys()) {
+            LongKeyCollectionCmp.compare(baseList, workingList, config.baseLongKeyExtractor, config.workingLongKeyExtractor,
+                    config.longKeyBoxing, equalsFunction, sink);
+            meter.phase(CmpMetrics.Phase.COMPARE);
+            return;
+        }
+        if (config.strategy == CmpStrategy.SINGLE_INDEX) {
+            SingleIndexCollectionCmp.compare(baseList, workingList, baseKeyExtractor, workingKeyExtractor, equalsFunction, sink);
+            meter.phase(CmpMetrics.Phase.COMPARE);
+            return;
+        }
+
         var basePartition = buildPartition(baseList, baseKeyExtractor);
+        meter.phase(CmpMetrics.Phase.PARTITION_BASE);
         var workingPartition = buildPartition(workingList, workingKeyExtractor);
+        meter.phase(CmpMetrics.Phase.PARTITION_WORKING);
+        meter.duplicateKeys(baseList.size() - basePartition.size(), workingList.size() - workingPartition.size());
+        compare(basePartition, workingPartition, equalsFunction, sink, meter);
+    }
 
-        List<CmpPair<B, W>> added = new ArrayList<>();
-        List<CmpPair<B, W>> removed = new ArrayList<>();
-        List<CmpPair<B, W>> updated = new ArrayList<>();
-        List<CmpPair<B, W>> unchanged = new ArrayList<>();
+    /**
+     * Compares partitions and pushes compare pairs to sink. Working partition is scanned for added items only if some
+     * base items are removed or partitions have different number of keys, otherwise all keys are matched.
+     *
+     * @param basePartition    partition of base items
+     * @param workingPartition partition of working items
+     * @param equalsFunction   equals function to compare items matched by key
+     * @param sink             sink that receives all compare pairs
+     */
+    static <B, W> void compare(
+            Map<Serializable, B> basePartition,
+            Map<Serializable, W> workingPartition,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink
+    ) {
+        compare(basePartition, workingPartition, equalsFunction, sink, CmpMeter.NONE);
+    }
 
-        basePartition.forEach((key, base) -> {
+    private static <B, W> void compare(
+            Map<Serializable, B> basePartition,
+            Map<Serializable, W> workingPartition,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink,
+            CmpMeter meter
+    ) {
+        boolean removed = false;
+        for (Map.Entry<Serializable, B> entry : basePartition.entrySet()) {
+            final Serializable key = entry.getKey();
+            final B base = entry.getValue();
             if (workingPartition.containsKey(key)) {
-                final W working = workingPartition.get(key);
-                if (ObjectCmp.equals(base, working, equalsFunction)) {
-                    unchanged.add(CmpPair.unchanged(key, base));
-                } else {
-                    updated.add(CmpPair.updated(key, base, working));
+                compareMatched(key, base, workingPartition.get(key), equalsFunction, sink);
+            } else {
+                removed = true;
+                sink.onRemoved(key, base);
+            }
+        }
+        meter.phase(CmpMetrics.Phase.COMPARE);
+
+        if (removed || basePartition.size() != workingPartition.size()) {
+            for (Map.Entry<Serializable, W> entry : workingPartition.entrySet()) {
+                if (!basePartition.containsKey(entry.getKey())) {
+                    sink.onAdded(entry.getKey(), entry.getValue());
                 }
+            }
+        }
+        meter.phase(CmpMetrics.Phase.ADDED_SCAN);
+    }
+
+    /**
+     * Compares multi partitions and pushes compare pairs to sink. Groups of items with the same key are compared with
+     * {@link #compareGroup(Serializable, List, List, BiFunction, CmpSink)}.
+     *
+     * @param basePartition    multi partition of base items
+     * @param workingPartition multi partition of working items
+     * @param equalsFunction   equals function to compare items matched by key
+     * @param sink             sink that receives all compare pairs
+     */
+    static <B, W> void compareGroups(
+            Map<Serializable, List<B>> basePartition,
+            Map<Serializable, List<W>> workingPartition,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink
+    ) {
+        compareGroups(basePartition, workingPartition, equalsFunction, sink, CmpMeter.NONE);
+    }
+
+    private static <B, W> void compareGroups(
+            Map<Serializable, List<B>> basePartition,
+            Map<Serializable, List<W>> workingPartition,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink,
+            CmpMeter meter
+    ) {
+        for (Map.Entry<Serializable, List<B>> entry : basePartition.entrySet()) {
+            final Serializable key = entry.getKey();
+            final List<W> workingGroup = workingPartition.get(key);
+            if (workingGroup == null) {
+                entry.getValue().forEach(base -> sink.onRemoved(key, base));
             } else {
-                removed.add(CmpPair.removed(key, base));
+                compareGroup(key, entry.getValue(), workingGroup, equalsFunction, sink);
             }
-        });
+        }
+        meter.phase(CmpMetrics.Phase.COMPARE);
+        for (Map.Entry<Serializable, List<W>> entry : workingPartition.entrySet()) {
+            if (!basePartition.containsKey(entry.getKey())) {
+                entry.getValue().forEach(working -> sink.onAdded(entry.getKey(), working));
+            }
+        }
+        meter.phase(CmpMetrics.Phase.ADDED_SCAN);
+    }
+
+    /**
+     * Compares base and working items with the same key. Each base item is first paired with the first equal unpaired
+     * working item as unchanged, remaining base and working items are then paired in order as updated, and the rest are
+     * removed or added.
+     */
+    static <B, W> void compareGroup(
+            Serializable key,
+            List<B> baseGroup,
+            List<W> workingGroup,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink
+    ) {
+        if (baseGroup.size() == 1 && workingGroup.size() == 1) {
+            compareMatched(key, baseGroup.get(0), workingGroup.get(0), equalsFunction, sink);
+            return;
+        }
+
+        final boolean[] basePaired = new boolean[baseGroup.size()];
+        final boolean[] workingPaired = new boolean[workingGroup.size()];
+        for (int b = 0; b < basePaired.length; b++) {
+            for (int w = 0; w < workingPaired.length; w++) {
+                if (!workingPaired[w] && ObjectCmp.equals(baseGroup.get(b), workingGroup.get(w), equalsFunction)) {
+                    sink.onUnchanged(key, baseGroup.get(b), workingGroup.get(w));
+                    basePaired[b] = workingPaired[w] = true;
+                    break;
+                }
+            }
+        }
+
+        int w = 0;
+        for (int b = 0; b < basePaired.length; b++) {
+            if (basePaired[b]) continue;
+            while (w < workingPaired.length && workingPaired[w]) w++;
+            if (w < workingPaired.length) {
+                updated(key, baseGroup.get(b), workingGroup.get(w++), equalsFunction, sink);
+            } else {
+                sink.onRemoved(key, baseGroup.get(b));
+            }
+        }
+        for (; w < workingPaired.length; w++) {
+            if (!workingPaired[w]) {
+                sink.onAdded(key, workingGroup.get(w));
+            }
+        }
+    }
+
+    /**
+     * Compares items matched by key and pushes unchanged or updated pair to sink. When equals function is
+     * {@link EqualityPlan}, mismatched equality pairs of updated items are recorded in the same pass.
+     */
+    @SuppressWarnings("unchecked")
+    static <B, W> void compareMatched(
+            Serializable key,
+            B base,
+            W working,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink
+    ) {
+        if (equalsFunction instanceof EqualityPlan && base != working && base != null && working != null) {
+            final long mismatches = ((EqualityPlan<B, W>) equalsFunction).mismatches(base, working);
+            if (mismatches == 0) {
+                sink.onUnchanged(key, base, working);
+            } else {
+                sink.onUpdated(key, base, working, mismatches);
+            }
+        } else if (ObjectCmp.equals(base, working, equalsFunction)) {
+            sink.onUnchanged(key, base, working);
+        } else {
+            sink.onUpdated(key, base, working);
+        }
+    }
+
+    /**
+     * Pushes updated pair of items that are known not to be equal, mismatches of equality plan are evaluated again
+     */
+    @SuppressWarnings("unchecked")
+    private static <B, W> void updated(
+            Serializable key,
+            B base,
+            W working,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink
+    ) {
+        if (equalsFunction instanceof EqualityPlan && base != null && working != null) {
+            sink.onUpdated(key, base, working, ((EqualityPlan<B, W>) equalsFunction).mismatches(base, working));
+        } else {
+            sink.onUpdated(key, base, working);
+        }
+    }
 
-        if (baseList.size() != workingList.size() || !removed.isEmpty()) {
-            var addedKeys = new HashSet<>(workingPartition.keySet());
-            addedKeys.removeAll(basePartition.keySet());
-            addedKeys.forEach(multiKey -> added.add(CmpPair.added(multiKey, workingPartition.get(multiKey))));
+    /**
+     * @return items whose key hash falls below threshold out of 2^53
+     */
+    private static <T> List<T> sample(Collection<T> items, Function<T, Serializable> keyExtractor, long threshold) {
+        final List<T> sampled = new ArrayList<>();
+        for (T item : items) {
+            if (Fingerprints.mix(Fingerprints.hash(keyExtractor.apply(item))) >>> 11 < threshold) {
+                sampled.add(item);
+            }
         }
-        return new CmpResult<>(removed, added, updated, unchanged);
+        return sampled;
+    }
+
+    /**
+     * @return equals function to compare with, equality plan evaluates all pairs when all mismatches are recorded
+     */
+    @SuppressWarnings("unchecked")
+    private BiFunction<B, W, Boolean> plan(BiFunction<B, W, Boolean> equalsFunction) {
+        return config.allMismatches && equalsFunction instanceof EqualityPlan
+                ? ((EqualityPlan<B, W>) equalsFunction).allMismatches()
+                : equalsFunction;
+    }
+
+    private CmpMeter startMeter() {
+        final String strategy;
+        if (isParallel()) {
+            strategy = "PARALLEL";
+        } else if (config.duplicateKeys != DuplicateKeys.FIRST) {
+            strategy = CmpStrategy.PARTITION.name();
+        } else if (config.hasLongKeys()) {
+            strategy = "LONG_KEY";
+        } else {
+            strategy = config.strategy.name();
+        }
+        return CmpMeter.start(config.metrics, strategy, config.duplicateKeys, baseList.size(), workingList.size());
+    }
+
+    private boolean isParallel() {
+        return config.pool != null && baseList.size() + workingList.size() >= ParallelCollectionCmp.SEQUENTIAL_THRESHOLD;
     }
 }
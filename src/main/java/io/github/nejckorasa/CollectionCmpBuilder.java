@@ -1,10 +1,21 @@
 package io.github.nejckorasa;
 
+import io.github.nejckorasa.result.CmpCounts;
+import io.github.nejckorasa.result.CmpEstimate;
+import io.github.nejckorasa.result.CmpPair;
 import io.github.nejckorasa.result.CmpResult;
+import io.github.nejckorasa.result.CmpSample;
+import io.github.nejckorasa.result.CompactCmpResult;
+import io.github.nejckorasa.result.CmpSink;
 
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -23,6 +34,7 @@ public class CollectionCmpBuilder<B, W> {
     private final Function<W, Serializable> workingKeyExtractor;
 
     private BiFunction<B, W, Boolean> equalsFunction = DEFAULT_EQUALS_FUNCTION::apply;
+    private final CmpConfig<B, W> config;
 
     /**
      * Initialize builder base and working collections.
@@ -37,11 +49,134 @@ public class CollectionCmpBuilder<B, W> {
             Collection<W> workingList,
             Function<B, Serializable> baseKeyExtractor,
             Function<W, Serializable> workingKeyExtractor
+    ) {
+        this(baseList, workingList, baseKeyExtractor, workingKeyExtractor, new CmpConfig<>());
+    }
+
+    /**
+     * Initialize builder base and working collections matched by primitive keys.
+     *
+     * @param baseList    base collection to compare
+     * @param workingList working collection to compare
+     * @param config      config with primitive key extractors
+     */
+    CollectionCmpBuilder(Collection<B> baseList, Collection<W> workingList, CmpConfig<B, W> config) {
+        this(baseList, workingList,
+                b -> config.longKeyBoxing.apply(config.baseLongKeyExtractor.applyAsLong(b)),
+                w -> config.longKeyBoxing.apply(config.workingLongKeyExtractor.applyAsLong(w)),
+                config);
+    }
+
+    private CollectionCmpBuilder(
+            Collection<B> baseList,
+            Collection<W> workingList,
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            CmpConfig<B, W> config
     ) {
         this.baseList = baseList;
         this.workingList = workingList;
         this.baseKeyExtractor = baseKeyExtractor;
         this.workingKeyExtractor = workingKeyExtractor;
+        this.config = config;
+    }
+
+    /**
+     * Compare collections in parallel using fork-join pool. Collections are sharded by key hash, shards are partitioned
+     * and compared concurrently. Small collections are still compared sequentially.
+     *
+     * @param pool fork-join pool to compare collections with
+     * @return this builder
+     */
+    public CollectionCmpBuilder<B, W> parallel(ForkJoinPool pool) {
+        config.pool = Objects.requireNonNull(pool, "pool");
+        return this;
+    }
+
+    /**
+     * Compare collections in parallel using {@link ForkJoinPool#commonPool()}
+     *
+     * @return this builder
+     * @see #parallel(ForkJoinPool)
+     */
+    public CollectionCmpBuilder<B, W> parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Use strategy to match items by key, default strategy is {@link CmpStrategy#PARTITION}. Strategy applies to
+     * sequential compare, parallel compare always partitions shards.
+     *
+     * @param strategy strategy to match items with
+     * @return this builder
+     */
+    public CollectionCmpBuilder<B, W> strategy(CmpStrategy strategy) {
+        config.strategy = Objects.requireNonNull(strategy, "strategy");
+        return this;
+    }
+
+    /**
+     * Use policy for items with colliding keys, default policy is {@link DuplicateKeys#FIRST}. Policies that fail or
+     * keep all colliding items always partition collections, regardless of strategy.
+     *
+     * @param duplicateKeys policy for items with colliding keys
+     * @return this builder
+     */
+    public CollectionCmpBuilder<B, W> duplicateKeys(DuplicateKeys duplicateKeys) {
+        config.duplicateKeys = Objects.requireNonNull(duplicateKeys, "duplicateKeys");
+        return this;
+    }
+
+    /**
+     * Limit number of equals tasks submitted to executor at a time when compared asynchronously, default limit is
+     * 64
+     *
+     * @param maxInFlight maximum number of equals tasks in flight, must be positive
+     * @return this builder
+     * @see CollectionCmp#compareAsync(Function, Function, BiFunction, Executor)
+     */
+    public CollectionCmpBuilder<B, W> maxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive, was " + maxInFlight);
+        }
+        config.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Report compare phases and counters to metrics. Compare is not measured by default.
+     *
+     * @param metrics metrics listener to report to
+     * @return this builder
+     */
+    public CollectionCmpBuilder<B, W> metrics(CmpMetrics metrics) {
+        config.metrics = Objects.requireNonNull(metrics, "metrics");
+        return this;
+    }
+
+    /**
+     * Record all mismatched equality pairs of updated items, see {@link io.github.nejckorasa.result.CmpPair#getMismatches()}.
+     * By default evaluation stops at the first mismatch and only that one is recorded, which costs nothing extra.
+     *
+     * @return this builder
+     * @see EqualityPlan#allMismatches()
+     */
+    public CollectionCmpBuilder<B, W> allMismatches() {
+        config.allMismatches = true;
+        return this;
+    }
+
+    /**
+     * Stores compare pairs of results in parallel arrays of keys and items instead of {@link CmpPair} objects, pairs
+     * are created only when read. Result holds several times less heap and {@link CompactCmpResult#getAll()},
+     * {@link CompactCmpResult#getChanged()} and {@link CompactCmpResult#getDifferent()} return views instead of copies.
+     * Applies to {@code compare(...)} and {@code compareChanges(...)}.
+     *
+     * @return this builder
+     */
+    public CollectionCmpBuilder<B, W> compact() {
+        config.compact = true;
+        return this;
     }
 
     /**
@@ -52,7 +187,7 @@ public class CollectionCmpBuilder<B, W> {
      */
     public CmpResult<B, W> compare(BiFunction<B, W, Boolean> equalsFunction) {
         this.equalsFunction = equalsFunction;
-        return new CollectionCmp<>(baseList, workingList).compare(baseKeyExtractor, workingKeyExtractor, equalsFunction);
+        return cmp().compare(baseKeyExtractor, workingKeyExtractor, equalsFunction);
     }
 
     /**
@@ -64,6 +199,218 @@ public class CollectionCmpBuilder<B, W> {
     @SafeVarargs
     public final CmpResult<B, W> compare(EqPair<B, W>... eqPair) {
         equalsFunction = buildEqualsFunctionFromEqualityPairs(List.of(eqPair));
-        return new CollectionCmp<>(baseList, workingList).compare(baseKeyExtractor, workingKeyExtractor, equalsFunction);
+        return cmp().compare(baseKeyExtractor, workingKeyExtractor, equalsFunction);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, only changed compare pairs are collected
+     *
+     * @param equalsFunction equals function to compare matched items with
+     * @return compare result, containing only changes, without unchanged pairs
+     */
+    public CmpResult<B, W> compareChanges(BiFunction<B, W, Boolean> equalsFunction) {
+        this.equalsFunction = equalsFunction;
+        return cmp().compareChanges(baseKeyExtractor, workingKeyExtractor, equalsFunction);
+    }
+
+    /**
+     * Compare matched items based on eqPair, only changed compare pairs are collected
+     *
+     * @param eqPair equality pair based on which objects are compared
+     * @return compare result, containing only changes, without unchanged pairs
+     */
+    @SafeVarargs
+    public final CmpResult<B, W> compareChanges(EqPair<B, W>... eqPair) {
+        equalsFunction = buildEqualsFunctionFromEqualityPairs(List.of(eqPair));
+        return cmp().compareChanges(baseKeyExtractor, workingKeyExtractor, equalsFunction);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, only number of compare pairs of each difference type is
+     * counted
+     *
+     * @param equalsFunction equals function to compare matched items with
+     * @return compare counts
+     */
+    public CmpCounts count(BiFunction<B, W, Boolean> equalsFunction) {
+        this.equalsFunction = equalsFunction;
+        return cmp().count(baseKeyExtractor, workingKeyExtractor, equalsFunction);
+    }
+
+    /**
+     * Compare matched items based on eqPair, only number of compare pairs of each difference type is counted
+     *
+     * @param eqPair equality pair based on which objects are compared
+     * @return compare counts
+     */
+    @SafeVarargs
+    public final CmpCounts count(EqPair<B, W>... eqPair) {
+        equalsFunction = buildEqualsFunctionFromEqualityPairs(List.of(eqPair));
+        return cmp().count(baseKeyExtractor, workingKeyExtractor, equalsFunction);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, only a bounded sample of compare pairs of each
+     * difference type is kept, while counts are exact
+     *
+     * @param sampling       how many and which compare pairs are kept
+     * @param equalsFunction equals function to compare matched items with
+     * @return exact counts and sample of compare pairs
+     * @see CollectionCmp#compareSample(Function, Function, BiFunction, CmpSampling)
+     */
+    public CmpSample<B, W> compareSample(CmpSampling sampling, BiFunction<B, W, Boolean> equalsFunction) {
+        this.equalsFunction = equalsFunction;
+        return cmp().compareSample(baseKeyExtractor, workingKeyExtractor, equalsFunction, sampling);
+    }
+
+    /**
+     * Compare matched items based on eqPair, only a bounded sample of compare pairs of each difference type is kept,
+     * while counts are exact
+     *
+     * @param sampling how many and which compare pairs are kept
+     * @param eqPair   equality pair based on which objects are compared
+     * @return exact counts and sample of compare pairs
+     * @see CollectionCmp#compareSample(Function, Function, BiFunction, CmpSampling)
+     */
+    @SafeVarargs
+    public final CmpSample<B, W> compareSample(CmpSampling sampling, EqPair<B, W>... eqPair) {
+        equalsFunction = buildEqualsFunctionFromEqualityPairs(List.of(eqPair));
+        return cmp().compareSample(baseKeyExtractor, workingKeyExtractor, equalsFunction, sampling);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, only a sample of keys is compared to estimate change
+     * rates
+     *
+     * @param sampleRate     fraction of keys to sample, greater than 0 and at most 1
+     * @param equalsFunction equals function to compare matched items with
+     * @return estimated change rates
+     * @see CollectionCmp#estimate(Function, Function, BiFunction, double)
+     */
+    public CmpEstimate estimate(double sampleRate, BiFunction<B, W, Boolean> equalsFunction) {
+        this.equalsFunction = equalsFunction;
+        return cmp().estimate(baseKeyExtractor, workingKeyExtractor, equalsFunction, sampleRate);
+    }
+
+    /**
+     * Compare matched items based on eqPair, only a sample of keys is compared to estimate change rates
+     *
+     * @param sampleRate fraction of keys to sample, greater than 0 and at most 1
+     * @param eqPair     equality pair based on which objects are compared
+     * @return estimated change rates
+     * @see CollectionCmp#estimate(Function, Function, BiFunction, double)
+     */
+    @SafeVarargs
+    public final CmpEstimate estimate(double sampleRate, EqPair<B, W>... eqPair) {
+        equalsFunction = buildEqualsFunctionFromEqualityPairs(List.of(eqPair));
+        return cmp().estimate(baseKeyExtractor, workingKeyExtractor, equalsFunction, sampleRate);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, only checks whether collections differ and returns on
+     * the first change
+     *
+     * @param equalsFunction equals function to compare matched items with
+     * @return true if there are any added, removed or updated items
+     * @see CollectionCmp#anyChange(Function, Function, BiFunction)
+     */
+    public boolean anyChange(BiFunction<B, W, Boolean> equalsFunction) {
+        this.equalsFunction = equalsFunction;
+        return cmp().anyChange(baseKeyExtractor, workingKeyExtractor, equalsFunction);
+    }
+
+    /**
+     * Compare matched items based on eqPair, only checks whether collections differ and returns on the first change
+     *
+     * @param eqPair equality pair based on which objects are compared
+     * @return true if there are any added, removed or updated items
+     * @see CollectionCmp#anyChange(Function, Function, BiFunction)
+     */
+    @SafeVarargs
+    public final boolean anyChange(EqPair<B, W>... eqPair) {
+        equalsFunction = buildEqualsFunctionFromEqualityPairs(List.of(eqPair));
+        return cmp().anyChange(baseKeyExtractor, workingKeyExtractor, equalsFunction);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, compare pairs are pushed to sink as they are found and
+     * no compare result is built
+     *
+     * @param equalsFunction equals function to compare matched items with
+     * @param sink           sink that receives all compare pairs
+     */
+    public void compare(BiFunction<B, W, Boolean> equalsFunction, CmpSink<B, W> sink) {
+        this.equalsFunction = equalsFunction;
+        cmp().compare(baseKeyExtractor, workingKeyExtractor, equalsFunction, sink);
+    }
+
+    /**
+     * Compare matched items based on eqPair, compare pairs are pushed to sink as they are found and no compare result
+     * is built
+     *
+     * @param sink   sink that receives all compare pairs
+     * @param eqPair equality pair based on which objects are compared
+     */
+    @SafeVarargs
+    public final void compare(CmpSink<B, W> sink, EqPair<B, W>... eqPair) {
+        equalsFunction = buildEqualsFunctionFromEqualityPairs(List.of(eqPair));
+        cmp().compare(baseKeyExtractor, workingKeyExtractor, equalsFunction, sink);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, equals functions are evaluated concurrently on executor
+     *
+     * @param executor       executor to evaluate equals functions with
+     * @param equalsFunction equals function to compare matched items with
+     * @return future compare result, containing all changes
+     * @see CollectionCmp#compareAsync(Function, Function, BiFunction, Executor)
+     */
+    public CompletableFuture<CmpResult<B, W>> compareAsync(Executor executor, BiFunction<B, W, Boolean> equalsFunction) {
+        this.equalsFunction = equalsFunction;
+        return cmp().compareAsync(baseKeyExtractor, workingKeyExtractor, equalsFunction, executor);
+    }
+
+    /**
+     * Compare matched items based on eqPair, equals functions are evaluated concurrently on executor
+     *
+     * @param executor executor to evaluate equals functions with
+     * @param eqPair   equality pair based on which objects are compared
+     * @return future compare result, containing all changes
+     * @see CollectionCmp#compareAsync(Function, Function, BiFunction, Executor)
+     */
+    @SafeVarargs
+    public final CompletableFuture<CmpResult<B, W>> compareAsync(Executor executor, EqPair<B, W>... eqPair) {
+        equalsFunction = buildEqualsFunctionFromEqualityPairs(List.of(eqPair));
+        return cmp().compareAsync(baseKeyExtractor, workingKeyExtractor, equalsFunction, executor);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, compare pairs are published lazily as subscriber
+     * requests them
+     *
+     * @param equalsFunction equals function to compare matched items with
+     * @return publisher of compare pairs
+     * @see CollectionCmp#comparePublisher(Function, Function, BiFunction)
+     */
+    public Flow.Publisher<CmpPair<B, W>> comparePublisher(BiFunction<B, W, Boolean> equalsFunction) {
+        this.equalsFunction = equalsFunction;
+        return cmp().comparePublisher(baseKeyExtractor, workingKeyExtractor, equalsFunction);
+    }
+
+    /**
+     * Compare matched items based on eqPair, compare pairs are published lazily as subscriber requests them
+     *
+     * @param eqPair equality pair based on which objects are compared
+     * @return publisher of compare pairs
+     * @see CollectionCmp#comparePublisher(Function, Function, BiFunction)
+     */
+    @SafeVarargs
+    public final Flow.Publisher<CmpPair<B, W>> comparePublisher(EqPair<B, W>... eqPair) {
+        equalsFunction = buildEqualsFunctionFromEqualityPairs(List.of(eqPair));
+        return cmp().comparePublisher(baseKeyExtractor, workingKeyExtractor, equalsFunction);
+    }
+
+    private CollectionCmp<B, W> cmp() {
+        return new CollectionCmp<>(baseList, workingList, config);
     }
 }
\ No newline at end of file
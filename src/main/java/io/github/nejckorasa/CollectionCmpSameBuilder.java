@@ -1,10 +1,21 @@
 package io.github.nejckorasa;
 
+import io.github.nejckorasa.result.CmpCounts;
+import io.github.nejckorasa.result.CmpEstimate;
+import io.github.nejckorasa.result.CmpPair;
 import io.github.nejckorasa.result.CmpResult;
+import io.github.nejckorasa.result.CmpSample;
+import io.github.nejckorasa.result.CompactCmpResult;
+import io.github.nejckorasa.result.CmpSink;
 
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -22,6 +33,7 @@ public class CollectionCmpSameBuilder<O> {
     private final Function<O, Serializable> keyExtractor;
 
     private BiFunction<O, O, Boolean> equalsFunction = DEFAULT_EQUALS_FUNCTION::apply;
+    private final CmpConfig<O, O> config;
 
     /**
      * Initialize builder base and working collections.
@@ -31,9 +43,128 @@ public class CollectionCmpSameBuilder<O> {
      * @param keyExtractor key extractor used to extract keys from items inside {@link #baseList} and {@link #workingList}
      */
     CollectionCmpSameBuilder(Collection<O> baseList, Collection<O> workingList, Function<O, Serializable> keyExtractor) {
+        this(baseList, workingList, keyExtractor, new CmpConfig<>());
+    }
+
+    /**
+     * Initialize builder base and working collections matched by primitive keys.
+     *
+     * @param baseList    base collection to compare
+     * @param workingList working collection to compare
+     * @param config      config with primitive key extractors
+     */
+    CollectionCmpSameBuilder(Collection<O> baseList, Collection<O> workingList, CmpConfig<O, O> config) {
+        this(baseList, workingList, o -> config.longKeyBoxing.apply(config.baseLongKeyExtractor.applyAsLong(o)), config);
+    }
+
+    private CollectionCmpSameBuilder(
+            Collection<O> baseList,
+            Collection<O> workingList,
+            Function<O, Serializable> keyExtractor,
+            CmpConfig<O, O> config
+    ) {
         this.baseList = baseList;
         this.workingList = workingList;
         this.keyExtractor = keyExtractor;
+        this.config = config;
+    }
+
+    /**
+     * Compare collections in parallel using fork-join pool. Collections are sharded by key hash, shards are partitioned
+     * and compared concurrently. Small collections are still compared sequentially.
+     *
+     * @param pool fork-join pool to compare collections with
+     * @return this builder
+     */
+    public CollectionCmpSameBuilder<O> parallel(ForkJoinPool pool) {
+        config.pool = Objects.requireNonNull(pool, "pool");
+        return this;
+    }
+
+    /**
+     * Compare collections in parallel using {@link ForkJoinPool#commonPool()}
+     *
+     * @return this builder
+     * @see #parallel(ForkJoinPool)
+     */
+    public CollectionCmpSameBuilder<O> parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Use strategy to match items by key, default strategy is {@link CmpStrategy#PARTITION}. Strategy applies to
+     * sequential compare, parallel compare always partitions shards.
+     *
+     * @param strategy strategy to match items with
+     * @return this builder
+     */
+    public CollectionCmpSameBuilder<O> strategy(CmpStrategy strategy) {
+        config.strategy = Objects.requireNonNull(strategy, "strategy");
+        return this;
+    }
+
+    /**
+     * Use policy for items with colliding keys, default policy is {@link DuplicateKeys#FIRST}. Policies that fail or
+     * keep all colliding items always partition collections, regardless of strategy.
+     *
+     * @param duplicateKeys policy for items with colliding keys
+     * @return this builder
+     */
+    public CollectionCmpSameBuilder<O> duplicateKeys(DuplicateKeys duplicateKeys) {
+        config.duplicateKeys = Objects.requireNonNull(duplicateKeys, "duplicateKeys");
+        return this;
+    }
+
+    /**
+     * Limit number of equals tasks submitted to executor at a time when compared asynchronously, default limit is
+     * 64
+     *
+     * @param maxInFlight maximum number of equals tasks in flight, must be positive
+     * @return this builder
+     * @see CollectionCmp#compareAsync(Function, Function, BiFunction, Executor)
+     */
+    public CollectionCmpSameBuilder<O> maxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive, was " + maxInFlight);
+        }
+        config.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Report compare phases and counters to metrics. Compare is not measured by default.
+     *
+     * @param metrics metrics listener to report to
+     * @return this builder
+     */
+    public CollectionCmpSameBuilder<O> metrics(CmpMetrics metrics) {
+        config.metrics = Objects.requireNonNull(metrics, "metrics");
+        return this;
+    }
+
+    /**
+     * Record all mismatched equality pairs of updated items, see {@link io.github.nejckorasa.result.CmpPair#getMismatches()}.
+     * By default evaluation stops at the first mismatch and only that one is recorded, which costs nothing extra.
+     *
+     * @return this builder
+     * @see EqualityPlan#allMismatches()
+     */
+    public CollectionCmpSameBuilder<O> allMismatches() {
+        config.allMismatches = true;
+        return this;
+    }
+
+    /**
+     * Stores compare pairs of results in parallel arrays of keys and items instead of {@link CmpPair} objects, pairs
+     * are created only when read. Result holds several times less heap and {@link CompactCmpResult#getAll()},
+     * {@link CompactCmpResult#getChanged()} and {@link CompactCmpResult#getDifferent()} return views instead of copies.
+     * Applies to {@code compare(...)} and {@code compareChanges(...)}.
+     *
+     * @return this builder
+     */
+    public CollectionCmpSameBuilder<O> compact() {
+        config.compact = true;
+        return this;
     }
 
     /**
@@ -42,7 +173,7 @@ public class CollectionCmpSameBuilder<O> {
      */
     public CmpResult<O, O> compare(BiFunction<O, O, Boolean> equalsFunction) {
         this.equalsFunction = equalsFunction;
-        return new CollectionCmp<>(baseList, workingList).compare(keyExtractor, keyExtractor, equalsFunction);
+        return cmp().compare(keyExtractor, keyExtractor, equalsFunction);
     }
 
     /**
@@ -52,6 +183,218 @@ public class CollectionCmpSameBuilder<O> {
     @SafeVarargs
     public final CmpResult<O, O> compare(Function<O, ?>... equality) {
         equalsFunction = buildEqualsFunctionFromEqualities(List.of(equality));
-        return new CollectionCmp<>(baseList, workingList).compare(keyExtractor, keyExtractor, equalsFunction);
+        return cmp().compare(keyExtractor, keyExtractor, equalsFunction);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, only changed compare pairs are collected
+     *
+     * @param equalsFunction equals function to compare matched items with
+     * @return compare result, containing only changes, without unchanged pairs
+     */
+    public CmpResult<O, O> compareChanges(BiFunction<O, O, Boolean> equalsFunction) {
+        this.equalsFunction = equalsFunction;
+        return cmp().compareChanges(keyExtractor, keyExtractor, equalsFunction);
+    }
+
+    /**
+     * Compare matched items based on equality, only changed compare pairs are collected
+     *
+     * @param equality equality based on which objects are compared
+     * @return compare result, containing only changes, without unchanged pairs
+     */
+    @SafeVarargs
+    public final CmpResult<O, O> compareChanges(Function<O, ?>... equality) {
+        equalsFunction = buildEqualsFunctionFromEqualities(List.of(equality));
+        return cmp().compareChanges(keyExtractor, keyExtractor, equalsFunction);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, only number of compare pairs of each difference type is
+     * counted
+     *
+     * @param equalsFunction equals function to compare matched items with
+     * @return compare counts
+     */
+    public CmpCounts count(BiFunction<O, O, Boolean> equalsFunction) {
+        this.equalsFunction = equalsFunction;
+        return cmp().count(keyExtractor, keyExtractor, equalsFunction);
+    }
+
+    /**
+     * Compare matched items based on equality, only number of compare pairs of each difference type is counted
+     *
+     * @param equality equality based on which objects are compared
+     * @return compare counts
+     */
+    @SafeVarargs
+    public final CmpCounts count(Function<O, ?>... equality) {
+        equalsFunction = buildEqualsFunctionFromEqualities(List.of(equality));
+        return cmp().count(keyExtractor, keyExtractor, equalsFunction);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, only a bounded sample of compare pairs of each
+     * difference type is kept, while counts are exact
+     *
+     * @param sampling       how many and which compare pairs are kept
+     * @param equalsFunction equals function to compare matched items with
+     * @return exact counts and sample of compare pairs
+     * @see CollectionCmp#compareSample(Function, Function, BiFunction, CmpSampling)
+     */
+    public CmpSample<O, O> compareSample(CmpSampling sampling, BiFunction<O, O, Boolean> equalsFunction) {
+        this.equalsFunction = equalsFunction;
+        return cmp().compareSample(keyExtractor, keyExtractor, equalsFunction, sampling);
+    }
+
+    /**
+     * Compare matched items based on equality, only a bounded sample of compare pairs of each difference type is kept,
+     * while counts are exact
+     *
+     * @param sampling how many and which compare pairs are kept
+     * @param equality equality based on which objects are compared
+     * @return exact counts and sample of compare pairs
+     * @see CollectionCmp#compareSample(Function, Function, BiFunction, CmpSampling)
+     */
+    @SafeVarargs
+    public final CmpSample<O, O> compareSample(CmpSampling sampling, Function<O, ?>... equality) {
+        equalsFunction = buildEqualsFunctionFromEqualities(List.of(equality));
+        return cmp().compareSample(keyExtractor, keyExtractor, equalsFunction, sampling);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, only a sample of keys is compared to estimate change
+     * rates
+     *
+     * @param sampleRate     fraction of keys to sample, greater than 0 and at most 1
+     * @param equalsFunction equals function to compare matched items with
+     * @return estimated change rates
+     * @see CollectionCmp#estimate(Function, Function, BiFunction, double)
+     */
+    public CmpEstimate estimate(double sampleRate, BiFunction<O, O, Boolean> equalsFunction) {
+        this.equalsFunction = equalsFunction;
+        return cmp().estimate(keyExtractor, keyExtractor, equalsFunction, sampleRate);
+    }
+
+    /**
+     * Compare matched items based on equality, only a sample of keys is compared to estimate change rates
+     *
+     * @param sampleRate fraction of keys to sample, greater than 0 and at most 1
+     * @param equality   equality based on which objects are compared
+     * @return estimated change rates
+     * @see CollectionCmp#estimate(Function, Function, BiFunction, double)
+     */
+    @SafeVarargs
+    public final CmpEstimate estimate(double sampleRate, Function<O, ?>... equality) {
+        equalsFunction = buildEqualsFunctionFromEqualities(List.of(equality));
+        return cmp().estimate(keyExtractor, keyExtractor, equalsFunction, sampleRate);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, only checks whether collections differ and returns on
+     * the first change
+     *
+     * @param equalsFunction equals function to compare matched items with
+     * @return true if there are any added, removed or updated items
+     * @see CollectionCmp#anyChange(Function, Function, BiFunction)
+     */
+    public boolean anyChange(BiFunction<O, O, Boolean> equalsFunction) {
+        this.equalsFunction = equalsFunction;
+        return cmp().anyChange(keyExtractor, keyExtractor, equalsFunction);
+    }
+
+    /**
+     * Compare matched items based on equality, only checks whether collections differ and returns on the first change
+     *
+     * @param equality equality based on which objects are compared
+     * @return true if there are any added, removed or updated items
+     * @see CollectionCmp#anyChange(Function, Function, BiFunction)
+     */
+    @SafeVarargs
+    public final boolean anyChange(Function<O, ?>... equality) {
+        equalsFunction = buildEqualsFunctionFromEqualities(List.of(equality));
+        return cmp().anyChange(keyExtractor, keyExtractor, equalsFunction);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, compare pairs are pushed to sink as they are found and
+     * no compare result is built
+     *
+     * @param equalsFunction equals function to compare matched items with
+     * @param sink           sink that receives all compare pairs
+     */
+    public void compare(BiFunction<O, O, Boolean> equalsFunction, CmpSink<O, O> sink) {
+        this.equalsFunction = equalsFunction;
+        cmp().compare(keyExtractor, keyExtractor, equalsFunction, sink);
+    }
+
+    /**
+     * Compare matched items based on equality, compare pairs are pushed to sink as they are found and no compare result
+     * is built
+     *
+     * @param sink     sink that receives all compare pairs
+     * @param equality equality based on which objects are compared
+     */
+    @SafeVarargs
+    public final void compare(CmpSink<O, O> sink, Function<O, ?>... equality) {
+        equalsFunction = buildEqualsFunctionFromEqualities(List.of(equality));
+        cmp().compare(keyExtractor, keyExtractor, equalsFunction, sink);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, equals functions are evaluated concurrently on executor
+     *
+     * @param executor       executor to evaluate equals functions with
+     * @param equalsFunction equals function to compare matched items with
+     * @return future compare result, containing all changes
+     * @see CollectionCmp#compareAsync(Function, Function, BiFunction, Executor)
+     */
+    public CompletableFuture<CmpResult<O, O>> compareAsync(Executor executor, BiFunction<O, O, Boolean> equalsFunction) {
+        this.equalsFunction = equalsFunction;
+        return cmp().compareAsync(keyExtractor, keyExtractor, equalsFunction, executor);
+    }
+
+    /**
+     * Compare matched items based on equality, equals functions are evaluated concurrently on executor
+     *
+     * @param executor executor to evaluate equals functions with
+     * @param equality equality based on which objects are compared
+     * @return future compare result, containing all changes
+     * @see CollectionCmp#compareAsync(Function, Function, BiFunction, Executor)
+     */
+    @SafeVarargs
+    public final CompletableFuture<CmpResult<O, O>> compareAsync(Executor executor, Function<O, ?>... equality) {
+        equalsFunction = buildEqualsFunctionFromEqualities(List.of(equality));
+        return cmp().compareAsync(keyExtractor, keyExtractor, equalsFunction, executor);
+    }
+
+    /**
+     * Use equals function to compare items matched by same key, compare pairs are published lazily as subscriber
+     * requests them
+     *
+     * @param equalsFunction equals function to compare matched items with
+     * @return publisher of compare pairs
+     * @see CollectionCmp#comparePublisher(Function, Function, BiFunction)
+     */
+    public Flow.Publisher<CmpPair<O, O>> comparePublisher(BiFunction<O, O, Boolean> equalsFunction) {
+        this.equalsFunction = equalsFunction;
+        return cmp().comparePublisher(keyExtractor, keyExtractor, equalsFunction);
+    }
+
+    /**
+     * Compare matched items based on equality, compare pairs are published lazily as subscriber requests them
+     *
+     * @param equality equality based on which objects are compared
+     * @return publisher of compare pairs
+     * @see CollectionCmp#comparePublisher(Function, Function, BiFunction)
+     */
+    @SafeVarargs
+    public final Flow.Publisher<CmpPair<O, O>> comparePublisher(Function<O, ?>... equality) {
+        equalsFunction = buildEqualsFunctionFromEqualities(List.of(equality));
+        return cmp().comparePublisher(keyExtractor, keyExtractor, equalsFunction);
+    }
+
+    private CollectionCmp<O, O> cmp() {
+        return new CollectionCmp<>(baseList, workingList, config);
     }
 }
\ No newline at end of file
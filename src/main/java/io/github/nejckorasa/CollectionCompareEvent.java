@@ -0,0 +1,50 @@
+package io.github.nejckorasa;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of one collection compare, see {@link CmpMeter}
+ */
+@Name("io.github.nejckorasa.CollectionCompare")
+@Label("Collection Compare")
+@Category("Compare Utils")
+@Description("Compare of base and working collections")
+final class CollectionCompareEvent extends Event {
+    @Label("Strategy")
+    @Description("How items are matched: PARTITION, SINGLE_INDEX, LONG_KEY or PARALLEL")
+    String strategy;
+
+    @Label("Duplicate Keys")
+    String duplicateKeys;
+
+    @Label("Base Size")
+    int baseSize;
+
+    @Label("Working Size")
+    int workingSize;
+
+    @Label("Base Duplicates")
+    int baseDuplicates;
+
+    @Label("Working Duplicates")
+    int workingDuplicates;
+
+    @Label("Removed")
+    long removed;
+
+    @Label("Added")
+    long added;
+
+    @Label("Updated")
+    long updated;
+
+    @Label("Unchanged")
+    long unchanged;
+
+    @Label("Equals Invocations")
+    long equalsInvocations;
+}
@@ -1,9 +1,14 @@
 package io.github.nejckorasa;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -12,7 +17,8 @@ import java.util.function.Function;
 public final class CollectionPartitioner {
 
     /**
-     * Checks if collection can be partitioned using key extracted using provided keyExtractor
+     * Checks if collection can be partitioned using key extracted using provided keyExtractor. Stops at the first
+     * colliding key.
      *
      * @param collection   collection to partition
      * @param keyExtractor key extractor used to extract keys from items in collection
@@ -20,14 +26,21 @@ public final class CollectionPartitioner {
      * @return true if collection can be partitioned
      */
     public static <O> boolean canPartition(Collection<O> collection, Function<O, Serializable> keyExtractor) {
-        return buildPartition(collection, keyExtractor).keySet().size() == collection.size();
+        final Set<Serializable> keys = new HashSet<>();
+        for (O item : collection) {
+            if (!keys.add(keyExtractor.apply(item))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
      * Builds partition of collection using keyExtractor.
      * <p>Partitioning is successful if all keys extracted from items in collection are unique and nonnull. If more than one
      * item has the same key, only the first item will exist in result partition.
-     * <p>Use {@link #canPartition(Collection, Function)} to check if collection can be partitioned.
+     * <p>Use {@link #canPartition(Collection, Function)} to check if collection can be partitioned, or
+     * {@link #buildStrictPartition(Collection, Function)} to check while partitioning.
      *
      * @param collection   collection to partition
      * @param keyExtractor key extractor used to extract keys from items in collection
@@ -39,4 +52,58 @@ public final class CollectionPartitioner {
         collection.forEach(i -> partition.computeIfAbsent(keyExtractor.apply(i), k -> i));
         return partition;
     }
+
+    /**
+     * Builds partition of collection using keyExtractor and fails on the first colliding key, so that collection is
+     * validated in the same pass.
+     *
+     * @param collection   collection to partition
+     * @param keyExtractor key extractor used to extract keys from items in collection
+     * @param <O>          objects generic type
+     * @return map with collection items as values and it's keys as keys
+     * @throws IllegalStateException if more than one item has the same key
+     */
+    public static <O> Map<Serializable, O> buildStrictPartition(Collection<O> collection, Function<O, Serializable> keyExtractor) {
+        final Map<Serializable, O> partition = new HashMap<>();
+        for (O item : collection) {
+            final Serializable key = keyExtractor.apply(item);
+            final int size = partition.size();
+            partition.putIfAbsent(key, item);
+            if (partition.size() == size) {
+                throw duplicateKey(key);
+            }
+        }
+        return partition;
+    }
+
+    /**
+     * Builds multi partition of collection using keyExtractor, all items with the same key are kept in collection order.
+     *
+     * @param collection   collection to partition
+     * @param keyExtractor key extractor used to extract keys from items in collection
+     * @param <O>          objects generic type
+     * @return map with lists of collection items as values and their keys as keys
+     */
+    public static <O> Map<Serializable, List<O>> buildMultiPartition(Collection<O> collection, Function<O, Serializable> keyExtractor) {
+        final Map<Serializable, List<O>> partition = new HashMap<>();
+        for (O item : collection) {
+            final Serializable key = keyExtractor.apply(item);
+            final List<O> group = partition.get(key);
+            if (group == null) {
+                partition.put(key, Collections.singletonList(item));
+            } else if (!(group instanceof ArrayList)) {
+                final List<O> duplicates = new ArrayList<>(2);
+                duplicates.add(group.get(0));
+                duplicates.add(item);
+                partition.put(key, duplicates);
+            } else {
+                group.add(item);
+            }
+        }
+        return partition;
+    }
+
+    static IllegalStateException duplicateKey(Serializable key) {
+        return new IllegalStateException("Duplicate key " + key);
+    }
 }
@@ -0,0 +1,74 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpResult;
+import io.github.nejckorasa.result.CmpSink;
+import io.github.nejckorasa.result.CompactCmpResult;
+import io.github.nejckorasa.result.Diff;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sink that collects compare pairs into columns of {@link CompactCmpResult}, no compare pairs are created
+ */
+final class CompactResultSink<B, W> implements CmpSink<B, W> {
+    private final CmpPairColumns<B, W> removed = new CmpPairColumns<>(Diff.REMOVED);
+    private final CmpPairColumns<B, W> added = new CmpPairColumns<>(Diff.ADDED);
+    private final CmpPairColumns<B, W> updated = new CmpPairColumns<>(Diff.UPDATED);
+    private final CmpPairColumns<B, W> unchanged = new CmpPairColumns<>(Diff.UNCHANGED);
+
+    private final boolean collectUnchanged;
+
+    /**
+     * @param collectUnchanged whether to collect unchanged pairs
+     */
+    CompactResultSink(boolean collectUnchanged) {
+        this.collectUnchanged = collectUnchanged;
+    }
+
+    @Override
+    public void onAdded(Serializable key, W working) {
+        added.add(key, working, null, 0);
+    }
+
+    @Override
+    public void onRemoved(Serializable key, B base) {
+        removed.add(key, base, null, 0);
+    }
+
+    @Override
+    public void onUpdated(Serializable key, B base, W working) {
+        updated.add(key, base, working, 0);
+    }
+
+    @Override
+    public void onUpdated(Serializable key, B base, W working, long mismatches) {
+        updated.add(key, base, working, mismatches);
+    }
+
+    @Override
+    public void onUnchanged(Serializable key, B base, W working) {
+        if (collectUnchanged) {
+            unchanged.add(key, base, null, 0);
+        }
+    }
+
+    static <B, W> CmpResult<B, W> merge(List<CompactResultSink<B, W>> sinks) {
+        final List<CmpPairColumns<B, W>> removed = new ArrayList<>(sinks.size());
+        final List<CmpPairColumns<B, W>> added = new ArrayList<>(sinks.size());
+        final List<CmpPairColumns<B, W>> updated = new ArrayList<>(sinks.size());
+        final List<CmpPairColumns<B, W>> unchanged = new ArrayList<>(sinks.size());
+        for (CompactResultSink<B, W> sink : sinks) {
+            removed.add(sink.removed);
+            added.add(sink.added);
+            updated.add(sink.updated);
+            unchanged.add(sink.unchanged);
+        }
+        return new CompactCmpResult<>(
+                CmpPairColumns.concat(Diff.REMOVED, removed),
+                CmpPairColumns.concat(Diff.ADDED, added),
+                CmpPairColumns.concat(Diff.UPDATED, updated),
+                CmpPairColumns.concat(Diff.UNCHANGED, unchanged));
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.nejckorasa;
+
+/**
+ * Policy for items with colliding keys, when more than one item of the same collection has the same key
+ */
+public enum DuplicateKeys {
+    /**
+     * Only the first item with the key is compared, the rest are ignored, see
+     * {@link CollectionPartitioner#buildPartition(java.util.Collection, java.util.function.Function)}
+     */
+    FIRST,
+
+    /**
+     * Compare fails with {@link IllegalStateException} on the first colliding key, see
+     * {@link CollectionPartitioner#buildStrictPartition(java.util.Collection, java.util.function.Function)}
+     */
+    FAIL,
+
+    /**
+     * All items are kept and items with the same key are compared as groups, see
+     * {@link CollectionPartitioner#buildMultiPartition(java.util.Collection, java.util.function.Function)}. Equal items
+     * of base and working group are paired as unchanged, remaining items are paired in order as updated, the rest are
+     * removed or added. Result may contain more compare pairs with the same key.
+     */
+    ALL
+}
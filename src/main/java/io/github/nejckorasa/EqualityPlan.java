@@ -0,0 +1,199 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpPair;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Equals function compiled from a fixed list of equality pairs.
+ * <p>Base and working functions of all pairs are flattened into arrays and evaluated in a plain loop that stops at the
+ * first mismatch. Evaluation allocates nothing and {@link #test(Object, Object)} returns primitive boolean. Plans are
+ * immutable and can be shared between threads.
+ * <p>Pairs of {@link EqPair} subclasses are not flattened, their {@link EqPair#isEqual(Object, Object)} is called, so
+ * that overridden equality (for example compare with tolerance) is kept.
+ * <p>Plan also computes 64 bit content fingerprints of objects from the same functions, see
+ * {@link #baseFingerprint(Object)}. Objects equal by the plan always have equal fingerprints, pairs of {@link EqPair}
+ * subclasses are left out of fingerprints.
+ * <p>When plan is used as equals function of collection compare, mismatched equality pairs of updated items are recorded
+ * in the same pass, see {@link #mismatches(Object, Object)} and {@link CmpPair#getMismatches()}.
+ *
+ * @param <B> base object type
+ * @param <W> working object type
+ * @see EqPair
+ */
+public final class EqualityPlan<B, W> implements BiFunction<B, W, Boolean> {
+    private final Function<B, ?>[] base;
+    private final Function<W, ?>[] working;
+    private final EqPair<B, W>[] custom;
+    private final boolean allMismatches;
+    private final LongAdder invocations;
+
+    private EqualityPlan(Function<B, ?>[] base, Function<W, ?>[] working, EqPair<B, W>[] custom) {
+        this(base, working, custom, false, null);
+    }
+
+    private EqualityPlan(
+            Function<B, ?>[] base,
+            Function<W, ?>[] working,
+            EqPair<B, W>[] custom,
+            boolean allMismatches,
+            LongAdder invocations
+    ) {
+        this.base = base;
+        this.working = working;
+        this.custom = custom;
+        this.allMismatches = allMismatches;
+        this.invocations = invocations;
+    }
+
+    /**
+     * Compiles equality pairs into a plan
+     *
+     * @param eqPairs equality pairs, all must match in order for objects to be considered equal
+     * @return equality plan
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <B, W> EqualityPlan<B, W> of(List<EqPair<B, W>> eqPairs) {
+        final Function<B, ?>[] base = new Function[eqPairs.size()];
+        final Function<W, ?>[] working = new Function[eqPairs.size()];
+        EqPair<B, W>[] custom = null;
+        for (int i = 0; i < base.length; i++) {
+            final EqPair<B, W> eqPair = eqPairs.get(i);
+            if (eqPair.getClass() == EqPair.class) {
+                base[i] = eqPair.getBase();
+                working[i] = eqPair.getWorking();
+            } else {
+                if (custom == null) custom = new EqPair[base.length];
+                custom[i] = eqPair;
+                base[i] = b -> null;
+                working[i] = w -> null;
+            }
+        }
+        return new EqualityPlan<>(base, working, custom);
+    }
+
+    /**
+     * Compiles equality pairs into a plan
+     *
+     * @param eqPair equality pairs, all must match in order for objects to be considered equal
+     * @return equality plan
+     */
+    @SafeVarargs
+    public static <B, W> EqualityPlan<B, W> of(EqPair<B, W>... eqPair) {
+        return of(List.of(eqPair));
+    }
+
+    /**
+     * Compiles equalities of objects of same type into a plan, each equality is applied to both objects
+     *
+     * @param equalities equalities, all must match in order for objects to be considered equal
+     * @return equality plan
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <O> EqualityPlan<O, O> ofEqualities(List<Function<O, ?>> equalities) {
+        final Function<O, ?>[] functions = equalities.toArray(new Function[0]);
+        return new EqualityPlan<>(functions, functions, null);
+    }
+
+    /**
+     * @param base    base object
+     * @param working working object
+     * @return true if results of all equality pairs are equal
+     */
+    public boolean test(B base, W working) {
+        if (invocations != null) invocations.increment();
+        for (int i = 0; i < this.base.length; i++) {
+            if (!isEqual(i, base, working)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@link #test(Object, Object)}, so that plan can be used as equals function
+     */
+    @Override
+    public Boolean apply(B base, W working) {
+        return test(base, working);
+    }
+
+    /**
+     * Evaluates equality pairs and returns bitmask of mismatched ones, bit {@code i} is set if results of equality pair
+     * at index {@code i} are not equal. Pairs at index 63 and above all share the highest bit.
+     * <p>Evaluation stops at the first mismatch, so only its bit is set and it costs the same as
+     * {@link #test(Object, Object)}, unless plan evaluates all pairs, see {@link #allMismatches()}.
+     *
+     * @param base    base object
+     * @param working working object
+     * @return bitmask of mismatched equality pairs, {@code 0} if objects are equal
+     */
+    public long mismatches(B base, W working) {
+        if (invocations != null) invocations.increment();
+        long mismatches = 0;
+        for (int i = 0; i < this.base.length; i++) {
+            if (!isEqual(i, base, working)) {
+                mismatches |= 1L << Math.min(i, 63);
+                if (!allMismatches) {
+                    break;
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * @return plan with the same equality pairs, whose {@link #mismatches(Object, Object)} keeps evaluating pairs after
+     * the first mismatch, so that all mismatched pairs are recorded
+     */
+    public EqualityPlan<B, W> allMismatches() {
+        return allMismatches ? this : new EqualityPlan<>(base, working, custom, true, invocations);
+    }
+
+    /**
+     * @return plan with the same equality pairs that counts its evaluations, used to measure compare
+     */
+    EqualityPlan<B, W> counting(LongAdder invocations) {
+        return new EqualityPlan<>(base, working, custom, allMismatches, invocations);
+    }
+
+    private boolean isEqual(int i, B base, W working) {
+        if (custom != null && custom[i] != null) {
+            return custom[i].isEqual(base, working);
+        }
+        return Objects.equals(this.base[i].apply(base), this.working[i].apply(working));
+    }
+
+    /**
+     * Computes fingerprint of base object - 64 bit hash of values returned by base functions of all equality pairs.
+     * <p>Strings, numbers, booleans, characters and enums are hashed from their content and their fingerprints are
+     * stable across JVM runs, other values are hashed using their {@link Object#hashCode()}.
+     *
+     * @param base base object
+     * @return fingerprint of base object
+     */
+    public long baseFingerprint(B base) {
+        return Fingerprints.of(this.base, base);
+    }
+
+    /**
+     * Computes fingerprint of working object, see {@link #baseFingerprint(Object)}
+     *
+     * @param working working object
+     * @return fingerprint of working object
+     */
+    public long workingFingerprint(W working) {
+        return Fingerprints.of(this.working, working);
+    }
+
+    /**
+     * @return number of equality pairs
+     */
+    public int size() {
+        return base.length;
+    }
+}
@@ -12,13 +12,13 @@ final class EqualsUtils {
         if (equalities == null || equalities.isEmpty()) {
             return DEFAULT_EQUALS_FUNCTION::apply;
         }
-        return (b, w) -> equalities.stream().allMatch(eq -> Objects.equals(eq.apply(b), eq.apply(w)));
+        return EqualityPlan.ofEqualities(equalities);
     }
 
     static <B, W> BiFunction<B, W, Boolean> buildEqualsFunctionFromEqualityPairs(List<EqPair<B, W>> eqPairs) {
         if (eqPairs == null || eqPairs.isEmpty()) {
             return DEFAULT_EQUALS_FUNCTION::apply;
         }
-        return (b, w) -> eqPairs.stream().allMatch(ep -> ep.isEqual(b, w));
+        return EqualityPlan.of(eqPairs);
     }
 }
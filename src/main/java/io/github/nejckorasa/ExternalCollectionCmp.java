@@ -0,0 +1,494 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpPair;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static io.github.nejckorasa.EqualsUtils.buildEqualsFunctionFromEqualityPairs;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Class to compare collections that do not fit in memory.
+ * <p>Compare is performed in three steps:
+ * <ol>
+ * <li>Both inputs are hash partitioned by key into bucket files inside a temporary directory. Items are written using
+ * provided {@link ItemCodec}s.</li>
+ * <li>Buckets are compared one at a time. Bucket files are read through buffered channels, decoded and compared the
+ * same way as in {@link CollectionCmp#compare(Function, Function, BiFunction)}. Buckets larger than memory budget are
+ * partitioned again before they are compared.</li>
+ * <li>Compare pairs of each bucket are streamed out before the next bucket is read.</li>
+ * </ol>
+ * <p>Resulting stream contains the same compare pairs as in-memory compare, grouped by bucket. Stream must be closed to
+ * delete temporary files.
+ *
+ * @param <B> base items type
+ * @param <W> working items type
+ */
+public final class ExternalCollectionCmp<B, W> {
+    static final int DEFAULT_BUCKETS = 64;
+    static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    /**
+     * Max number of times bucket is partitioned again, stops splitting when most of the items have the same key hash
+     */
+    private static final int MAX_DEPTH = 3;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final Iterator<B> baseItems;
+    private final Iterator<W> workingItems;
+    private final Function<B, Serializable> baseKeyExtractor;
+    private final Function<W, Serializable> workingKeyExtractor;
+    private final ItemCodec<B> baseCodec;
+    private final ItemCodec<W> workingCodec;
+
+    private Path tempDirectory;
+    private int buckets = DEFAULT_BUCKETS;
+    private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+    private int splits;
+
+    private ExternalCollectionCmp(
+            Iterator<B> baseItems, Iterator<W> workingItems,
+            Function<B, Serializable> baseKeyExtractor, Function<W, Serializable> workingKeyExtractor,
+            ItemCodec<B> baseCodec, ItemCodec<W> workingCodec
+    ) {
+        this.baseItems = baseItems;
+        this.workingItems = workingItems;
+        this.baseKeyExtractor = baseKeyExtractor;
+        this.workingKeyExtractor = workingKeyExtractor;
+        this.baseCodec = baseCodec;
+        this.workingCodec = workingCodec;
+    }
+
+    /**
+     * Initializes external compare of base and working items of different types.
+     *
+     * @param baseItems           base items to compare
+     * @param workingItems        working items to compare base items with
+     * @param baseKeyExtractor    key extractor used to extract keys from base items
+     * @param workingKeyExtractor key extractor used to extract keys from working items
+     * @param baseCodec           codec used to write and read base items
+     * @param workingCodec        codec used to write and read working items
+     * @return external compare to configure
+     */
+    public static <B, W> ExternalCollectionCmp<B, W> of(
+            Iterator<B> baseItems, Iterator<W> workingItems,
+            Function<B, Serializable> baseKeyExtractor, Function<W, Serializable> workingKeyExtractor,
+            ItemCodec<B> baseCodec, ItemCodec<W> workingCodec
+    ) {
+        return new ExternalCollectionCmp<>(baseItems, workingItems, baseKeyExtractor, workingKeyExtractor, baseCodec, workingCodec);
+    }
+
+    /**
+     * Initializes external compare of base and working items of same type.
+     *
+     * @param baseItems    base items to compare
+     * @param workingItems working items to compare base items with
+     * @param keyExtractor key extractor used to extract keys from base and working items
+     * @param codec        codec used to write and read items
+     * @return external compare to configure
+     */
+    public static <O> ExternalCollectionCmp<O, O> of(
+            Iterator<O> baseItems, Iterator<O> workingItems,
+            Function<O, Serializable> keyExtractor,
+            ItemCodec<O> codec
+    ) {
+        return of(baseItems, workingItems, keyExtractor, keyExtractor, codec, codec);
+    }
+
+    /**
+     * @param tempDirectory directory in which temporary directory with bucket files is created, defaults to system
+     *                      temporary directory
+     * @return this external compare
+     */
+    public ExternalCollectionCmp<B, W> tempDirectory(Path tempDirectory) {
+        this.tempDirectory = Objects.requireNonNull(tempDirectory, "tempDirectory");
+        return this;
+    }
+
+    /**
+     * @param buckets number of buckets inputs are partitioned into, defaults to {@value #DEFAULT_BUCKETS}
+     * @return this external compare
+     */
+    public ExternalCollectionCmp<B, W> buckets(int buckets) {
+        if (buckets < 1) throw new IllegalArgumentException("buckets must be positive");
+        this.buckets = buckets;
+        return this;
+    }
+
+    /**
+     * @param memoryBudget max number of encoded bytes of base and working bucket compared at once, larger buckets are
+     *                     partitioned again, defaults to 64MB
+     * @return this external compare
+     */
+    public ExternalCollectionCmp<B, W> memoryBudget(long memoryBudget) {
+        if (memoryBudget < 1) throw new IllegalArgumentException("memoryBudget must be positive");
+        this.memoryBudget = memoryBudget;
+        return this;
+    }
+
+    /**
+     * Compares items using equals function. Inputs are partitioned to disk before this method returns, buckets are
+     * compared lazily, as the result stream is consumed.
+     *
+     * @param equalsFunction equals function to compare items matched by key
+     * @return stream of compare pairs, must be closed to delete temporary files
+     */
+    public Stream<CmpPair<B, W>> compare(BiFunction<B, W, Boolean> equalsFunction) {
+        final Path directory = createDirectory();
+        try {
+            final Path[] baseBuckets = partition(directory, "base-0", baseItems, baseKeyExtractor, baseCodec);
+            final Path[] workingBuckets = partition(directory, "working-0", workingItems, workingKeyExtractor, workingCodec);
+
+            var iterator = new BucketIterator(equalsFunction);
+            for (int bucket = buckets - 1; bucket >= 0; bucket--) {
+                iterator.pending.push(new Bucket(baseBuckets[bucket], workingBuckets[bucket], 0));
+            }
+            return StreamSupport
+                    .stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+                    .onClose(() -> delete(directory));
+        } catch (IOException | RuntimeException e) {
+            delete(directory);
+            throw e instanceof IOException ? new UncheckedIOException((IOException) e) : (RuntimeException) e;
+        }
+    }
+
+    /**
+     * Compares items using equality pairs.
+     *
+     * @param eqPair equality pair based on which objects are compared
+     * @return stream of compare pairs, must be closed to delete temporary files
+     * @see #compare(BiFunction)
+     */
+    @SafeVarargs
+    public final Stream<CmpPair<B, W>> compare(EqPair<B, W>... eqPair) {
+        return compare(buildEqualsFunctionFromEqualityPairs(List.of(eqPair)));
+    }
+
+    private Path createDirectory() {
+        try {
+            return tempDirectory == null
+                    ? Files.createTempDirectory("compare-utils-")
+                    : Files.createTempDirectory(tempDirectory, "compare-utils-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <O> Path[] partition(
+            Path directory, String name, Iterator<O> items, Function<O, Serializable> keyExtractor, ItemCodec<O> codec
+    ) throws IOException {
+        try (var writer = new BucketWriter(directory, name)) {
+            while (items.hasNext()) {
+                final O item = items.next();
+                writer.write(bucket(keyExtractor.apply(item), 0), codec.encode(item));
+            }
+            return writer.files;
+        }
+    }
+
+    /**
+     * Partitions bucket files again using next depth hash
+     */
+    private Bucket[] split(Bucket bucket) throws IOException {
+        final int depth = bucket.depth + 1;
+        final String suffix = "-" + depth + "-" + splits++;
+        final Path directory = bucket.base != null ? bucket.base.getParent() : bucket.working.getParent();
+        final Path[] base = split(bucket.base, directory, "base" + suffix, depth, baseKeyExtractor, baseCodec);
+        final Path[] working = split(bucket.working, directory, "working" + suffix, depth, workingKeyExtractor, workingCodec);
+        final Bucket[] split = new Bucket[buckets];
+        for (int i = 0; i < buckets; i++) {
+            split[i] = new Bucket(base[i], working[i], depth);
+        }
+        return split;
+    }
+
+    private <O> Path[] split(
+            Path file, Path directory, String name, int depth, Function<O, Serializable> keyExtractor, ItemCodec<O> codec
+    ) throws IOException {
+        try (var writer = new BucketWriter(directory, name)) {
+            if (file != null) {
+                try (var records = new RecordReader(file)) {
+                    ByteBuffer record;
+                    while ((record = records.next()) != null) {
+                        final int bucket = bucket(keyExtractor.apply(codec.decode(record.duplicate())), depth);
+                        writer.write(bucket, record);
+                    }
+                }
+                Files.delete(file);
+            }
+            return writer.files;
+        }
+    }
+
+    /**
+     * Bucket of key, hash is salted with depth so that items of the same bucket are spread when bucket is split
+     */
+    private int bucket(Serializable key, int depth) {
+        int h = Objects.hashCode(key) ^ (depth * 0x9E3779B9);
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, buckets);
+    }
+
+    private static long size(Path file) throws IOException {
+        return file == null ? 0 : Files.size(file);
+    }
+
+    /**
+     * Reads bucket partition, keeps the first item with colliding key
+     */
+    private static <O> Map<Serializable, O> read(Path file, Function<O, Serializable> keyExtractor, ItemCodec<O> codec) throws IOException {
+        final Map<Serializable, O> partition = new HashMap<>();
+        if (file != null) {
+            try (var records = new RecordReader(file)) {
+                ByteBuffer record;
+                while ((record = records.next()) != null) {
+                    final O item = codec.decode(record);
+                    partition.putIfAbsent(keyExtractor.apply(item), item);
+                }
+            }
+        }
+        return partition;
+    }
+
+    private static void delete(Path directory) {
+        try (var files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Base and working bucket files, file is {@code null} if there are no items in the bucket
+     */
+    private static final class Bucket {
+        private final Path base;
+        private final Path working;
+        private final int depth;
+
+        private Bucket(Path base, Path working, int depth) {
+            this.base = base;
+            this.working = working;
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * Writes length prefixed records into bucket files through buffered file channels. Files are created on first write.
+     */
+    private final class BucketWriter implements AutoCloseable {
+        private final Path directory;
+        private final String name;
+        private final Path[] files = new Path[buckets];
+        private final FileChannel[] channels = new FileChannel[buckets];
+        private final ByteBuffer[] buffers = new ByteBuffer[buckets];
+
+        private BucketWriter(Path directory, String name) {
+            this.directory = directory;
+            this.name = name;
+        }
+
+        private void write(int bucket, byte[] record) throws IOException {
+            write(bucket, ByteBuffer.wrap(record));
+        }
+
+        private void write(int bucket, ByteBuffer record) throws IOException {
+            if (channels[bucket] == null) {
+                files[bucket] = directory.resolve(name + "-" + bucket + ".bin");
+                channels[bucket] = FileChannel.open(files[bucket], CREATE_NEW, WRITE);
+                buffers[bucket] = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            }
+            final ByteBuffer buffer = buffers[bucket];
+            if (buffer.remaining() < Integer.BYTES + record.remaining()) {
+                flush(bucket);
+            }
+            if (buffer.remaining() < Integer.BYTES + record.remaining()) {
+                final ByteBuffer length = ByteBuffer.allocate(Integer.BYTES).putInt(record.remaining()).flip();
+                writeFully(channels[bucket], length);
+                writeFully(channels[bucket], record);
+            } else {
+                buffer.putInt(record.remaining()).put(record);
+            }
+        }
+
+        private void flush(int bucket) throws IOException {
+            buffers[bucket].flip();
+            writeFully(channels[bucket], buffers[bucket]);
+            buffers[bucket].clear();
+        }
+
+        private void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException exception = null;
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                if (channels[bucket] == null) continue;
+                try {
+                    flush(bucket);
+                } catch (IOException e) {
+                    exception = e;
+                }
+                try {
+                    channels[bucket].close();
+                } catch (IOException e) {
+                    if (exception == null) exception = e;
+                }
+            }
+            if (exception != null) throw exception;
+        }
+    }
+
+    /**
+     * Reads length prefixed records of bucket file through buffered file channel. Files are read instead of memory mapped,
+     * so that they can be deleted right after they are read, also on platforms that do not delete mapped files.
+     */
+    private static final class RecordReader implements AutoCloseable {
+        private final Path file;
+        private final FileChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE).flip();
+
+        private RecordReader(Path file) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, READ);
+        }
+
+        /**
+         * @return next record, valid until the next call, {@code null} at the end of file
+         */
+        private ByteBuffer next() throws IOException {
+            if (!fill(Integer.BYTES)) {
+                return null;
+            }
+            final int length = buffer.getInt();
+            if (!fill(length)) {
+                throw new EOFException("Bucket file " + file + " ends inside a record");
+            }
+            final ByteBuffer record = buffer.slice();
+            record.limit(length);
+            buffer.position(buffer.position() + length);
+            return record;
+        }
+
+        /**
+         * Reads into buffer until it has at least n bytes remaining, buffer grows for records larger than buffer
+         *
+         * @return false if file ends before
+         */
+        private boolean fill(int n) throws IOException {
+            if (buffer.remaining() >= n) {
+                return true;
+            }
+            if (buffer.capacity() < n) {
+                buffer = ByteBuffer.allocate(n).put(buffer);
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < n) {
+                if (channel.read(buffer) < 0) break;
+            }
+            buffer.flip();
+            if (buffer.remaining() >= n) {
+                return true;
+            }
+            if (buffer.hasRemaining()) {
+                throw new EOFException("Bucket file " + file + " ends inside a record");
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Compares buckets one by one, buckets larger than memory budget are split before they are compared
+     */
+    private final class BucketIterator implements Iterator<CmpPair<B, W>> {
+        private final BiFunction<B, W, Boolean> equalsFunction;
+        private final Deque<Bucket> pending = new ArrayDeque<>();
+        private Iterator<CmpPair<B, W>> current = Collections.emptyIterator();
+
+        private BucketIterator(BiFunction<B, W, Boolean> equalsFunction) {
+            this.equalsFunction = equalsFunction;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && !pending.isEmpty()) {
+                try {
+                    current = compare(pending.pop());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return current.hasNext();
+        }
+
+        @Override
+        public CmpPair<B, W> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        private Iterator<CmpPair<B, W>> compare(Bucket bucket) throws IOException {
+            if (bucket.base == null && bucket.working == null) {
+                return Collections.emptyIterator();
+            }
+            if (size(bucket.base) + size(bucket.working) > memoryBudget && bucket.depth < MAX_DEPTH) {
+                final Bucket[] split = split(bucket);
+                for (int i = split.length - 1; i >= 0; i--) {
+                    pending.push(split[i]);
+                }
+                return Collections.emptyIterator();
+            }
+
+            final Map<Serializable, B> basePartition = read(bucket.base, baseKeyExtractor, baseCodec);
+            final Map<Serializable, W> workingPartition = read(bucket.working, workingKeyExtractor, workingCodec);
+            if (bucket.base != null) Files.delete(bucket.base);
+            if (bucket.working != null) Files.delete(bucket.working);
+
+            final var sink = new CmpResultSink<B, W>(true);
+            CollectionCmp.compare(basePartition, workingPartition, equalsFunction, sink);
+            return Stream.of(sink.removed, sink.added, sink.updated, sink.unchanged).flatMap(List::stream).iterator();
+        }
+    }
+}
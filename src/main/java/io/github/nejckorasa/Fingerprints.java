@@ -0,0 +1,69 @@
+package io.github.nejckorasa;
+
+import java.util.function.Function;
+
+/**
+ * 64 bit content hashes of values extracted by equality functions.
+ * <p>Values equal by {@link Object#equals(Object)} have equal hashes. Strings, numbers, booleans, characters and enums
+ * are hashed from their content, so their fingerprints are stable across JVM runs and can be persisted. Other values
+ * are hashed using {@link Object#hashCode()}, which must be stable as well if fingerprints are persisted.
+ */
+final class Fingerprints {
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long NULL = 0x5851F42D4C957F2DL;
+
+    private Fingerprints() {
+    }
+
+    /**
+     * @param functions functions extracting values to hash
+     * @param item      item to extract values from
+     * @return fingerprint of all extracted values, in order
+     */
+    static <T> long of(Function<T, ?>[] functions, T item) {
+        long h = SEED ^ functions.length;
+        for (Function<T, ?> function : functions) {
+            h = mix((h ^ hash(function.apply(item))) * 0xBF58476D1CE4E5B9L);
+        }
+        return mix(h);
+    }
+
+    static long hash(Object value) {
+        if (value == null) {
+            return NULL;
+        }
+        if (value instanceof String) {
+            final String s = (String) value;
+            long h = 0xCBF29CE484222325L;
+            for (int i = 0; i < s.length(); i++) {
+                h = (h ^ s.charAt(i)) * 0x100000001B3L;
+            }
+            return h;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Double) {
+            return Double.doubleToLongBits((Double) value);
+        }
+        if (value instanceof Float) {
+            return Float.floatToIntBits((Float) value);
+        }
+        if (value instanceof Enum) {
+            return hash(((Enum<?>) value).name());
+        }
+        return value.hashCode();
+    }
+
+    /**
+     * Murmur3 64 bit finalizer
+     */
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
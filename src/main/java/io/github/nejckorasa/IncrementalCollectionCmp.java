@@ -0,0 +1,205 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpCounts;
+import io.github.nejckorasa.result.CmpPair;
+import io.github.nejckorasa.result.CmpResult;
+import io.github.nejckorasa.result.CmpSink;
+import io.github.nejckorasa.result.Diff;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static io.github.nejckorasa.CollectionPartitioner.buildPartition;
+
+/**
+ * Stateful compare of base collection with working collection that changes over time.
+ * <p>Base collection is partitioned once, working collection is then changed with {@link #upsert(Object)} and
+ * {@link #delete(Serializable)}. Each change updates compare state of a single key, so keeping the result up to date
+ * costs O(changes) instead of comparing both collections again. Returned compare pairs are change events - the new
+ * state of changed key.
+ * <p>Items are matched and compared the same way as in {@link CollectionCmp}, if keys collide only the first item is
+ * used. Instances are not thread safe.
+ *
+ * @param <B> base object type
+ * @param <W> working object type
+ */
+public final class IncrementalCollectionCmp<B, W> {
+    private final Map<Serializable, B> basePartition;
+    private final Function<W, Serializable> workingKeyExtractor;
+    private final BiFunction<B, W, Boolean> equalsFunction;
+
+    private final Map<Serializable, CmpPair<B, W>> pairs = new HashMap<>();
+    private final int[] counts = new int[Diff.values().length];
+
+    /**
+     * Compares working partition with base partition, working partition is only used for the initial compare
+     */
+    private IncrementalCollectionCmp(
+            Map<Serializable, B> basePartition,
+            Map<Serializable, W> workingPartition,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction
+    ) {
+        this.basePartition = basePartition;
+        this.workingKeyExtractor = workingKeyExtractor;
+        this.equalsFunction = equalsFunction;
+        CollectionCmp.compare(basePartition, workingPartition, equalsFunction, new CmpSink<>() {
+            @Override
+            public void onAdded(Serializable key, W working) {
+                put(CmpPair.added(key, working));
+            }
+
+            @Override
+            public void onRemoved(Serializable key, B base) {
+                put(CmpPair.removed(key, base));
+            }
+
+            @Override
+            public void onUpdated(Serializable key, B base, W working) {
+                put(CmpPair.updated(key, base, working));
+            }
+
+            @Override
+            public void onUnchanged(Serializable key, B base, W working) {
+                put(CmpPair.unchanged(key, base));
+            }
+        });
+    }
+
+    /**
+     * Compares collections of different object types and keeps compare state to be updated incrementally.
+     *
+     * @param baseList            base collection, partitioned once
+     * @param workingList         initial working collection
+     * @param baseKeyExtractor    key extractor used to extract keys from items inside baseList
+     * @param workingKeyExtractor key extractor used to extract keys from working items
+     * @param equalsFunction      equals function to compare items matched by key
+     * @return incremental compare
+     */
+    public static <B, W> IncrementalCollectionCmp<B, W> of(
+            Collection<B> baseList,
+            Collection<W> workingList,
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction
+    ) {
+        return new IncrementalCollectionCmp<>(
+                buildPartition(baseList, baseKeyExtractor),
+                buildPartition(workingList, workingKeyExtractor),
+                workingKeyExtractor,
+                equalsFunction);
+    }
+
+    /**
+     * Compares collections of same object types and keeps compare state to be updated incrementally.
+     *
+     * @param baseList       base collection, partitioned once
+     * @param workingList    initial working collection
+     * @param keyExtractor   key extractor used to extract keys from base and working items
+     * @param equalsFunction equals function to compare items matched by key
+     * @return incremental compare
+     * @see #of(Collection, Collection, Function, Function, BiFunction)
+     */
+    public static <O> IncrementalCollectionCmp<O, O> of(
+            Collection<O> baseList,
+            Collection<O> workingList,
+            Function<O, Serializable> keyExtractor,
+            BiFunction<O, O, Boolean> equalsFunction
+    ) {
+        return of(baseList, workingList, keyExtractor, keyExtractor, equalsFunction);
+    }
+
+    /**
+     * Adds working item or replaces working item with the same key
+     *
+     * @param working working item
+     * @return new compare pair of item's key
+     */
+    public CmpPair<B, W> upsert(W working) {
+        final Serializable key = workingKeyExtractor.apply(working);
+        if (!basePartition.containsKey(key)) {
+            return put(CmpPair.added(key, working));
+        }
+        final B base = basePartition.get(key);
+        return put(ObjectCmp.equals(base, working, equalsFunction)
+                ? CmpPair.unchanged(key, base)
+                : CmpPair.updated(key, base, working));
+    }
+
+    /**
+     * Deletes working item with key
+     *
+     * @param key key of working item to delete
+     * @return new compare pair of key, removed pair if key exists in base collection, {@code null} otherwise
+     */
+    public CmpPair<B, W> delete(Serializable key) {
+        if (basePartition.containsKey(key)) {
+            return put(CmpPair.removed(key, basePartition.get(key)));
+        }
+        final CmpPair<B, W> previous = pairs.remove(key);
+        if (previous != null) {
+            counts[previous.getDiff().ordinal()]--;
+        }
+        return null;
+    }
+
+    /**
+     * @param key key of base or working item
+     * @return current compare pair of key, {@code null} if key exists in neither collection
+     */
+    public CmpPair<B, W> get(Serializable key) {
+        return pairs.get(key);
+    }
+
+    /**
+     * @return current number of compare pairs of each {@link Diff}
+     */
+    public CmpCounts counts() {
+        return new CmpCounts(
+                counts[Diff.REMOVED.ordinal()],
+                counts[Diff.ADDED.ordinal()],
+                counts[Diff.UPDATED.ordinal()],
+                counts[Diff.UNCHANGED.ordinal()]);
+    }
+
+    /**
+     * @return current compare result, a copy that is not affected by later changes
+     */
+    public CmpResult<B, W> result() {
+        final List<CmpPair<B, W>> removed = new ArrayList<>(counts[Diff.REMOVED.ordinal()]);
+        final List<CmpPair<B, W>> added = new ArrayList<>(counts[Diff.ADDED.ordinal()]);
+        final List<CmpPair<B, W>> updated = new ArrayList<>(counts[Diff.UPDATED.ordinal()]);
+        final List<CmpPair<B, W>> unchanged = new ArrayList<>(counts[Diff.UNCHANGED.ordinal()]);
+        for (CmpPair<B, W> pair : pairs.values()) {
+            switch (pair.getDiff()) {
+                case REMOVED:
+                    removed.add(pair);
+                    break;
+                case ADDED:
+                    added.add(pair);
+                    break;
+                case UPDATED:
+                    updated.add(pair);
+                    break;
+                default:
+                    unchanged.add(pair);
+            }
+        }
+        return new CmpResult<>(removed, added, updated, unchanged);
+    }
+
+    private CmpPair<B, W> put(CmpPair<B, W> pair) {
+        final CmpPair<B, W> previous = pairs.put(pair.getKey(), pair);
+        if (previous != null) {
+            counts[previous.getDiff().ordinal()]--;
+        }
+        counts[pair.getDiff().ordinal()]++;
+        return pair;
+    }
+}
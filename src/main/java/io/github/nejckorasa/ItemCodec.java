@@ -0,0 +1,66 @@
+package io.github.nejckorasa;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Codec used to write items to disk and read them back, see {@link ExternalCollectionCmp}
+ *
+ * @param <T> items type
+ */
+public interface ItemCodec<T> {
+
+    /**
+     * @param item item to encode
+     * @return encoded item
+     */
+    byte[] encode(T item);
+
+    /**
+     * @param bytes encoded item, buffer remaining bytes are exactly the bytes returned by {@link #encode(Object)}
+     * @return decoded item
+     */
+    T decode(ByteBuffer bytes);
+
+    /**
+     * Codec that uses Java serialization. Convenient, but slow and verbose, custom codecs are recommended for large
+     * collections.
+     *
+     * @param <T> items type
+     * @return codec
+     */
+    static <T extends Serializable> ItemCodec<T> serializable() {
+        return new ItemCodec<>() {
+            @Override
+            public byte[] encode(T item) {
+                var bytes = new ByteArrayOutputStream();
+                try (var out = new ObjectOutputStream(bytes)) {
+                    out.writeObject(item);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return bytes.toByteArray();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T decode(ByteBuffer bytes) {
+                var array = new byte[bytes.remaining()];
+                bytes.get(array);
+                try (var in = new ObjectInputStream(new ByteArrayInputStream(array))) {
+                    return (T) in.readObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.nejckorasa;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Open addressing hash index of keys to int values, keys and values are kept in flat arrays, no entry objects are
+ * allocated.
+ * <p>Uses linear probing and grows when more than half of the slots are used. {@code null} key is supported.
+ */
+final class KeyIndex {
+    static final int ABSENT = -1;
+    private static final int BLOCK_BITS = 4;
+    private static final int BLOCK = 1 << BLOCK_BITS;
+
+    private Serializable[] keys;
+    private int[] values;
+    private int mask;
+    private int shift;
+    private int size;
+
+    /**
+     * @param expectedSize expected number of keys, index grows if more keys are added
+     */
+    KeyIndex(int expectedSize) {
+        allocate(tableSize(expectedSize));
+    }
+
+    /**
+     * Maps key to value, if key is not mapped yet.
+     *
+     * @param key   key
+     * @param value nonnegative value
+     * @return value already mapped to key or {@link #ABSENT} if value was mapped
+     */
+    int putIfAbsent(Serializable key, int value) {
+        int slot = slot(key);
+        while (values[slot] != ABSENT) {
+            if (Objects.equals(keys[slot], key)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > (mask + 1) >>> 1) {
+            grow();
+        }
+        return ABSENT;
+    }
+
+    /**
+     * @param key key
+     * @return value mapped to key or {@link #ABSENT} if key is not mapped
+     */
+    int get(Serializable key) {
+        int slot = slot(key);
+        while (values[slot] != ABSENT) {
+            if (Objects.equals(keys[slot], key)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Performs action on each key and value, in no particular order
+     *
+     * @param action action to perform
+     */
+    void forEach(ObjIntConsumer<Serializable> action) {
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != ABSENT) {
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Blocks of {@value #BLOCK} consecutive hashes are placed by the high bits of the multiplied hash, so that keys with
+     * similar low bits are spread, hashes within block take consecutive slots. Sequential keys, such as boxed ids,
+     * looked up in order then mostly hit slots that were just read.
+     */
+    private int slot(Object key) {
+        final int h = Objects.hashCode(key);
+        return ((((h >>> BLOCK_BITS) * 0x9E3779B9) >>> shift << BLOCK_BITS) | (h & (BLOCK - 1))) & mask;
+    }
+
+    private void grow() {
+        final Serializable[] oldKeys = keys;
+        final int[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != ABSENT) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != ABSENT) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new Serializable[tableSize];
+        values = new int[tableSize];
+        Arrays.fill(values, ABSENT);
+        mask = tableSize - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+    }
+
+    /**
+     * Power of two table size, at most half full with expected number of keys
+     */
+    private static int tableSize(int expectedSize) {
+        return Integer.highestOneBit(Math.max(8, expectedSize) * 2 - 1) << 1;
+    }
+}
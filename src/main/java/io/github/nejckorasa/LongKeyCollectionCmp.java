@@ -0,0 +1,69 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpSink;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.function.BiFunction;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+import static io.github.nejckorasa.LongKeyIndex.ABSENT;
+
+/**
+ * Compares collections matched by primitive long keys.
+ * <p>Only base collection is indexed in {@link LongKeyIndex}, working items are streamed against it and matched base items
+ * are marked in a bitset, so removed items are found without another index. Keys are boxed only when compare pair is
+ * pushed to sink.
+ */
+final class LongKeyCollectionCmp {
+
+    private LongKeyCollectionCmp() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <B, W> void compare(
+            Collection<B> baseList,
+            Collection<W> workingList,
+            ToLongFunction<B> baseKeyExtractor,
+            ToLongFunction<W> workingKeyExtractor,
+            LongFunction<Serializable> keyBoxing,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink
+    ) {
+        final Object[] baseItems = baseList.toArray();
+        final long[] baseKeys = new long[baseItems.length];
+        final LongKeyIndex baseIndex = new LongKeyIndex(baseItems.length);
+
+        // base items that are matched or have colliding keys, what remains is removed
+        final BitSet done = new BitSet(baseItems.length);
+        for (int i = 0; i < baseItems.length; i++) {
+            baseKeys[i] = baseKeyExtractor.applyAsLong((B) baseItems[i]);
+            if (baseIndex.putIfAbsent(baseKeys[i], i) != ABSENT) {
+                done.set(i);
+            }
+        }
+
+        LongKeyIndex addedIndex = null;
+        for (W working : workingList) {
+            final long key = workingKeyExtractor.applyAsLong(working);
+            final int i = baseIndex.get(key);
+            if (i != ABSENT) {
+                if (done.get(i)) continue;
+                done.set(i);
+                final B base = (B) baseItems[i];
+                CollectionCmp.compareMatched(keyBoxing.apply(key), base, working, equalsFunction, sink);
+            } else {
+                if (addedIndex == null) addedIndex = new LongKeyIndex(0);
+                if (addedIndex.putIfAbsent(key, 0) == ABSENT) {
+                    sink.onAdded(keyBoxing.apply(key), working);
+                }
+            }
+        }
+
+        for (int i = done.nextClearBit(0); i < baseItems.length; i = done.nextClearBit(i + 1)) {
+            sink.onRemoved(keyBoxing.apply(baseKeys[i]), (B) baseItems[i]);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.nejckorasa;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash index of primitive long keys to int values, no objects are allocated per entry.
+ * <p>Uses linear probing and grows when more than half of the slots are used.
+ */
+final class LongKeyIndex {
+    static final int ABSENT = -1;
+    private static final int BLOCK_BITS = 4;
+    private static final int BLOCK = 1 << BLOCK_BITS;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * @param expectedSize expected number of keys, index grows if more keys are added
+     */
+    LongKeyIndex(int expectedSize) {
+        allocate(tableSize(expectedSize));
+    }
+
+    /**
+     * Maps key to value, if key is not mapped yet.
+     *
+     * @param key   key
+     * @param value nonnegative value
+     * @return value already mapped to key or {@link #ABSENT} if value was mapped
+     */
+    int putIfAbsent(long key, int value) {
+        int slot = slot(key);
+        while (values[slot] != ABSENT) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > (mask + 1) >>> 1) {
+            grow();
+        }
+        return ABSENT;
+    }
+
+    /**
+     * @param key key
+     * @return value mapped to key or {@link #ABSENT} if key is not mapped
+     */
+    int get(long key) {
+        int slot = slot(key);
+        while (values[slot] != ABSENT) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Only blocks of {@value #BLOCK} consecutive keys are scattered, keys within block take consecutive slots. Sequential
+     * keys looked up in order then mostly hit slots that were just read.
+     */
+    private int slot(long key) {
+        final long h = (key >>> BLOCK_BITS) * 0x9E3779B97F4A7C15L;
+        return (int) (((h ^ (h >>> 32)) << BLOCK_BITS) | (key & (BLOCK - 1))) & mask;
+    }
+
+    private void grow() {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != ABSENT) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != ABSENT) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        values = new int[tableSize];
+        Arrays.fill(values, ABSENT);
+        mask = tableSize - 1;
+    }
+
+    /**
+     * Power of two table size, at most half full with expected number of keys
+     */
+    private static int tableSize(int expectedSize) {
+        return Integer.highestOneBit(Math.max(8, expectedSize) * 2 - 1) << 1;
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.Diff;
+import io.github.nejckorasa.result.MultiCmpPair;
+import io.github.nejckorasa.result.MultiCmpResult;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static io.github.nejckorasa.EqualsUtils.buildEqualsFunctionFromEqualityPairs;
+import static io.github.nejckorasa.KeyIndex.ABSENT;
+
+/**
+ * Class to compare base collection with more versions of working collection at once.
+ * <p>Keys of all collections are indexed into one {@link KeyIndex}, each key gets a row with base item and item of each
+ * version. Rows are then walked once and {@link Diff} of every version is evaluated per key. If keys collide within one
+ * collection, only the first item is compared, same as in {@link CollectionPartitioner#buildPartition(Collection, Function)}.
+ *
+ * @param <B> base items type
+ * @param <W> working items type
+ */
+public final class MultiCollectionCmp<B, W> {
+    private final Collection<B> baseList;
+    private final List<? extends Collection<W>> versions;
+    private final Function<B, Serializable> baseKeyExtractor;
+    private final Function<W, Serializable> workingKeyExtractor;
+
+    private MultiCollectionCmp(
+            Collection<B> baseList, List<? extends Collection<W>> versions,
+            Function<B, Serializable> baseKeyExtractor, Function<W, Serializable> workingKeyExtractor
+    ) {
+        this.baseList = baseList;
+        this.versions = versions;
+        this.baseKeyExtractor = baseKeyExtractor;
+        this.workingKeyExtractor = workingKeyExtractor;
+    }
+
+    /**
+     * Initializes compare of base collection with versions of working collection of different type.
+     *
+     * @param baseList            base collection to compare
+     * @param versions            working collections to compare base collection with, in version order
+     * @param baseKeyExtractor    key extractor used to extract keys from base items
+     * @param workingKeyExtractor key extractor used to extract keys from working items of all versions
+     * @return multi compare
+     */
+    public static <B, W> MultiCollectionCmp<B, W> of(
+            Collection<B> baseList, List<? extends Collection<W>> versions,
+            Function<B, Serializable> baseKeyExtractor, Function<W, Serializable> workingKeyExtractor
+    ) {
+        return new MultiCollectionCmp<>(baseList, versions, baseKeyExtractor, workingKeyExtractor);
+    }
+
+    /**
+     * Initializes compare of base collection with versions of collection of same type.
+     *
+     * @param baseList     base collection to compare
+     * @param versions     collections to compare base collection with, in version order
+     * @param keyExtractor key extractor used to extract keys from items of all collections
+     * @return multi compare
+     */
+    public static <O> MultiCollectionCmp<O, O> of(
+            Collection<O> baseList, List<? extends Collection<O>> versions,
+            Function<O, Serializable> keyExtractor
+    ) {
+        return of(baseList, versions, keyExtractor, keyExtractor);
+    }
+
+    /**
+     * Compares base collection with all versions.
+     *
+     * @param equalsFunction equals function to compare items matched by key
+     * @return result with {@link Diff} of every version per key
+     */
+    @SuppressWarnings("unchecked")
+    public MultiCmpResult<B, W> compare(BiFunction<B, W, Boolean> equalsFunction) {
+        final Rows rows = new Rows(versions.size(), baseList.size());
+        for (B base : baseList) {
+            rows.add(baseKeyExtractor.apply(base), -1, base);
+        }
+        for (int version = 0; version < versions.size(); version++) {
+            for (W working : versions.get(version)) {
+                rows.add(workingKeyExtractor.apply(working), version, working);
+            }
+        }
+
+        final List<MultiCmpPair<B, W>> pairs = new ArrayList<>(rows.size);
+        for (int row = 0; row < rows.size; row++) {
+            final boolean inBase = rows.present[0].get(row);
+            final B base = (B) rows.items[0][row];
+            final Object[] working = new Object[versions.size()];
+            final Diff[] diffs = new Diff[versions.size()];
+            for (int version = 0; version < working.length; version++) {
+                final boolean inVersion = rows.present[version + 1].get(row);
+                working[version] = rows.items[version + 1][row];
+                if (inBase && inVersion) {
+                    diffs[version] = ObjectCmp.equals(base, (W) working[version], equalsFunction) ? Diff.UNCHANGED : Diff.UPDATED;
+                } else if (inBase) {
+                    diffs[version] = Diff.REMOVED;
+                } else if (inVersion) {
+                    diffs[version] = Diff.ADDED;
+                }
+            }
+            pairs.add(new MultiCmpPair<>(rows.keys[row], base,
+                    Collections.unmodifiableList(Arrays.asList((W[]) working)),
+                    Collections.unmodifiableList(Arrays.asList(diffs))));
+        }
+        return new MultiCmpResult<>(pairs, versions.size());
+    }
+
+    /**
+     * Compares base collection with all versions.
+     *
+     * @param eqPairs equality pairs used to compare items matched by key
+     * @return result with {@link Diff} of every version per key
+     */
+    @SafeVarargs
+    public final MultiCmpResult<B, W> compare(EqPair<B, W>... eqPairs) {
+        return compare(buildEqualsFunctionFromEqualityPairs(List.of(eqPairs)));
+    }
+
+    /**
+     * Rows of items by key, column 0 holds base items, column {@code version + 1} items of version
+     */
+    private static final class Rows {
+        private final KeyIndex index;
+        private final BitSet[] present;
+        private Object[][] items;
+        private Serializable[] keys;
+        private int size;
+
+        private Rows(int versions, int expectedSize) {
+            index = new KeyIndex(expectedSize);
+            present = new BitSet[versions + 1];
+            items = new Object[versions + 1][Math.max(16, expectedSize)];
+            keys = new Serializable[Math.max(16, expectedSize)];
+            for (int column = 0; column < present.length; column++) {
+                present[column] = new BitSet();
+            }
+        }
+
+        private void add(Serializable key, int version, Object item) {
+            int row = index.putIfAbsent(key, size);
+            if (row == ABSENT) {
+                row = size++;
+                if (row == keys.length) {
+                    keys = Arrays.copyOf(keys, row << 1);
+                    for (int column = 0; column < items.length; column++) {
+                        items[column] = Arrays.copyOf(items[column], row << 1);
+                    }
+                }
+                keys[row] = key;
+            }
+            final int column = version + 1;
+            if (!present[column].get(row)) {
+                present[column].set(row);
+                items[column][row] = item;
+            }
+        }
+    }
+}
@@ -89,10 +89,12 @@ public final class ObjectCmp {
         return isEquals(base, working, buildEqualsFunctionFromEqualityPairs(List.of(eqPair)));
     }
 
+    @SuppressWarnings("unchecked")
     private static <B, W> boolean isEquals(B base, W working, BiFunction<B, W, Boolean> equalsFunction) {
         if (equalsFunction == null) return Objects.equals(base, working);
         if (base == working) return true;
         if (base == null ^ working == null) return false;
+        if (equalsFunction instanceof EqualityPlan) return ((EqualityPlan<B, W>) equalsFunction).test(base, working);
         return equalsFunction.apply(base, working);
     }
 }
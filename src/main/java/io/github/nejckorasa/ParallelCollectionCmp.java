@@ -0,0 +1,295 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpSink;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Compares collections in parallel using {@link ForkJoinPool}.
+ * <p>Keys of both collections are extracted concurrently and items are sharded by key hash. Items with the same key always
+ * end up in the same shard, so shards are partitioned and compared independently, and merged into one result afterwards.
+ * Result contains the same compare pairs as sequential {@link CollectionCmp#compare(Function, Function, BiFunction)},
+ * order of pairs inside each category may differ.
+ */
+final class ParallelCollectionCmp<B, W> {
+    /**
+     * Collections smaller than this are compared sequentially, also used as the smallest key extraction task size
+     */
+    static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+
+    private final Collection<B> baseList;
+    private final Collection<W> workingList;
+    private final ForkJoinPool pool;
+    private final DuplicateKeys duplicateKeys;
+
+    ParallelCollectionCmp(Collection<B> baseList, Collection<W> workingList, ForkJoinPool pool, DuplicateKeys duplicateKeys) {
+        this.baseList = baseList;
+        this.workingList = workingList;
+        this.pool = pool;
+        this.duplicateKeys = duplicateKeys;
+    }
+
+    /**
+     * Compares collections and pushes compare pairs of each shard to its own sink.
+     *
+     * @param shardSink decorates sink of each shard, sinks are returned undecorated
+     * @return sinks of all shards, to be merged into result
+     */
+    <S extends CmpSink<B, W>> List<S> compare(
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            Supplier<S> sinkFactory,
+            UnaryOperator<CmpSink<B, W>> shardSink
+    ) {
+        final List<S> sinks = new ArrayList<>();
+        pool.invoke(ForkJoinTask.adapt(() -> doCompare(baseKeyExtractor, workingKeyExtractor, equalsFunction, shard -> {
+            final S sink = sinkFactory.get();
+            sinks.add(sink);
+            return shardSink.apply(sink);
+        })));
+        return sinks;
+    }
+
+    /**
+     * Compares collections and pushes compare pairs to sink, sink is called from pool threads, but never concurrently.
+     */
+    void compare(
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink
+    ) {
+        final CmpSink<B, W> synchronizedSink = new SynchronizedSink<>(sink);
+        pool.invoke(ForkJoinTask.adapt(() -> doCompare(baseKeyExtractor, workingKeyExtractor, equalsFunction, shard -> synchronizedSink)));
+    }
+
+    private void doCompare(
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            IntFunction<CmpSink<B, W>> shardSink
+    ) {
+        final int shardBits = shardBits(pool.getParallelism());
+        final Sharded<B> base = new Sharded<>(baseList.toArray(), shardBits);
+        final Sharded<W> working = new Sharded<>(workingList.toArray(), shardBits);
+
+        ForkJoinTask.invokeAll(
+                new KeyExtraction<>(base, baseKeyExtractor, 0, base.items.length),
+                new KeyExtraction<>(working, workingKeyExtractor, 0, working.items.length));
+        base.sort();
+        working.sort();
+
+        final List<ShardCmp> shards = new ArrayList<>(1 << shardBits);
+        for (int shard = 0; shard < 1 << shardBits; shard++) {
+            shards.add(new ShardCmp(base, working, shard, equalsFunction, shardSink.apply(shard)));
+        }
+        ForkJoinTask.invokeAll(shards);
+    }
+
+    /**
+     * Number of shard bits, there are 4 shards per worker thread to balance uneven shards
+     */
+    private static int shardBits(int parallelism) {
+        return Integer.numberOfTrailingZeros(Integer.highestOneBit(Math.max(1, parallelism) * 4));
+    }
+
+    /**
+     * Items of one collection with their extracted keys and item indexes ordered by shard
+     */
+    private static final class Sharded<O> {
+        private final Object[] items;
+        private final Serializable[] keys;
+        private final int[] shardOf;
+        private final int shardBits;
+
+        private int[] order;
+        private int[] shardStart;
+
+        private Sharded(Object[] items, int shardBits) {
+            this.items = items;
+            this.keys = new Serializable[items.length];
+            this.shardOf = new int[items.length];
+            this.shardBits = shardBits;
+        }
+
+        /**
+         * Shard is taken from the high bits of the mixed hash, low bits are left to partition maps inside the shard
+         */
+        private int shard(Serializable key) {
+            final int h = Objects.hashCode(key);
+            return ((h ^ (h >>> 16)) * 0x9E3779B9) >>> (32 - shardBits);
+        }
+
+        /**
+         * Counting sort of item indexes by shard, keeps original order of items inside shard, so that the first item
+         * with colliding key is kept as in {@link CollectionPartitioner#buildPartition(Collection, Function)}
+         */
+        private void sort() {
+            final int shards = 1 << shardBits;
+            shardStart = new int[shards + 1];
+            for (int shard : shardOf) {
+                shardStart[shard + 1]++;
+            }
+            for (int shard = 0; shard < shards; shard++) {
+                shardStart[shard + 1] += shardStart[shard];
+            }
+            final int[] next = shardStart.clone();
+            order = new int[items.length];
+            for (int i = 0; i < items.length; i++) {
+                order[next[shardOf[i]]++] = i;
+            }
+        }
+
+        private int shardSize(int shard) {
+            return shardStart[shard + 1] - shardStart[shard];
+        }
+
+        /**
+         * @param strict whether to fail on colliding key, see {@link CollectionPartitioner#buildStrictPartition}
+         */
+        @SuppressWarnings("unchecked")
+        private Map<Serializable, O> buildPartition(int shard, boolean strict) {
+            final Map<Serializable, O> partition = new HashMap<>(Math.max(16, (int) (shardSize(shard) / 0.75f) + 1));
+            for (int i = shardStart[shard]; i < shardStart[shard + 1]; i++) {
+                final int size = partition.size();
+                partition.putIfAbsent(keys[order[i]], (O) items[order[i]]);
+                if (strict && partition.size() == size) {
+                    throw CollectionPartitioner.duplicateKey(keys[order[i]]);
+                }
+            }
+            return partition;
+        }
+
+        /**
+         * Same as {@link CollectionPartitioner#buildMultiPartition}, items inside shard are in original order
+         */
+        @SuppressWarnings("unchecked")
+        private Map<Serializable, List<O>> buildMultiPartition(int shard) {
+            final Map<Serializable, List<O>> partition = new HashMap<>(Math.max(16, (int) (shardSize(shard) / 0.75f) + 1));
+            for (int i = shardStart[shard]; i < shardStart[shard + 1]; i++) {
+                partition.computeIfAbsent(keys[order[i]], k -> new ArrayList<>(1)).add((O) items[order[i]]);
+            }
+            return partition;
+        }
+    }
+
+    /**
+     * Extracts keys and computes shards of items in range
+     */
+    @SuppressWarnings("serial")
+    private static final class KeyExtraction<O> extends RecursiveAction {
+        private final Sharded<O> sharded;
+        private final Function<O, Serializable> keyExtractor;
+        private final int from;
+        private final int to;
+
+        private KeyExtraction(Sharded<O> sharded, Function<O, Serializable> keyExtractor, int from, int to) {
+            this.sharded = sharded;
+            this.keyExtractor = keyExtractor;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    final Serializable key = keyExtractor.apply((O) sharded.items[i]);
+                    sharded.keys[i] = key;
+                    sharded.shardOf[i] = sharded.shard(key);
+                }
+            } else {
+                final int mid = (from + to) >>> 1;
+                invokeAll(
+                        new KeyExtraction<>(sharded, keyExtractor, from, mid),
+                        new KeyExtraction<>(sharded, keyExtractor, mid, to));
+            }
+        }
+    }
+
+    /**
+     * Partitions and compares one shard of both collections
+     */
+    @SuppressWarnings("serial")
+    private final class ShardCmp extends RecursiveAction {
+        private final Sharded<B> base;
+        private final Sharded<W> working;
+        private final int shard;
+        private final BiFunction<B, W, Boolean> equalsFunction;
+        private final CmpSink<B, W> sink;
+
+        private ShardCmp(Sharded<B> base, Sharded<W> working, int shard, BiFunction<B, W, Boolean> equalsFunction, CmpSink<B, W> sink) {
+            this.base = base;
+            this.working = working;
+            this.shard = shard;
+            this.equalsFunction = equalsFunction;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void compute() {
+            if (duplicateKeys == DuplicateKeys.ALL) {
+                CollectionCmp.compareGroups(base.buildMultiPartition(shard), working.buildMultiPartition(shard), equalsFunction, sink);
+                return;
+            }
+            final boolean strict = duplicateKeys == DuplicateKeys.FAIL;
+            CollectionCmp.compare(
+                    base.buildPartition(shard, strict),
+                    working.buildPartition(shard, strict),
+                    equalsFunction,
+                    sink);
+        }
+    }
+
+    /**
+     * Serializes calls to sink shared by all shards
+     */
+    private static final class SynchronizedSink<B, W> implements CmpSink<B, W> {
+        private final CmpSink<B, W> sink;
+
+        private SynchronizedSink(CmpSink<B, W> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public synchronized void onAdded(Serializable key, W working) {
+            sink.onAdded(key, working);
+        }
+
+        @Override
+        public synchronized void onRemoved(Serializable key, B base) {
+            sink.onRemoved(key, base);
+        }
+
+        @Override
+        public synchronized void onUpdated(Serializable key, B base, W working) {
+            sink.onUpdated(key, base, working);
+        }
+
+        @Override
+        public synchronized void onUpdated(Serializable key, B base, W working, long mismatches) {
+            sink.onUpdated(key, base, working, mismatches);
+        }
+
+        @Override
+        public synchronized void onUnchanged(Serializable key, B base, W working) {
+            sink.onUnchanged(key, base, working);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpSink;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static io.github.nejckorasa.KeyIndex.ABSENT;
+
+/**
+ * Compares collections by indexing only the smaller collection in {@link KeyIndex} and streaming the other one against it.
+ * <p>Matched indexed items are marked in a bitset. Items of the streamed collection that are not matched are pushed to
+ * sink right away, indexed items that are not matched are pushed after the streamed collection is consumed.
+ *
+ * @see CmpStrategy#SINGLE_INDEX
+ */
+final class SingleIndexCollectionCmp {
+
+    private SingleIndexCollectionCmp() {
+    }
+
+    static <B, W> void compare(
+            Collection<B> baseList,
+            Collection<W> workingList,
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink
+    ) {
+        if (workingList.size() < baseList.size()) {
+            compareIndexedWorking(baseList, workingList, baseKeyExtractor, workingKeyExtractor, equalsFunction, sink);
+        } else {
+            compareIndexedBase(baseList, workingList, baseKeyExtractor, workingKeyExtractor, equalsFunction, sink);
+        }
+    }
+
+    private static <B, W> void compareIndexedBase(
+            Collection<B> baseList,
+            Collection<W> workingList,
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink
+    ) {
+        final Object[] baseItems = baseList.toArray();
+        compareIndexedBase(baseItems, index(baseItems, baseKeyExtractor), workingList, workingKeyExtractor, equalsFunction, sink);
+    }
+
+    /**
+     * Compares indexed base items with working items, index and base items are only read, so they can be shared by
+     * concurrent compares, see {@link BaseIndex}
+     */
+    @SuppressWarnings("unchecked")
+    static <B, W> void compareIndexedBase(
+            Object[] baseItems,
+            KeyIndex baseIndex,
+            Collection<W> workingList,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink
+    ) {
+        final BitSet matched = new BitSet(baseItems.length);
+
+        KeyIndex addedIndex = null;
+        for (W working : workingList) {
+            final Serializable key = workingKeyExtractor.apply(working);
+            final int i = baseIndex.get(key);
+            if (i != ABSENT) {
+                if (matched.get(i)) continue;
+                matched.set(i);
+                final B base = (B) baseItems[i];
+                CollectionCmp.compareMatched(key, base, working, equalsFunction, sink);
+            } else {
+                if (addedIndex == null) addedIndex = new KeyIndex(0);
+                if (addedIndex.putIfAbsent(key, 0) == ABSENT) {
+                    sink.onAdded(key, working);
+                }
+            }
+        }
+
+        if (baseIndex.size() > matched.cardinality()) {
+            baseIndex.forEach((key, i) -> {
+                if (!matched.get(i)) sink.onRemoved(key, (B) baseItems[i]);
+            });
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <B, W> void compareIndexedWorking(
+            Collection<B> baseList,
+            Collection<W> workingList,
+            Function<B, Serializable> baseKeyExtractor,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            CmpSink<B, W> sink
+    ) {
+        final Object[] workingItems = workingList.toArray();
+        final KeyIndex workingIndex = index(workingItems, workingKeyExtractor);
+        final BitSet matched = new BitSet(workingItems.length);
+
+        KeyIndex removedIndex = null;
+        for (B base : baseList) {
+            final Serializable key = baseKeyExtractor.apply(base);
+            final int i = workingIndex.get(key);
+            if (i != ABSENT) {
+                if (matched.get(i)) continue;
+                matched.set(i);
+                final W working = (W) workingItems[i];
+                CollectionCmp.compareMatched(key, base, working, equalsFunction, sink);
+            } else {
+                if (removedIndex == null) removedIndex = new KeyIndex(0);
+                if (removedIndex.putIfAbsent(key, 0) == ABSENT) {
+                    sink.onRemoved(key, base);
+                }
+            }
+        }
+
+        if (workingIndex.size() > matched.cardinality()) {
+            workingIndex.forEach((key, i) -> {
+                if (!matched.get(i)) sink.onAdded(key, (W) workingItems[i]);
+            });
+        }
+    }
+
+    /**
+     * Checks whether indexed base items and working items differ, without classifying all items. Returns on the first
+     * working item whose key is not indexed or that is not equal to its base item, otherwise checks whether all indexed
+     * keys were matched. Working collection smaller than number of indexed keys always has removed items.
+     *
+     * @param strict whether duplicate keys of matched working items fail with {@link IllegalStateException}, duplicates
+     *               after the first change are not detected
+     * @return true if compare would find any added, removed or updated item
+     */
+    @SuppressWarnings("unchecked")
+    static <B, W> boolean anyChange(
+            Object[] baseItems,
+            KeyIndex baseIndex,
+            Collection<W> workingList,
+            Function<W, Serializable> workingKeyExtractor,
+            BiFunction<B, W, Boolean> equalsFunction,
+            boolean strict
+    ) {
+        if (workingList.size() < baseIndex.size()) {
+            return true;
+        }
+        final BitSet matched = new BitSet(baseItems.length);
+        int matchedCount = 0;
+        for (W working : workingList) {
+            final Serializable key = workingKeyExtractor.apply(working);
+            final int i = baseIndex.get(key);
+            if (i == ABSENT) {
+                return true;
+            }
+            if (matched.get(i)) {
+                if (strict) throw CollectionPartitioner.duplicateKey(key);
+                continue;
+            }
+            matched.set(i);
+            matchedCount++;
+            if (!ObjectCmp.equals((B) baseItems[i], working, equalsFunction)) {
+                return true;
+            }
+        }
+        return matchedCount != baseIndex.size();
+    }
+
+    /**
+     * Indexes items by key, keeps the first item with colliding key
+     */
+    @SuppressWarnings("unchecked")
+    static <O> KeyIndex index(Object[] items, Function<O, Serializable> keyExtractor) {
+        final KeyIndex index = new KeyIndex(items.length);
+        for (int i = 0; i < items.length; i++) {
+            index.putIfAbsent(keyExtractor.apply((O) items[i]), i);
+        }
+        return index;
+    }
+
+    /**
+     * Indexes items by key and fails with {@link IllegalStateException} on the first colliding key
+     */
+    @SuppressWarnings("unchecked")
+    static <O> KeyIndex strictIndex(Object[] items, Function<O, Serializable> keyExtractor) {
+        final KeyIndex index = new KeyIndex(items.length);
+        for (int i = 0; i < items.length; i++) {
+            final Serializable key = keyExtractor.apply((O) items[i]);
+            if (index.putIfAbsent(key, i) != ABSENT) {
+                throw CollectionPartitioner.duplicateKey(key);
+            }
+        }
+        return index;
+    }
+}
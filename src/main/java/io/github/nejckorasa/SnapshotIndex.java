@@ -0,0 +1,309 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpResult;
+import io.github.nejckorasa.result.CmpSink;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Persistent snapshot of base collection - item fingerprints by item keys, stored in a memory mapped file.
+ * <p>Snapshot is written once with {@link #write(Path, Map, ItemCodec)}, usually from
+ * {@link CollectionCmp#fingerprints(Collection, Function, ToLongFunction)}, and later opened with
+ * {@link #open(Path, ItemCodec)} without reading the whole file. Working collections are compared by probing the mapped
+ * index directly, no partition of base items is built and keys of matched items are never decoded.
+ * <p>File starts with a header, followed by an open addressing hash table of slots (key hash, fingerprint, key position)
+ * and length prefixed keys encoded with {@link ItemCodec}. Keys are hashed by content, strings, numbers and enums are
+ * supported out of the box, other keys must have {@link Object#hashCode()} that is stable across JVM runs. Codec must
+ * encode equal keys to equal bytes.
+ */
+public final class SnapshotIndex {
+    private static final int MAGIC = 0x434D5053;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int SLOT_SIZE = 24;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final ByteBuffer slots;
+    private final ByteBuffer keys;
+    private final ItemCodec<Serializable> keyCodec;
+    private final int size;
+    private final int capacity;
+    private final int shift;
+
+    private SnapshotIndex(ByteBuffer slots, ByteBuffer keys, ItemCodec<Serializable> keyCodec, int size, int capacity) {
+        this.slots = slots;
+        this.keys = keys;
+        this.keyCodec = keyCodec;
+        this.size = size;
+        this.capacity = capacity;
+        this.shift = Long.numberOfLeadingZeros(capacity - 1L);
+    }
+
+    /**
+     * Writes snapshot file, existing file is replaced.
+     *
+     * @param file         snapshot file
+     * @param fingerprints item fingerprints by item keys
+     * @param keyCodec     codec used to write keys
+     * @throws IOException if file can not be written
+     */
+    public static void write(Path file, Map<Serializable, Long> fingerprints, ItemCodec<Serializable> keyCodec) throws IOException {
+        final int size = fingerprints.size();
+        final int capacity = Integer.highestOneBit(Math.max(2, size) * 2 - 1) << 1;
+        final long keysOffset = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+        if (keysOffset > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Snapshot of " + size + " items is too large");
+        }
+        final int shift = Long.numberOfLeadingZeros(capacity - 1L);
+
+        try (var channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+            final MappedByteBuffer slots = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE, keysOffset - HEADER_SIZE);
+            final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            long keysPosition = 0;
+
+            for (Map.Entry<Serializable, Long> entry : fingerprints.entrySet()) {
+                final long hash = hash(entry.getKey());
+                int slot = (int) (hash >>> shift);
+                while (slots.getLong(slot * SLOT_SIZE + 16) != 0) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                slots.putLong(slot * SLOT_SIZE, hash);
+                slots.putLong(slot * SLOT_SIZE + 8, entry.getValue());
+                slots.putLong(slot * SLOT_SIZE + 16, keysPosition + 1);
+
+                final byte[] key = keyCodec.encode(entry.getKey());
+                if (buffer.remaining() < Integer.BYTES + key.length) {
+                    flush(channel, buffer, keysOffset + keysPosition - buffer.position());
+                }
+                if (buffer.remaining() < Integer.BYTES + key.length) {
+                    writeFully(channel, ByteBuffer.allocate(Integer.BYTES + key.length).putInt(key.length).put(key).flip(),
+                            keysOffset + keysPosition);
+                } else {
+                    buffer.putInt(key.length).put(key);
+                }
+                keysPosition += Integer.BYTES + key.length;
+            }
+            flush(channel, buffer, keysOffset + keysPosition - buffer.position());
+            if (keysPosition > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Snapshot keys of " + size + " items are too large");
+            }
+
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC).putInt(VERSION).putInt(size).putInt(capacity).putLong(keysPosition)
+                    .flip();
+            writeFully(channel, header, 0);
+            slots.force();
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Writes snapshot file with keys written using Java serialization
+     *
+     * @param file         snapshot file
+     * @param fingerprints item fingerprints by item keys
+     * @throws IOException if file can not be written
+     * @see #write(Path, Map, ItemCodec)
+     */
+    public static void write(Path file, Map<Serializable, Long> fingerprints) throws IOException {
+        write(file, fingerprints, ItemCodec.serializable());
+    }
+
+    /**
+     * Opens snapshot file by memory mapping it, file can be deleted or replaced once opened.
+     *
+     * @param file     snapshot file
+     * @param keyCodec codec used to read keys, must be the same codec used to write snapshot
+     * @return snapshot index
+     * @throws IOException if file can not be read
+     */
+    public static SnapshotIndex open(Path file, ItemCodec<Serializable> keyCodec) throws IOException {
+        try (var channel = FileChannel.open(file, READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) break;
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IllegalStateException("File " + file + " is not a snapshot");
+            }
+            if (header.getInt() != VERSION) {
+                throw new IllegalStateException("Snapshot " + file + " has unsupported version");
+            }
+            final int size = header.getInt();
+            final int capacity = header.getInt();
+            final long keysSize = header.getLong();
+            final long keysOffset = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+
+            final ByteBuffer slots = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, keysOffset - HEADER_SIZE);
+            final ByteBuffer keys = channel.map(FileChannel.MapMode.READ_ONLY, keysOffset, keysSize);
+            return new SnapshotIndex(slots, keys, keyCodec, size, capacity);
+        }
+    }
+
+    /**
+     * Opens snapshot file with keys written using Java serialization
+     *
+     * @param file snapshot file
+     * @return snapshot index
+     * @throws IOException if file can not be read
+     * @see #open(Path, ItemCodec)
+     */
+    public static SnapshotIndex open(Path file) throws IOException {
+        return open(file, ItemCodec.serializable());
+    }
+
+    /**
+     * @return number of items in snapshot
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param key item key
+     * @return fingerprint of item with key, {@code null} if snapshot has no such item
+     */
+    public Long get(Serializable key) {
+        final int slot = find(key);
+        return slot < 0 ? null : fingerprint(slot);
+    }
+
+    /**
+     * Compares snapshot with working collection, the same as
+     * {@link CollectionCmp#compareFingerprints(Map, Collection, Function, ToLongFunction)}.
+     *
+     * @param workingList         working list to compare snapshot with
+     * @param workingKeyExtractor key extractor used to extract keys from items inside workingList
+     * @param workingFingerprint  fingerprint function of working items
+     * @return compare result, base side of compare pairs are fingerprints
+     */
+    public <W> CmpResult<Long, W> compare(
+            Collection<W> workingList,
+            Function<W, Serializable> workingKeyExtractor,
+            ToLongFunction<W> workingFingerprint
+    ) {
+        final var sink = new CmpResultSink<Long, W>(true);
+        compare(workingList, workingKeyExtractor, workingFingerprint, sink);
+        return sink.toResult();
+    }
+
+    /**
+     * Compares snapshot with working collection and pushes compare pairs to sink. Added, updated and unchanged pairs are
+     * pushed while working items are probed, removed pairs after all working items are probed.
+     *
+     * @param workingList         working list to compare snapshot with
+     * @param workingKeyExtractor key extractor used to extract keys from items inside workingList
+     * @param workingFingerprint  fingerprint function of working items
+     * @param sink                sink that receives all compare pairs, base side of compare pairs are fingerprints
+     */
+    public <W> void compare(
+            Collection<W> workingList,
+            Function<W, Serializable> workingKeyExtractor,
+            ToLongFunction<W> workingFingerprint,
+            CmpSink<Long, W> sink
+    ) {
+        final BitSet matched = new BitSet(capacity);
+        Set<Serializable> added = null;
+        for (W working : workingList) {
+            final Serializable key = workingKeyExtractor.apply(working);
+            final int slot = find(key);
+            if (slot < 0) {
+                if (added == null) added = new HashSet<>();
+                if (added.add(key)) {
+                    sink.onAdded(key, working);
+                }
+            } else if (!matched.get(slot)) {
+                matched.set(slot);
+                final long fingerprint = fingerprint(slot);
+                if (fingerprint == workingFingerprint.applyAsLong(working)) {
+                    sink.onUnchanged(key, fingerprint, working);
+                } else {
+                    sink.onUpdated(key, fingerprint, working);
+                }
+            }
+        }
+
+        for (int slot = matched.nextClearBit(0); slot < capacity; slot = matched.nextClearBit(slot + 1)) {
+            final long position = slots.getLong(slot * SLOT_SIZE + 16);
+            if (position != 0) {
+                sink.onRemoved(key((int) position - 1), fingerprint(slot));
+            }
+        }
+    }
+
+    /**
+     * Probes slots by key hash, key is encoded only once a slot with the same hash is found, so keys of added items are
+     * usually never encoded
+     */
+    private int find(Serializable key) {
+        final long hash = hash(key);
+        int slot = (int) (hash >>> shift);
+        byte[] encoded = null;
+        long position;
+        while ((position = slots.getLong(slot * SLOT_SIZE + 16)) != 0) {
+            if (slots.getLong(slot * SLOT_SIZE) == hash) {
+                if (encoded == null) encoded = keyCodec.encode(key);
+                if (keyEquals((int) position - 1, encoded)) {
+                    return slot;
+                }
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+        return -1;
+    }
+
+    private boolean keyEquals(int position, byte[] encoded) {
+        if (keys.getInt(position) != encoded.length) {
+            return false;
+        }
+        for (int i = 0; i < encoded.length; i++) {
+            if (keys.get(position + Integer.BYTES + i) != encoded[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Serializable key(int position) {
+        final int length = keys.getInt(position);
+        return keyCodec.decode(keys.duplicate().position(position + Integer.BYTES).limit(position + Integer.BYTES + length));
+    }
+
+    private long fingerprint(int slot) {
+        return slots.getLong(slot * SLOT_SIZE + 8);
+    }
+
+    private static long hash(Serializable key) {
+        return Fingerprints.mix(Fingerprints.hash(key));
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        writeFully(channel, buffer, position);
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
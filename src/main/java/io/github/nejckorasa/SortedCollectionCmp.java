@@ -0,0 +1,236 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpPair;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static io.github.nejckorasa.EqualsUtils.buildEqualsFunctionFromEqualityPairs;
+import static java.lang.String.format;
+
+/**
+ * Class to compare base and working items that are already sorted by key.
+ * <p>Items are merged in a single forward pass, no partitions are built and only the current item of each side is held
+ * in memory. Compare pairs are emitted in ascending key order. Items that are not sorted by key are rejected with
+ * {@link IllegalStateException} once they are reached. If more than one item has the same key, only the first item is
+ * compared, same as in {@link CollectionPartitioner#buildPartition(java.util.Collection, Function)}.
+ *
+ * @param <B> base items type
+ * @param <W> working items type
+ * @param <K> key type
+ */
+public final class SortedCollectionCmp<B, W, K extends Serializable> {
+    private final Iterator<B> baseItems;
+    private final Iterator<W> workingItems;
+    private final Function<B, K> baseKeyExtractor;
+    private final Function<W, K> workingKeyExtractor;
+    private final Comparator<? super K> keyComparator;
+    private final Runnable closeHandler;
+
+    private SortedCollectionCmp(
+            Iterator<B> baseItems, Iterator<W> workingItems,
+            Function<B, K> baseKeyExtractor, Function<W, K> workingKeyExtractor,
+            Comparator<? super K> keyComparator,
+            Runnable closeHandler
+    ) {
+        this.baseItems = baseItems;
+        this.workingItems = workingItems;
+        this.baseKeyExtractor = baseKeyExtractor;
+        this.workingKeyExtractor = workingKeyExtractor;
+        this.keyComparator = keyComparator;
+        this.closeHandler = closeHandler;
+    }
+
+    /**
+     * Initializes compare of base and working items sorted by key.
+     *
+     * @param baseItems           base items sorted by key
+     * @param workingItems        working items sorted by key
+     * @param baseKeyExtractor    key extractor used to extract keys from base items
+     * @param workingKeyExtractor key extractor used to extract keys from working items
+     * @param keyComparator       comparator both sides are sorted by
+     * @return sorted compare to configure
+     */
+    public static <B, W, K extends Serializable> SortedCollectionCmp<B, W, K> of(
+            Iterator<B> baseItems, Iterator<W> workingItems,
+            Function<B, K> baseKeyExtractor, Function<W, K> workingKeyExtractor,
+            Comparator<? super K> keyComparator
+    ) {
+        return new SortedCollectionCmp<>(baseItems, workingItems, baseKeyExtractor, workingKeyExtractor, keyComparator, () -> {
+        });
+    }
+
+    /**
+     * Initializes compare of base and working streams sorted by key. Both streams are closed when result stream is closed.
+     *
+     * @param baseItems           base items sorted by key
+     * @param workingItems        working items sorted by key
+     * @param baseKeyExtractor    key extractor used to extract keys from base items
+     * @param workingKeyExtractor key extractor used to extract keys from working items
+     * @param keyComparator       comparator both sides are sorted by
+     * @return sorted compare to configure
+     */
+    public static <B, W, K extends Serializable> SortedCollectionCmp<B, W, K> of(
+            Stream<B> baseItems, Stream<W> workingItems,
+            Function<B, K> baseKeyExtractor, Function<W, K> workingKeyExtractor,
+            Comparator<? super K> keyComparator
+    ) {
+        return new SortedCollectionCmp<>(baseItems.iterator(), workingItems.iterator(), baseKeyExtractor, workingKeyExtractor, keyComparator, () -> {
+            try {
+                baseItems.close();
+            } finally {
+                workingItems.close();
+            }
+        });
+    }
+
+    /**
+     * Initializes compare of base and working items of same type sorted by key.
+     *
+     * @param baseItems     base items sorted by key
+     * @param workingItems  working items sorted by key
+     * @param keyExtractor  key extractor used to extract keys from base and working items
+     * @param keyComparator comparator both sides are sorted by
+     * @return sorted compare to configure
+     */
+    public static <O, K extends Serializable> SortedCollectionCmp<O, O, K> of(
+            Iterator<O> baseItems, Iterator<O> workingItems,
+            Function<O, K> keyExtractor,
+            Comparator<? super K> keyComparator
+    ) {
+        return of(baseItems, workingItems, keyExtractor, keyExtractor, keyComparator);
+    }
+
+    /**
+     * Initializes compare of base and working streams of same type sorted by key. Both streams are closed when result
+     * stream is closed.
+     *
+     * @param baseItems     base items sorted by key
+     * @param workingItems  working items sorted by key
+     * @param keyExtractor  key extractor used to extract keys from base and working items
+     * @param keyComparator comparator both sides are sorted by
+     * @return sorted compare to configure
+     */
+    public static <O, K extends Serializable> SortedCollectionCmp<O, O, K> of(
+            Stream<O> baseItems, Stream<O> workingItems,
+            Function<O, K> keyExtractor,
+            Comparator<? super K> keyComparator
+    ) {
+        return of(baseItems, workingItems, keyExtractor, keyExtractor, keyComparator);
+    }
+
+    /**
+     * Compares items using equals function. Items are consumed lazily, as the result stream is consumed.
+     *
+     * @param equalsFunction equals function to compare items matched by key
+     * @return stream of compare pairs in ascending key order
+     */
+    public Stream<CmpPair<B, W>> compare(BiFunction<B, W, Boolean> equalsFunction) {
+        var iterator = new SortMergeIterator(equalsFunction);
+        return StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(closeHandler);
+    }
+
+    /**
+     * Compares items using equality pairs. Items are consumed lazily, as the result stream is consumed.
+     *
+     * @param eqPair equality pair based on which objects are compared
+     * @return stream of compare pairs in ascending key order
+     */
+    @SafeVarargs
+    public final Stream<CmpPair<B, W>> compare(EqPair<B, W>... eqPair) {
+        return compare(buildEqualsFunctionFromEqualityPairs(List.of(eqPair)));
+    }
+
+    private final class SortMergeIterator implements Iterator<CmpPair<B, W>> {
+        private final BiFunction<B, W, Boolean> equalsFunction;
+
+        private final Side<B> base = new Side<>(baseItems, baseKeyExtractor, "Base");
+        private final Side<W> working = new Side<>(workingItems, workingKeyExtractor, "Working");
+
+        private SortMergeIterator(BiFunction<B, W, Boolean> equalsFunction) {
+            this.equalsFunction = equalsFunction;
+            base.advance();
+            working.advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return base.hasCurrent || working.hasCurrent;
+        }
+
+        @Override
+        public CmpPair<B, W> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final int cmp = !working.hasCurrent ? -1 : !base.hasCurrent ? 1 : keyComparator.compare(base.key, working.key);
+            final CmpPair<B, W> pair;
+            if (cmp < 0) {
+                pair = CmpPair.removed(base.key, base.item);
+                base.advance();
+            } else if (cmp > 0) {
+                pair = CmpPair.added(working.key, working.item);
+                working.advance();
+            } else {
+                pair = ObjectCmp.equals(base.item, working.item, equalsFunction)
+                        ? CmpPair.unchanged(base.key, base.item)
+                        : CmpPair.updated(base.key, base.item, working.item);
+                base.advance();
+                working.advance();
+            }
+            return pair;
+        }
+    }
+
+    /**
+     * Current item of one side, skips items with repeated keys and rejects items out of order
+     */
+    private final class Side<O> {
+        private final Iterator<O> items;
+        private final Function<O, K> keyExtractor;
+        private final String name;
+
+        private boolean hasCurrent;
+        private O item;
+        private K key;
+
+        private Side(Iterator<O> items, Function<O, K> keyExtractor, String name) {
+            this.items = items;
+            this.keyExtractor = keyExtractor;
+            this.name = name;
+        }
+
+        private void advance() {
+            final K previousKey = key;
+            final boolean hadCurrent = hasCurrent;
+            while (items.hasNext()) {
+                final O nextItem = items.next();
+                final K nextKey = keyExtractor.apply(nextItem);
+                final int cmp = hadCurrent ? keyComparator.compare(nextKey, previousKey) : 1;
+                if (cmp < 0) {
+                    throw new IllegalStateException(format("%s items are not sorted by key, %s is after %s", name, nextKey, previousKey));
+                }
+                if (cmp > 0) {
+                    item = nextItem;
+                    key = nextKey;
+                    hasCurrent = true;
+                    return;
+                }
+            }
+            item = null;
+            key = null;
+            hasCurrent = false;
+        }
+    }
+}
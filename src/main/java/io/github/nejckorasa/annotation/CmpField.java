@@ -0,0 +1,21 @@
+package io.github.nejckorasa.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks field or no-arg method to be compared by equals function generated by compare-utils-processor.
+ * <p>Objects are equal if all annotated fields are equal. Primitives are compared by value, arrays by their content and
+ * other objects with {@link Object#equals(Object)}. Types without annotated fields are compared with
+ * {@link Object#equals(Object)}.
+ *
+ * @see CmpKey
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface CmpField {
+}
@@ -0,0 +1,21 @@
+package io.github.nejckorasa.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks field or no-arg method as a key used to match items when comparing collections.
+ * <p>Read by compare-utils-processor which generates a {@code <Type>Cmp} class with a reflection free key extractor next
+ * to the annotated type. Multiple keys on one type form a composite key, a single primitive long or int key is matched
+ * using primitive keys, see {@link io.github.nejckorasa.CollectionCmp#ofLongKey}.
+ *
+ * @see CmpField
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface CmpKey {
+}
@@ -0,0 +1,104 @@
+package io.github.nejckorasa.result;
+
+import static java.lang.String.format;
+
+/**
+ * Number of compare pairs of each {@link Diff}, without compare pairs themselves
+ */
+public class CmpCounts {
+    private final int removed;
+    private final int added;
+    private final int updated;
+    private final int unchanged;
+
+    public CmpCounts(int removed, int added, int updated, int unchanged) {
+        this.removed = removed;
+        this.added = added;
+        this.updated = updated;
+        this.unchanged = unchanged;
+    }
+
+    /**
+     * @return number of items removed from base collection
+     */
+    public int getRemovedCount() {
+        return removed;
+    }
+
+    /**
+     * @return number of items added to working collection
+     */
+    public int getAddedCount() {
+        return added;
+    }
+
+    /**
+     * @return number of items that exist in both collections but were updated
+     */
+    public int getUpdatedCount() {
+        return updated;
+    }
+
+    /**
+     * @return number of unchanged items
+     */
+    public int getUnchangedCount() {
+        return unchanged;
+    }
+
+    /**
+     * @param diff difference type
+     * @return number of compare pairs with difference type
+     */
+    public int getCount(Diff diff) {
+        switch (diff) {
+            case REMOVED:
+                return removed;
+            case ADDED:
+                return added;
+            case UPDATED:
+                return updated;
+            default:
+                return unchanged;
+        }
+    }
+
+    /**
+     * Gets number of changes. Sum of removed, added, updated items.
+     *
+     * @return changes count
+     * @see CmpResult#getChangesCount()
+     */
+    public int getChangesCount() {
+        return removed + added + updated;
+    }
+
+    /**
+     * @return true if changes exist
+     */
+    public boolean hasChanges() {
+        return getChangesCount() > 0;
+    }
+
+    /**
+     * Gets number of different items = items removed from base collection or added to working collection.
+     *
+     * @return number of different items
+     * @see CmpResult#getDifferentCount()
+     */
+    public int getDifferentCount() {
+        return removed + added;
+    }
+
+    /**
+     * @return true if differences exist
+     */
+    public boolean hasDifferences() {
+        return getDifferentCount() > 0;
+    }
+
+    @Override
+    public String toString() {
+        return format("CmpCounts{removed=%s, added=%s, updated=%s, unchanged=%s}", removed, added, updated, unchanged);
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.nejckorasa.result;
+
+import static java.lang.String.format;
+
+/**
+ * Estimated change rates of collections, computed by comparing only a sample of keys. Ratios are estimated from counts of
+ * sampled compare pairs, with 95% confidence bounds (Wilson score interval).
+ */
+public class CmpEstimate {
+    private static final double Z = 1.959963984540054;
+
+    private final CmpCounts sampledCounts;
+    private final double sampleRate;
+
+    public CmpEstimate(CmpCounts sampledCounts, double sampleRate) {
+        this.sampledCounts = sampledCounts;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * @return exact counts of sampled compare pairs
+     */
+    public CmpCounts getSampledCounts() {
+        return sampledCounts;
+    }
+
+    /**
+     * @return fraction of keys that were sampled
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @return estimated counts of all compare pairs, sampled counts scaled by sample rate
+     */
+    public CmpCounts getEstimatedCounts() {
+        return new CmpCounts(
+                scale(sampledCounts.getRemovedCount()),
+                scale(sampledCounts.getAddedCount()),
+                scale(sampledCounts.getUpdatedCount()),
+                scale(sampledCounts.getUnchangedCount()));
+    }
+
+    /**
+     * @return ratio of base items that were removed
+     */
+    public Ratio getRemovedRatio() {
+        return Ratio.of(sampledCounts.getRemovedCount(),
+                sampledCounts.getRemovedCount() + sampledCounts.getUpdatedCount() + sampledCounts.getUnchangedCount());
+    }
+
+    /**
+     * @return ratio of working items that were added
+     */
+    public Ratio getAddedRatio() {
+        return Ratio.of(sampledCounts.getAddedCount(),
+                sampledCounts.getAddedCount() + sampledCounts.getUpdatedCount() + sampledCounts.getUnchangedCount());
+    }
+
+    /**
+     * @return ratio of items in both collections that were updated
+     */
+    public Ratio getUpdatedRatio() {
+        return Ratio.of(sampledCounts.getUpdatedCount(),
+                sampledCounts.getUpdatedCount() + sampledCounts.getUnchangedCount());
+    }
+
+    /**
+     * @return ratio of all compare pairs that are changes - removed, added or updated
+     */
+    public Ratio getChangedRatio() {
+        return Ratio.of(sampledCounts.getChangesCount(),
+                sampledCounts.getChangesCount() + sampledCounts.getUnchangedCount());
+    }
+
+    private int scale(int count) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.round(count / sampleRate));
+    }
+
+    @Override
+    public String toString() {
+        return format("CmpEstimate{sampleRate=%s, removed=%s, added=%s, updated=%s, changed=%s}",
+                sampleRate, getRemovedRatio(), getAddedRatio(), getUpdatedRatio(), getChangedRatio());
+    }
+
+    /**
+     * Estimated ratio with lower and upper 95% confidence bounds
+     */
+    public static final class Ratio {
+        private final int sampleSize;
+        private final double estimate;
+        private final double lower;
+        private final double upper;
+
+        private Ratio(int sampleSize, double estimate, double lower, double upper) {
+            this.sampleSize = sampleSize;
+            this.estimate = estimate;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        /**
+         * @param count      number of sampled pairs counted in ratio
+         * @param sampleSize number of sampled pairs ratio is relative to
+         * @return ratio with Wilson score interval, empty sample gives ratio 0 with bounds 0 and 1
+         */
+        static Ratio of(int count, int sampleSize) {
+            if (sampleSize == 0) {
+                return new Ratio(0, 0, 0, 1);
+            }
+            final double n = sampleSize;
+            final double p = count / n;
+            final double z2 = Z * Z;
+            final double center = (p + z2 / (2 * n)) / (1 + z2 / n);
+            final double half = Z / (1 + z2 / n) * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n));
+            return new Ratio(sampleSize, p, Math.max(0, center - half), Math.min(1, center + half));
+        }
+
+        /**
+         * @return number of sampled pairs ratio was estimated from
+         */
+        public int getSampleSize() {
+            return sampleSize;
+        }
+
+        /**
+         * @return estimated ratio, between 0 and 1
+         */
+        public double getEstimate() {
+            return estimate;
+        }
+
+        /**
+         * @return lower bound of ratio
+         */
+        public double getLower() {
+            return lower;
+        }
+
+        /**
+         * @return upper bound of ratio
+         */
+        public double getUpper() {
+            return upper;
+        }
+
+        @Override
+        public String toString() {
+            return format("%.4f [%.4f, %.4f]", estimate, lower, upper);
+        }
+    }
+}
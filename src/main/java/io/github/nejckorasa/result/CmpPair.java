@@ -13,12 +13,18 @@ public class CmpPair<B, W> {
     private final Diff diff;
     private final B base;
     private final W working;
+    private final long mismatches;
 
     private CmpPair(Serializable key, B base, W working, Diff diff) {
+        this(key, base, working, diff, 0);
+    }
+
+    private CmpPair(Serializable key, B base, W working, Diff diff, long mismatches) {
         this.key = key;
         this.base = base;
         this.working = working;
         this.diff = diff;
+        this.mismatches = mismatches;
     }
 
     public static <B, W> CmpPair<B, W> removed(Serializable key, B base) {
@@ -29,6 +35,10 @@ public class CmpPair<B, W> {
         return new CmpPair<>(key, base, working, Diff.UPDATED);
     }
 
+    public static <B, W> CmpPair<B, W> updated(Serializable key, B base, W working, long mismatches) {
+        return new CmpPair<>(key, base, working, Diff.UPDATED, mismatches);
+    }
+
     public static <B, W> CmpPair<B, W> unchanged(Serializable key, B base) {
         return new CmpPair<>(key, base, null, Diff.UNCHANGED);
     }
@@ -72,6 +82,26 @@ public class CmpPair<B, W> {
         return diff;
     }
 
+    /**
+     * Bitmask of equality pairs that did not match, bit {@code i} is set if equality pair at index {@code i} of
+     * {@link io.github.nejckorasa.EqualityPlan} did not match. Recorded only for updated pairs compared with equality
+     * plan, which is the case when compared with equality pairs or equalities.
+     *
+     * @return bitmask of mismatched equality pairs, {@code 0} if not recorded
+     * @see io.github.nejckorasa.EqualityPlan#mismatches(Object, Object)
+     */
+    public long getMismatches() {
+        return mismatches;
+    }
+
+    /**
+     * @param eqPairIndex index of equality pair
+     * @return true if equality pair at index did not match, see {@link #getMismatches()}
+     */
+    public boolean isMismatched(int eqPairIndex) {
+        return (mismatches & 1L << Math.min(eqPairIndex, 63)) != 0;
+    }
+
     @Override
     public String toString() {
         return format("DiffPair{key=%s, diff=%s, base=%s, working=%s}", key, diff, base, working);
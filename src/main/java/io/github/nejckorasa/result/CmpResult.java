@@ -15,18 +15,25 @@ import static java.lang.String.format;
 import static java.util.stream.Collectors.toList;
 
 public class CmpResult<B, W> {
-    private final List<CmpPair<B, W>> removed = new ArrayList<>();
-    private final List<CmpPair<B, W>> added = new ArrayList<>();
-    private final List<CmpPair<B, W>> updated = new ArrayList<>();
-    private final List<CmpPair<B, W>> unchanged = new ArrayList<>();
+    private final List<CmpPair<B, W>> removed;
+    private final List<CmpPair<B, W>> added;
+    private final List<CmpPair<B, W>> updated;
+    private final List<CmpPair<B, W>> unchanged;
     private final int changesCount;
     private final int differentCount;
 
     public CmpResult(List<CmpPair<B, W>> removed, List<CmpPair<B, W>> added, List<CmpPair<B, W>> updated, List<CmpPair<B, W>> unchanged) {
-        this.removed.addAll(removed);
-        this.added.addAll(added);
-        this.updated.addAll(updated);
-        this.unchanged.addAll(unchanged);
+        this(removed, added, updated, unchanged, true);
+    }
+
+    /**
+     * @param copy whether lists are copied, if not, lists are used as they are
+     */
+    CmpResult(List<CmpPair<B, W>> removed, List<CmpPair<B, W>> added, List<CmpPair<B, W>> updated, List<CmpPair<B, W>> unchanged, boolean copy) {
+        this.removed = copy ? new ArrayList<>(removed) : removed;
+        this.added = copy ? new ArrayList<>(added) : added;
+        this.updated = copy ? new ArrayList<>(updated) : updated;
+        this.unchanged = copy ? new ArrayList<>(unchanged) : unchanged;
         changesCount = removed.size() + added.size() + updated.size();
         differentCount = removed.size() + added.size();
     }
@@ -0,0 +1,113 @@
+package io.github.nejckorasa.result;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Result of sampled compare - exact number of compare pairs of each {@link Diff} and a bounded sample of compare pairs
+ * of each diff
+ */
+public class CmpSample<B, W> {
+    private final CmpCounts counts;
+    private final List<CmpPair<B, W>> removed;
+    private final List<CmpPair<B, W>> added;
+    private final List<CmpPair<B, W>> updated;
+    private final List<CmpPair<B, W>> unchanged;
+
+    public CmpSample(
+            CmpCounts counts,
+            List<CmpPair<B, W>> removed,
+            List<CmpPair<B, W>> added,
+            List<CmpPair<B, W>> updated,
+            List<CmpPair<B, W>> unchanged
+    ) {
+        this.counts = counts;
+        this.removed = removed;
+        this.added = added;
+        this.updated = updated;
+        this.unchanged = unchanged;
+    }
+
+    /**
+     * @return exact number of compare pairs of each diff
+     */
+    public CmpCounts getCounts() {
+        return counts;
+    }
+
+    /**
+     * @return sample of compare pairs of items removed from base collection
+     */
+    public List<CmpPair<B, W>> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return sample of compare pairs of items added to working collection
+     */
+    public List<CmpPair<B, W>> getAdded() {
+        return added;
+    }
+
+    /**
+     * @return sample of compare pairs of updated items
+     */
+    public List<CmpPair<B, W>> getUpdated() {
+        return updated;
+    }
+
+    /**
+     * @return sample of compare pairs of unchanged items
+     */
+    public List<CmpPair<B, W>> getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * @return samples of removed, added and updated compare pairs
+     */
+    public List<CmpPair<B, W>> getChanged() {
+        final List<CmpPair<B, W>> changed = new ArrayList<>(removed.size() + added.size() + updated.size());
+        changed.addAll(removed);
+        changed.addAll(added);
+        changed.addAll(updated);
+        return changed;
+    }
+
+    /**
+     * @param diff difference type
+     * @return sample of compare pairs of diff
+     */
+    public List<CmpPair<B, W>> get(Diff diff) {
+        switch (diff) {
+            case REMOVED:
+                return removed;
+            case ADDED:
+                return added;
+            case UPDATED:
+                return updated;
+            default:
+                return unchanged;
+        }
+    }
+
+    /**
+     * @return true if any diff has more compare pairs than there are in its sample
+     */
+    public boolean isTruncated() {
+        for (Diff diff : Diff.values()) {
+            if (get(diff).size() < counts.getCount(diff)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return format("CmpSample{counts=%s, removed=%s, added=%s, updated=%s, unchanged=%s}",
+                counts, removed.size(), added.size(), updated.size(), unchanged.size());
+    }
+}
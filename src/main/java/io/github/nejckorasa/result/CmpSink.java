@@ -0,0 +1,64 @@
+package io.github.nejckorasa.result;
+
+import java.io.Serializable;
+
+/**
+ * Receives compare pairs as they are found, without materializing {@link CmpResult}.
+ * <p>All callbacks do nothing by default, override only the ones that are needed.
+ *
+ * @param <B> base items type
+ * @param <W> working items type
+ */
+public interface CmpSink<B, W> {
+
+    /**
+     * Called for item that exists only in working collection
+     *
+     * @param key     key of added item
+     * @param working added item
+     */
+    default void onAdded(Serializable key, W working) {
+    }
+
+    /**
+     * Called for item that exists only in base collection
+     *
+     * @param key  key of removed item
+     * @param base removed item
+     */
+    default void onRemoved(Serializable key, B base) {
+    }
+
+    /**
+     * Called for items matched by key that are not equal
+     *
+     * @param key     key that matched base and working items
+     * @param base    base item
+     * @param working working item
+     */
+    default void onUpdated(Serializable key, B base, W working) {
+    }
+
+    /**
+     * Called for items matched by key that are not equal, when mismatched equality pairs are recorded, see
+     * {@link CmpPair#getMismatches()}. Calls {@link #onUpdated(Serializable, Object, Object)} by default.
+     *
+     * @param key        key that matched base and working items
+     * @param base       base item
+     * @param working    working item
+     * @param mismatches bitmask of mismatched equality pairs
+     */
+    default void onUpdated(Serializable key, B base, W working, long mismatches) {
+        onUpdated(key, base, working);
+    }
+
+    /**
+     * Called for items matched by key that are equal
+     *
+     * @param key     key that matched base and working items
+     * @param base    base item
+     * @param working working item
+     */
+    default void onUnchanged(Serializable key, B base, W working) {
+    }
+}
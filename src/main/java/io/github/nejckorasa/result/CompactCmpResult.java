@@ -0,0 +1,75 @@
+package io.github.nejckorasa.result;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Compare result that does not copy lists of compare pairs and returns views instead of building new lists. Lists are
+ * usually columnar, storing keys and items in arrays and creating {@link CmpPair} views only when pairs are read, so
+ * that result holds no compare pair objects.
+ * <p>Lists returned by {@link #getAll()}, {@link #getChanged()} and {@link #getDifferent()} are unmodifiable views over
+ * lists of each {@link Diff}. Compare pairs of columnar lists are created on every read, so the same pair read twice is
+ * not the same instance.
+ */
+public class CompactCmpResult<B, W> extends CmpResult<B, W> {
+
+    /**
+     * @param removed   compare pairs of removed items, used as it is, without copying
+     * @param added     compare pairs of added items, used as it is, without copying
+     * @param updated   compare pairs of updated items, used as it is, without copying
+     * @param unchanged compare pairs of unchanged items, used as it is, without copying
+     */
+    public CompactCmpResult(List<CmpPair<B, W>> removed, List<CmpPair<B, W>> added, List<CmpPair<B, W>> updated, List<CmpPair<B, W>> unchanged) {
+        super(removed, added, updated, unchanged, false);
+    }
+
+    @Override
+    public List<CmpPair<B, W>> getAll() {
+        return new Concat<>(List.of(getRemoved(), getAdded(), getUpdated(), getUnchanged()));
+    }
+
+    @Override
+    public List<CmpPair<B, W>> getChanged() {
+        return new Concat<>(List.of(getRemoved(), getAdded(), getUpdated()));
+    }
+
+    @Override
+    public List<CmpPair<B, W>> getDifferent() {
+        return new Concat<>(List.of(getRemoved(), getAdded()));
+    }
+
+    /**
+     * Unmodifiable view of lists one after another
+     */
+    private static final class Concat<T> extends AbstractList<T> implements RandomAccess {
+        private final List<List<T>> lists;
+
+        private Concat(List<List<T>> lists) {
+            this.lists = lists;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index >= 0) {
+                int offset = index;
+                for (List<T> list : lists) {
+                    if (offset < list.size()) {
+                        return list.get(offset);
+                    }
+                    offset -= list.size();
+                }
+            }
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (List<T> list : lists) {
+                size += list.size();
+            }
+            return size;
+        }
+    }
+}
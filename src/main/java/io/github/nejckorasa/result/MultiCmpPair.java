@@ -0,0 +1,105 @@
+package io.github.nejckorasa.result;
+
+import java.io.Serializable;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Compare result of one key between base object and objects of all working versions, see {@link MultiCmpResult}
+ */
+public class MultiCmpPair<B, W> {
+    private final Serializable key;
+    private final B base;
+    private final List<W> working;
+    private final List<Diff> diffs;
+
+    /**
+     * @param key     key that matched base and working objects
+     * @param base    base object or {@code null} if object does not exist in base collection
+     * @param working working objects by version, {@code null} if object does not exist in version
+     * @param diffs   differences between base object and working objects by version, {@code null} if object exists in
+     *                neither base collection nor version
+     */
+    public MultiCmpPair(Serializable key, B base, List<W> working, List<Diff> diffs) {
+        this.key = key;
+        this.base = base;
+        this.working = working;
+        this.diffs = diffs;
+    }
+
+    /**
+     * @return key that matched base and working objects
+     */
+    public Serializable getKey() {
+        return key;
+    }
+
+    /**
+     * @return base object or {@code null} if object does not exist in base collection
+     */
+    public B getBase() {
+        return base;
+    }
+
+    /**
+     * @param version working version index
+     * @return working object of version or {@code null} if object does not exist in version
+     */
+    public W getWorking(int version) {
+        return working.get(version);
+    }
+
+    /**
+     * @param version working version index
+     * @return difference between base object and working object of version, {@code null} if object exists in neither
+     */
+    public Diff getDiff(int version) {
+        return diffs.get(version);
+    }
+
+    /**
+     * @return differences between base object and working objects by version
+     */
+    public List<Diff> getDiffs() {
+        return diffs;
+    }
+
+    /**
+     * @param version working version index
+     * @return compare pair of base object and working object of version or {@code null} if object exists in neither
+     */
+    public CmpPair<B, W> getPair(int version) {
+        final Diff diff = diffs.get(version);
+        if (diff == null) {
+            return null;
+        }
+        switch (diff) {
+            case REMOVED:
+                return CmpPair.removed(key, base);
+            case ADDED:
+                return CmpPair.added(key, working.get(version));
+            case UPDATED:
+                return CmpPair.updated(key, base, working.get(version));
+            default:
+                return CmpPair.unchanged(key, base);
+        }
+    }
+
+    /**
+     * @return true if object is not unchanged in at least one version
+     */
+    public boolean hasChanges() {
+        for (Diff diff : diffs) {
+            if (diff != null && diff != Diff.UNCHANGED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return format("MultiCmpPair{key=%s, diffs=%s, base=%s, working=%s}", key, diffs, base, working);
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.nejckorasa.result;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+
+/**
+ * Result of comparing base collection with more working versions, contains one {@link MultiCmpPair} per key
+ */
+public class MultiCmpResult<B, W> {
+    private final List<MultiCmpPair<B, W>> pairs;
+    private final int versions;
+
+    public MultiCmpResult(List<MultiCmpPair<B, W>> pairs, int versions) {
+        this.pairs = pairs;
+        this.versions = versions;
+    }
+
+    /**
+     * @return compare pairs of all keys
+     */
+    public List<MultiCmpPair<B, W>> getAll() {
+        return pairs;
+    }
+
+    /**
+     * @return compare pairs of keys that are not unchanged in at least one version
+     */
+    public List<MultiCmpPair<B, W>> getChanged() {
+        final List<MultiCmpPair<B, W>> changed = new ArrayList<>();
+        for (MultiCmpPair<B, W> pair : pairs) {
+            if (pair.hasChanges()) {
+                changed.add(pair);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return number of working versions
+     */
+    public int getVersionCount() {
+        return versions;
+    }
+
+    /**
+     * Gets compare result of base collection and one working version, result is built on each call
+     *
+     * @param version working version index
+     * @return compare result of version
+     */
+    public CmpResult<B, W> getResult(int version) {
+        if (version < 0 || version >= versions) {
+            throw new IndexOutOfBoundsException(format("Version %s, versions %s", version, versions));
+        }
+        final List<CmpPair<B, W>> removed = new ArrayList<>();
+        final List<CmpPair<B, W>> added = new ArrayList<>();
+        final List<CmpPair<B, W>> updated = new ArrayList<>();
+        final List<CmpPair<B, W>> unchanged = new ArrayList<>();
+        for (MultiCmpPair<B, W> pair : pairs) {
+            final Diff diff = pair.getDiff(version);
+            if (diff == null) continue;
+            switch (diff) {
+                case REMOVED:
+                    removed.add(pair.getPair(version));
+                    break;
+                case ADDED:
+                    added.add(pair.getPair(version));
+                    break;
+                case UPDATED:
+                    updated.add(pair.getPair(version));
+                    break;
+                default:
+                    unchanged.add(pair.getPair(version));
+            }
+        }
+        return new CmpResult<>(removed, added, updated, unchanged);
+    }
+
+    /**
+     * @return stream of compare pairs of all keys
+     */
+    public Stream<MultiCmpPair<B, W>> stream() {
+        return pairs.stream();
+    }
+
+    @Override
+    public String toString() {
+        return format("MultiCmpResult{versions=%s, pairs=%s}", versions, pairs);
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.nejckorasa;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AnyChangeTest {
+
+    @Test
+    public void agreesWithCompare() {
+        var random = new Random(7);
+        for (int run = 0; run < 200; run++) {
+            var baseList = randomList(random);
+            var workingList = randomList(random);
+            var expected = CollectionCmp.of(baseList, workingList, TestObj::getStrField).compare(TestObj::getIntField).hasChanges();
+            assertEquals(expected, CollectionCmp.of(baseList, workingList, TestObj::getStrField).anyChange(TestObj::getIntField));
+        }
+    }
+
+    @Test
+    public void returnsOnFirstChange() {
+        var baseList = IntStream.range(0, 1000).mapToObj(i -> new TestObj("" + i, i)).collect(Collectors.toList());
+        var workingList = IntStream.range(0, 1000).mapToObj(i -> new TestObj("" + i, i == 1 ? -1 : i)).collect(Collectors.toList());
+        var equalsCalls = new AtomicInteger();
+
+        assertTrue(CollectionCmp.of(baseList, workingList, TestObj::getStrField).anyChange((b, w) -> {
+            equalsCalls.incrementAndGet();
+            return b.getIntField().equals(w.getIntField());
+        }));
+        assertEquals(2, equalsCalls.get());
+
+        assertTrue(CollectionCmp.of(baseList, workingList.subList(0, 999), TestObj::getStrField).anyChange((b, w) -> {
+            equalsCalls.incrementAndGet();
+            return true;
+        }));
+        assertEquals(2, equalsCalls.get());
+    }
+
+    @Test
+    public void duplicateKeys() {
+        var baseList = List.of(new TestObj("1", 1), new TestObj("1", 2));
+        var workingList = List.of(new TestObj("1", 1));
+
+        assertFalse(CollectionCmp.of(baseList, workingList, TestObj::getStrField).anyChange(TestObj::getIntField));
+        assertTrue(CollectionCmp.of(baseList, workingList, TestObj::getStrField)
+                .duplicateKeys(DuplicateKeys.ALL)
+                .anyChange(TestObj::getIntField));
+        assertThrows(IllegalStateException.class, () -> CollectionCmp.of(baseList, workingList, TestObj::getStrField)
+                .duplicateKeys(DuplicateKeys.FAIL)
+                .anyChange(TestObj::getIntField));
+    }
+
+    @Test
+    public void baseIndexAnyChange() {
+        var index = CollectionCmp.index(List.of(new TestObj("1", 1), new TestObj("2", 2)), TestObj::getStrField);
+
+        assertFalse(index.anyChange(List.of(new TestObj("2", 2), new TestObj("1", 1)), TestObj::getStrField, TestObj::equals));
+        assertTrue(index.anyChange(List.of(new TestObj("2", 2), new TestObj("3", 3)), TestObj::getStrField, TestObj::equals));
+        assertTrue(index.anyChange(List.of(new TestObj("2", 2), new TestObj("2", 2)), TestObj::getStrField, TestObj::equals));
+    }
+
+    private static List<TestObj> randomList(Random random) {
+        return IntStream.range(0, 6)
+                .filter(i -> random.nextInt(3) > 0)
+                .mapToObj(i -> new TestObj("" + i, random.nextInt(2)))
+                .collect(Collectors.toList());
+    }
+}
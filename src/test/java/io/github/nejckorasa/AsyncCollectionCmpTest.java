@@ -0,0 +1,107 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpPair;
+import io.github.nejckorasa.result.CmpResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncCollectionCmpTest {
+
+    @Test
+    public void resultIsIdenticalToCompare() {
+        var baseList = IntStream.range(0, 2000).mapToObj(i -> new TestObj("" + i, i)).collect(Collectors.toList());
+        var workingList = IntStream.range(500, 2500).mapToObj(i -> new TestObj("" + i, i % 7 == 0 ? -i : i)).collect(Collectors.toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            var result = CollectionCmp.of(baseList, workingList, TestObj::getStrField)
+                    .maxInFlight(8)
+                    .compareAsync(executor, TestObj::getIntField)
+                    .join();
+            var expected = CollectionCmp.of(baseList, workingList, TestObj::getStrField).compare(TestObj::getIntField);
+            assertSame(expected, result);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void limitsEqualsInFlight() {
+        var baseList = IntStream.range(0, 200).mapToObj(i -> new TestObj("" + i, i)).collect(Collectors.toList());
+        var workingList = IntStream.range(0, 200).mapToObj(i -> new TestObj("" + i, i)).collect(Collectors.toList());
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            var result = CollectionCmp.of(baseList, workingList, TestObj::getStrField)
+                    .maxInFlight(3)
+                    .compareAsync(executor, (b, w) -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        Thread.yield();
+                        running.decrementAndGet();
+                        return b.getIntField().equals(w.getIntField());
+                    })
+                    .join();
+            assertEquals(200, result.getUnchanged().size());
+            assertTrue(maxRunning.get() <= 3, () -> "max running " + maxRunning.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void comparesOnCallingThreadExecutor() {
+        var baseList = List.of(new TestObj("1", 1), new TestObj("1", 2), new TestObj("2", 2));
+        var workingList = List.of(new TestObj("1", 2), new TestObj("1", 5), new TestObj("3", 3));
+
+        var result = CollectionCmp.of(baseList, workingList, TestObj::getStrField)
+                .duplicateKeys(DuplicateKeys.ALL)
+                .maxInFlight(1)
+                .compareAsync(Runnable::run, TestObj::getIntField)
+                .join();
+        var expected = CollectionCmp.of(baseList, workingList, TestObj::getStrField)
+                .duplicateKeys(DuplicateKeys.ALL)
+                .compare(TestObj::getIntField);
+        assertSame(expected, result);
+    }
+
+    @Test
+    public void failsWithEqualsFunction() {
+        var list = List.of(new TestObj("1", 1), new TestObj("2", 2));
+        var future = CollectionCmp.of(list, List.of(new TestObj("1", 1)), TestObj::getStrField)
+                .compareAsync(Runnable::run, (b, w) -> {
+                    throw new IllegalStateException("equals failed");
+                });
+        var e = assertThrows(CompletionException.class, future::join);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    private static void assertSame(CmpResult<TestObj, TestObj> expected, CmpResult<TestObj, TestObj> actual) {
+        assertEquals(describe(expected.getRemoved()), describe(actual.getRemoved()));
+        assertEquals(describe(expected.getAdded()), describe(actual.getAdded()));
+        assertEquals(describe(expected.getUpdated()), describe(actual.getUpdated()));
+        assertEquals(describe(expected.getUnchanged()), describe(actual.getUnchanged()));
+    }
+
+    private static List<String> describe(List<CmpPair<TestObj, TestObj>> pairs) {
+        return pairs.stream()
+                .map(p -> p.getKey() + ":" + intField(p.getBase()) + ":" + intField(p.getWorking()))
+                .collect(Collectors.toList());
+    }
+
+    private static Integer intField(TestObj obj) {
+        return obj == null ? null : obj.getIntField();
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.nejckorasa;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class BaseIndexTest {
+
+    @Test
+    public void compareMatchesCollectionCompare() {
+        var baseList = List.of(new TestObj("1", 1), new TestObj("2", 2), new TestObj("3", 3), new TestObj("3", 9));
+        var workingList = List.of(new TestObj("2", 9), new TestObj("3", 3), new TestObj("4", 4), new TestObj("4", 5));
+
+        var index = CollectionCmp.index(baseList, TestObj::getStrField);
+        var expected = CollectionCmp.of(baseList, workingList, TestObj::getStrField).compare(TestObj::getIntField);
+        var result = index.compare(workingList, (b, w) -> b.getIntField().equals(w.getIntField()));
+
+        assertEquals(3, index.size());
+        assertEquals(3, index.get("3").getIntField().intValue());
+        assertNull(index.get("4"));
+        assertEquals(expected.getRemoved().size(), result.getRemoved().size());
+        assertEquals(expected.getAdded().size(), result.getAdded().size());
+        assertEquals(expected.getUpdated().size(), result.getUpdated().size());
+        assertEquals(expected.getUnchanged().size(), result.getUnchanged().size());
+        assertEquals(4, result.getAdded().get(0).getWorking().getIntField().intValue());
+        assertEquals(1, index.count(workingList, TestObj::getStrField, (b, w) -> b.getIntField().equals(w.getIntField())).getUnchangedCount());
+        assertEquals(0, index.compareChanges(workingList, TestObj::getStrField, (b, w) -> true).getUnchanged().size());
+    }
+
+    @Test
+    public void concurrentCompares() throws Exception {
+        var baseList = new ArrayList<TestObj>();
+        for (int i = 0; i < 10_000; i++) {
+            baseList.add(new TestObj(String.valueOf(i), i));
+        }
+        var index = CollectionCmp.index(baseList, TestObj::getStrField);
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var futures = new ArrayList<Future<Integer>>();
+            for (int tenant = 1; tenant <= 8; tenant++) {
+                final int step = tenant;
+                futures.add(executor.submit(() -> {
+                    var workingList = new ArrayList<TestObj>();
+                    for (int i = 0; i < 10_000; i += step) {
+                        workingList.add(new TestObj(String.valueOf(i), i));
+                    }
+                    return index.count(workingList, TestObj::getStrField, EqualityPlan.of(EqPair.of(TestObj::getIntField, TestObj::getIntField))).getRemovedCount();
+                }));
+            }
+            for (int tenant = 1; tenant <= 8; tenant++) {
+                assertEquals(10_000 - (10_000 + tenant - 1) / tenant, futures.get(tenant - 1).get().intValue());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
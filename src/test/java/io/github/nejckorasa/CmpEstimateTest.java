@@ -0,0 +1,99 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpEstimate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CmpEstimateTest {
+
+    @Test
+    public void boundsContainActualRatios() {
+        var baseList = list(0, 20_000, 0);
+        var workingList = list(2_000, 22_000, 10);
+
+        var estimate = CollectionCmp.of(baseList, workingList, TestObj::getStrField).estimate(0.1, TestObj::getIntField);
+
+        assertBounds(0.1, estimate.getRemovedRatio());
+        assertBounds(0.1, estimate.getAddedRatio());
+        assertBounds(0.1, estimate.getUpdatedRatio());
+        assertBounds(5_800 / 22_000.0, estimate.getChangedRatio());
+        assertTrue(estimate.getSampledCounts().getUnchangedCount() < 3_000);
+
+        var estimatedCounts = estimate.getEstimatedCounts();
+        assertTrue(Math.abs(estimatedCounts.getUpdatedCount() - 1_800) < 600, estimatedCounts::toString);
+        assertTrue(Math.abs(estimatedCounts.getAddedCount() - 2_000) < 600, estimatedCounts::toString);
+    }
+
+    @Test
+    public void samplesSameKeysOnBothSides() {
+        var baseList = list(0, 10_000, 0);
+        var workingList = list(0, 10_000, 0);
+
+        var estimate = CollectionCmp.of(baseList, workingList, TestObj::getStrField).estimate(0.05, TestObj::getIntField);
+
+        assertEquals(0, estimate.getSampledCounts().getChangesCount());
+        assertTrue(estimate.getSampledCounts().getUnchangedCount() > 0);
+        assertEquals(0.0, estimate.getChangedRatio().getEstimate());
+    }
+
+    @Test
+    public void estimateIsDeterministic() {
+        var baseList = list(0, 10_000, 0);
+        var workingList = list(500, 10_500, 7);
+
+        var estimate = CollectionCmp.of(baseList, workingList, TestObj::getStrField).estimate(0.2, TestObj::getIntField);
+        var again = CollectionCmp.of(baseList, workingList, TestObj::getStrField).estimate(0.2, TestObj::getIntField);
+
+        assertEquals(estimate.getSampledCounts().toString(), again.getSampledCounts().toString());
+    }
+
+    @Test
+    public void fullSampleIsExact() {
+        var baseList = list(0, 1_000, 0);
+        var workingList = list(100, 1_100, 4);
+
+        var estimate = CollectionCmp.of(baseList, workingList, TestObj::getStrField).estimate(1, TestObj::getIntField);
+        var counts = CollectionCmp.of(baseList, workingList, TestObj::getStrField).count(TestObj::getIntField);
+
+        assertEquals(counts.toString(), estimate.getSampledCounts().toString());
+        assertEquals(counts.toString(), estimate.getEstimatedCounts().toString());
+    }
+
+    @Test
+    public void emptySampleHasNoInformation() {
+        var estimate = CollectionCmp.of(List.<TestObj>of(), List.<TestObj>of(), TestObj::getStrField)
+                .estimate(0.5, TestObj::getIntField);
+
+        assertEquals(0.0, estimate.getUpdatedRatio().getLower());
+        assertEquals(1.0, estimate.getUpdatedRatio().getUpper());
+    }
+
+    @Test
+    public void invalidSampleRate() {
+        var cmp = CollectionCmp.of(list(0, 10, 0), list(0, 10, 0), TestObj::getStrField);
+
+        assertThrows(IllegalArgumentException.class, () -> cmp.estimate(0, TestObj::getIntField));
+        assertThrows(IllegalArgumentException.class, () -> cmp.estimate(1.5, TestObj::getIntField));
+    }
+
+    private static void assertBounds(double actual, CmpEstimate.Ratio ratio) {
+        assertTrue(ratio.getLower() <= actual && actual <= ratio.getUpper(), () -> actual + " not in " + ratio);
+        assertTrue(ratio.getUpper() - ratio.getLower() < 0.1, ratio::toString);
+    }
+
+    /**
+     * Items with keys from start to end, every updateEvery-th item has updated int field
+     */
+    private static List<TestObj> list(int start, int end, int updateEvery) {
+        return IntStream.range(start, end)
+                .mapToObj(i -> new TestObj("" + i, updateEvery > 0 && i % updateEvery == 0 ? -i : i))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.nejckorasa;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.nejckorasa.CmpMetrics.Phase.ADDED_SCAN;
+import static io.github.nejckorasa.CmpMetrics.Phase.COMPARE;
+import static io.github.nejckorasa.CmpMetrics.Phase.PARTITION_BASE;
+import static io.github.nejckorasa.CmpMetrics.Phase.PARTITION_WORKING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CmpMetricsTest {
+
+    @Test
+    public void reportsPhasesAndCounters() {
+        var baseList = List.of(new TestObj("1", 1), new TestObj("2", 2), new TestObj("2", 3), new TestObj("3", 3));
+        var workingList = List.of(new TestObj("2", 9), new TestObj("3", 3), new TestObj("4", 4));
+        var metrics = new RecordingMetrics();
+
+        var result = CollectionCmp.of(baseList, workingList, TestObj::getStrField)
+                .metrics(metrics)
+                .compare(TestObj::getIntField);
+
+        assertEquals(4, result.getAll().size());
+        assertEquals(List.of(PARTITION_BASE, PARTITION_WORKING, COMPARE, ADDED_SCAN), metrics.phases);
+        assertTrue(metrics.nanos >= 0);
+        assertEquals("4/3", metrics.items);
+        assertEquals("1/0", metrics.duplicates);
+        assertEquals(2L, metrics.equalsInvocations);
+    }
+
+    @Test
+    public void reportsWholeCompareWithoutPartitions() {
+        var list = List.of(new TestObj("1", 1), new TestObj("2", 2));
+        var metrics = new RecordingMetrics();
+
+        CollectionCmp.of(list, List.of(new TestObj("1", 1)), TestObj::getStrField)
+                .strategy(CmpStrategy.SINGLE_INDEX)
+                .metrics(metrics)
+                .count(TestObj::getIntField);
+
+        assertEquals(List.of(COMPARE), metrics.phases);
+        assertNull(metrics.duplicates);
+        assertEquals(1L, metrics.equalsInvocations);
+    }
+
+    @Test
+    public void sameInstancesAreNotCountedAsInvocations() {
+        var list = List.of(new TestObj("1", 1), new TestObj("2", 2));
+        var metrics = new RecordingMetrics();
+
+        CollectionCmp.of(list, list, TestObj::getStrField)
+                .duplicateKeys(DuplicateKeys.ALL)
+                .metrics(metrics)
+                .compareChanges(TestObj::getIntField);
+
+        assertEquals("0/0", metrics.duplicates);
+        assertEquals(0L, metrics.equalsInvocations);
+    }
+
+    private static class RecordingMetrics implements CmpMetrics {
+        final List<Phase> phases = new ArrayList<>();
+        long nanos;
+        String items;
+        String duplicates;
+        long equalsInvocations = -1;
+
+        @Override
+        public void onPhase(Phase phase, long nanos) {
+            phases.add(phase);
+            this.nanos += nanos;
+        }
+
+        @Override
+        public void onItems(int baseCount, int workingCount) {
+            items = baseCount + "/" + workingCount;
+        }
+
+        @Override
+        public void onDuplicateKeys(int baseDuplicates, int workingDuplicates) {
+            duplicates = baseDuplicates + "/" + workingDuplicates;
+        }
+
+        @Override
+        public void onEqualsInvocations(long invocations) {
+            equalsInvocations = invocations;
+        }
+    }
+}
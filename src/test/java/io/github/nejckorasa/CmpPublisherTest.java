@@ -0,0 +1,183 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpPair;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CmpPublisherTest {
+
+    @Test
+    public void publishesSamePairsAsCompareOneAtATime() {
+        var baseList = List.of(new TestObj("1", 1), new TestObj("2", 2), new TestObj("3", 3));
+        var workingList = List.of(new TestObj("2", 9), new TestObj("3", 3), new TestObj("4", 4));
+
+        var subscriber = new TestSubscriber(1);
+        CollectionCmp.of(baseList, workingList, TestObj::getStrField)
+                .comparePublisher(TestObj::getIntField)
+                .subscribe(subscriber);
+
+        assertTrue(subscriber.completed);
+        var expected = CollectionCmp.of(baseList, workingList, TestObj::getStrField).compare(TestObj::getIntField);
+        assertEquals(describe(expected.getAll()), describe(subscriber.pairs));
+    }
+
+    @Test
+    public void completesWhenDemandExactlyCoversPairs() {
+        var baseList = List.of(new TestObj("1", 1), new TestObj("2", 2), new TestObj("3", 3));
+        var workingList = List.of(new TestObj("2", 9), new TestObj("3", 3), new TestObj("4", 4));
+        var expected = CollectionCmp.of(baseList, workingList, TestObj::getStrField).compare(TestObj::getIntField);
+
+        var subscriber = new TestSubscriber(expected.getAll().size());
+        CollectionCmp.of(baseList, workingList, TestObj::getStrField)
+                .comparePublisher(TestObj::getIntField)
+                .subscribe(subscriber);
+
+        assertEquals(subscriber.requested, subscriber.pairs.size());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void cancelStopsCompare() {
+        var baseList = IntStream.range(0, 1000).mapToObj(i -> new TestObj("" + i, i)).collect(Collectors.toList());
+        var workingList = IntStream.range(0, 1000).mapToObj(i -> new TestObj("" + i, i)).collect(Collectors.toList());
+        var equalsCalls = new AtomicInteger();
+
+        var subscriber = new TestSubscriber(1) {
+            @Override
+            public void onNext(CmpPair<TestObj, TestObj> item) {
+                pairs.add(item);
+                if (pairs.size() == 10) {
+                    subscription.cancel();
+                } else {
+                    request(1);
+                }
+            }
+        };
+        CollectionCmp.of(baseList, workingList, TestObj::getStrField)
+                .comparePublisher((b, w) -> {
+                    equalsCalls.incrementAndGet();
+                    return true;
+                })
+                .subscribe(subscriber);
+
+        assertEquals(10, subscriber.pairs.size());
+        assertEquals(10, equalsCalls.get());
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    public void nothingIsComparedWithoutDemand() {
+        var equalsCalls = new AtomicInteger();
+        var subscriber = new TestSubscriber(0);
+        var list = List.of(new TestObj("1", 1));
+        CollectionCmp.of(list, list, TestObj::getStrField)
+                .comparePublisher((b, w) -> equalsCalls.incrementAndGet() > 0)
+                .subscribe(subscriber);
+
+        assertEquals(0, equalsCalls.get());
+        subscriber.request(5);
+        assertEquals(1, subscriber.pairs.size());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void invalidRequestAndDuplicateKeysAreErrors() {
+        var subscriber = new TestSubscriber(0);
+        var list = List.of(new TestObj("1", 1), new TestObj("1", 2));
+        CollectionCmp.of(list, list, TestObj::getStrField).comparePublisher().subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+
+        var strict = new TestSubscriber(1);
+        CollectionCmp.of(list, list, TestObj::getStrField)
+                .duplicateKeys(DuplicateKeys.FAIL)
+                .comparePublisher()
+                .subscribe(strict);
+        assertTrue(strict.error instanceof IllegalStateException);
+        assertTrue(strict.pairs.isEmpty());
+    }
+
+    @Test
+    public void publishesAllDuplicates() {
+        var baseList = List.of(new TestObj("1", 1), new TestObj("1", 2), new TestObj("2", 2));
+        var workingList = List.of(new TestObj("1", 2), new TestObj("3", 3));
+
+        var subscriber = new TestSubscriber(Long.MAX_VALUE);
+        CollectionCmp.of(baseList, workingList, TestObj::getStrField)
+                .duplicateKeys(DuplicateKeys.ALL)
+                .comparePublisher(TestObj::getIntField)
+                .subscribe(subscriber);
+
+        var expected = CollectionCmp.of(baseList, workingList, TestObj::getStrField)
+                .duplicateKeys(DuplicateKeys.ALL)
+                .compare(TestObj::getIntField);
+        assertTrue(subscriber.completed);
+        assertEquals(describe(expected.getAll()), describe(subscriber.pairs));
+    }
+
+    private static List<String> describe(List<CmpPair<TestObj, TestObj>> pairs) {
+        return pairs.stream()
+                .map(p -> p.getDiff() + ":" + p.getKey() + ":" + intField(p.getBase()) + ":" + intField(p.getWorking()))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static Integer intField(TestObj obj) {
+        return obj == null ? null : obj.getIntField();
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<CmpPair<TestObj, TestObj>> {
+        private final long batch;
+        final List<CmpPair<TestObj, TestObj>> pairs = new ArrayList<>();
+        Flow.Subscription subscription;
+        boolean completed;
+        Throwable error;
+        long requested;
+
+        TestSubscriber(long batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (batch > 0) {
+                request(batch);
+            }
+        }
+
+        @Override
+        public void onNext(CmpPair<TestObj, TestObj> item) {
+            pairs.add(item);
+            assertTrue(pairs.size() <= requested);
+            if (batch == 1) {
+                request(1);
+            }
+        }
+
+        void request(long n) {
+            requested = n == Long.MAX_VALUE ? n : requested + n;
+            subscription.request(n);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
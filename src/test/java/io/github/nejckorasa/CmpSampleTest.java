@@ -0,0 +1,151 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpPair;
+import io.github.nejckorasa.result.Diff;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CmpSampleTest {
+
+    @Test
+    public void countsAreExact() {
+        var sample = cmp().compareSample(CmpSampling.first(5), TestObj::getIntField);
+        var counts = cmp().count(TestObj::getIntField);
+
+        assertEquals(counts.toString(), sample.getCounts().toString());
+        for (Diff diff : Diff.values()) {
+            assertEquals(Math.min(5, counts.getCount(diff)), sample.get(diff).size());
+        }
+        assertTrue(sample.isTruncated());
+    }
+
+    @Test
+    public void keepsFirstPairs() {
+        var sample = cmp().compareSample(CmpSampling.first(3), TestObj::getIntField);
+        var result = cmp().compare(TestObj::getIntField);
+
+        for (Diff diff : Diff.values()) {
+            assertEquals(keys(new ArrayList<>(result.asMap().get(diff))).subList(0, 3), keys(sample.get(diff)));
+        }
+    }
+
+    @Test
+    public void keepsAllPairsBelowLimit() {
+        var sample = cmp().compareSample(CmpSampling.uniform(1000), TestObj::getIntField);
+        var result = cmp().compare(TestObj::getIntField);
+
+        assertFalse(sample.isTruncated());
+        assertEquals(new HashSet<>(keys(result.getUpdated())), new HashSet<>(keys(sample.getUpdated())));
+        assertEquals(new HashSet<>(keys(result.getRemoved())), new HashSet<>(keys(sample.getRemoved())));
+    }
+
+    @Test
+    public void uniformSampleIsDeterministicWithSeed() {
+        var sample = cmp().compareSample(CmpSampling.uniform(10, 42), TestObj::getIntField);
+        var again = cmp().compareSample(CmpSampling.uniform(10, 42), TestObj::getIntField);
+
+        assertEquals(10, sample.getUpdated().size());
+        assertEquals(10, sample.getUnchanged().size());
+        assertEquals(keys(sample.getUpdated()), keys(again.getUpdated()));
+        assertEquals(keys(sample.getUnchanged()), keys(again.getUnchanged()));
+        assertEquals(10, new HashSet<>(keys(sample.getUpdated())).size());
+        sample.getUpdated().forEach(pair -> assertEquals(Diff.UPDATED, pair.getDiff()));
+    }
+
+    @Test
+    public void uniformSampleIsNotFirstPairs() {
+        var sample = cmp().compareSample(CmpSampling.uniform(10, 7), TestObj::getIntField);
+        var first = cmp().compareSample(CmpSampling.first(10), TestObj::getIntField);
+
+        assertFalse(keys(first.getUnchanged()).equals(keys(sample.getUnchanged())));
+    }
+
+    @Test
+    public void parallelSampleMergesShards() {
+        var result = cmp(5_000).compare(TestObj::getIntField);
+        for (CmpSampling sampling : List.of(CmpSampling.first(50), CmpSampling.uniform(50, 3))) {
+            var sample = cmp(5_000).parallel().compareSample(sampling, TestObj::getIntField);
+
+            assertEquals(result.getUnchanged().size(), sample.getCounts().getUnchangedCount());
+            for (Diff diff : Diff.values()) {
+                var keys = new HashSet<>(keys(new ArrayList<>(result.asMap().get(diff))));
+                assertEquals(Math.min(50, keys.size()), sample.get(diff).size());
+                assertEquals(sample.get(diff).size(), new HashSet<>(keys(sample.get(diff))).size());
+                assertTrue(keys.containsAll(keys(sample.get(diff))));
+            }
+        }
+    }
+
+    @Test
+    public void uniformMergeDrawsShardsByTheirCounts() {
+        int fromSmallShard = 0;
+        for (int seed = 0; seed < 1000; seed++) {
+            var large = new CmpSampleSink<TestObj, TestObj>(CmpSampling.uniform(10), new SplittableRandom(seed));
+            var small = new CmpSampleSink<TestObj, TestObj>(CmpSampling.uniform(10), new SplittableRandom(-seed));
+            IntStream.range(0, 900).forEach(i -> large.onUnchanged("large" + i, null, null));
+            IntStream.range(0, 100).forEach(i -> small.onUnchanged("small" + i, null, null));
+
+            var sample = CmpSampleSink.merge(List.of(large, small), new SplittableRandom(seed)).getUnchanged();
+            assertEquals(10, sample.size());
+            assertEquals(10, new HashSet<>(keys(sample)).size());
+            fromSmallShard += (int) sample.stream().filter(pair -> pair.getKey().toString().startsWith("small")).count();
+        }
+        assertTrue(Math.abs(fromSmallShard / 10_000.0 - 0.1) < 0.02, "" + fromSmallShard);
+    }
+
+    @Test
+    public void firstMergeKeepsShardOrder() {
+        var first = new CmpSampleSink<TestObj, TestObj>(CmpSampling.first(3), new SplittableRandom());
+        var second = new CmpSampleSink<TestObj, TestObj>(CmpSampling.first(3), new SplittableRandom());
+        first.onRemoved("1", null);
+        second.onRemoved("2", null);
+        second.onRemoved("3", null);
+        second.onRemoved("4", null);
+
+        var sample = CmpSampleSink.merge(List.of(first, second), new SplittableRandom());
+        assertEquals(List.of("1", "2", "3"), keys(sample.getRemoved()));
+        assertEquals(4, sample.getCounts().getRemovedCount());
+    }
+
+    @Test
+    public void zeroLimitKeepsOnlyCounts() {
+        var sample = cmp().compareSample(CmpSampling.first(0), TestObj::getIntField);
+
+        assertTrue(sample.getChanged().isEmpty());
+        assertEquals(300, sample.getCounts().getUpdatedCount());
+        assertThrows(IllegalArgumentException.class, () -> CmpSampling.uniform(-1));
+    }
+
+    private static CollectionCmpSameBuilder<TestObj> cmp() {
+        return cmp(1000);
+    }
+
+    /**
+     * Base items with keys from 0 to size, working items shifted by tenth of size, every third working item is updated
+     */
+    private static CollectionCmpSameBuilder<TestObj> cmp(int size) {
+        var baseList = IntStream.range(0, size)
+                .mapToObj(i -> new TestObj("" + i, i))
+                .collect(Collectors.toList());
+        var workingList = IntStream.range(size / 10, size + size / 10)
+                .mapToObj(i -> new TestObj("" + i, i % 3 == 0 ? -i : i))
+                .collect(Collectors.toList());
+        return CollectionCmp.of(baseList, workingList, TestObj::getStrField);
+    }
+
+    private static List<Serializable> keys(List<? extends CmpPair<?, ?>> pairs) {
+        return pairs.stream().map(CmpPair::getKey).collect(Collectors.toList());
+    }
+}
@@ -1,12 +1,19 @@
 package io.github.nejckorasa;
 
+import io.github.nejckorasa.result.CmpSink;
 import org.junit.jupiter.api.Test;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static io.github.nejckorasa.result.Diff.ADDED;
 import static io.github.nejckorasa.result.Diff.REMOVED;
+import static io.github.nejckorasa.result.Diff.UPDATED;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CollectionCmpTest {
@@ -235,4 +242,204 @@ public class CollectionCmpTest {
 
         assertEquals(2, compareResult.getDifferentCount());
     }
+
+    @Test
+    public void compareSameIntoSink() {
+        var baseList = List.of(
+                new TestObj("1", 1),
+                new TestObj("2", 2),
+                new TestObj("3", 3)
+        );
+        var workingList = List.of(
+                new TestObj("2", 9),
+                new TestObj("3", 3),
+                new TestObj("4", 4)
+        );
+
+        var diffs = new ArrayList<String>();
+        CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .compare(new CmpSink<>() {
+                    @Override
+                    public void onAdded(Serializable key, TestObj working) {
+                        diffs.add("added " + key + " " + working.getIntField());
+                    }
+
+                    @Override
+                    public void onRemoved(Serializable key, TestObj base) {
+                        diffs.add("removed " + key + " " + base.getIntField());
+                    }
+
+                    @Override
+                    public void onUpdated(Serializable key, TestObj base, TestObj working) {
+                        diffs.add("updated " + key + " " + base.getIntField() + " " + working.getIntField());
+                    }
+                }, TestObj::getIntField);
+
+        Collections.sort(diffs);
+        assertEquals(List.of("added 4 4", "removed 1 1", "updated 2 2 9"), diffs);
+    }
+
+    @Test
+    public void compareDifferentIntoSink() {
+        var baseList = List.of(
+                new TestObj("1", 1),
+                new TestObj("2", 2),
+                new TestObj("3", 3)
+        );
+        var workingList = List.of(
+                new TestObj2("2", 2L),
+                new TestObj2("3", 30L),
+                new TestObj2("4", 4L)
+        );
+
+        var unchanged = new ArrayList<Serializable>();
+        CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField, TestObj2::getStrField)
+                .compare((o1, o2) -> o1.getIntField() == o2.getLongField().intValue(), new CmpSink<>() {
+                    @Override
+                    public void onUnchanged(Serializable key, TestObj base, TestObj2 working) {
+                        unchanged.add(key);
+                    }
+                });
+
+        assertEquals(List.of("2"), unchanged);
+    }
+
+    @Test
+    public void compareSameChangesOnly() {
+        var baseList = List.of(
+                new TestObj("1", 1),
+                new TestObj("2", 2),
+                new TestObj("3", 3)
+        );
+        var workingList = List.of(
+                new TestObj("2", 9),
+                new TestObj("3", 3),
+                new TestObj("4", 4)
+        );
+
+        var compareResult = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .compareChanges(TestObj::getIntField);
+
+        assertEquals(3, compareResult.getChangesCount());
+        assertEquals(2, compareResult.getDifferentCount());
+        assertEquals(1, compareResult.getUpdated().size());
+        assertTrue(compareResult.getUnchanged().isEmpty());
+    }
+
+    @Test
+    public void countSame() {
+        var baseList = List.of(
+                new TestObj("1", 1),
+                new TestObj("2", 2),
+                new TestObj("3", 3)
+        );
+        var workingList = List.of(
+                new TestObj("2", 9),
+                new TestObj("3", 3),
+                new TestObj("4", 4)
+        );
+
+        var counts = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .count(TestObj::getIntField);
+
+        assertEquals(1, counts.getRemovedCount());
+        assertEquals(1, counts.getAddedCount());
+        assertEquals(1, counts.getUpdatedCount());
+        assertEquals(1, counts.getUnchangedCount());
+        assertEquals(3, counts.getChangesCount());
+        assertEquals(2, counts.getDifferentCount());
+        assertEquals(1, counts.getCount(UPDATED));
+        assertTrue(counts.hasChanges());
+    }
+
+    @Test
+    public void countDifferent() {
+        var baseList = List.of(
+                new TestObj("1", 1),
+                new TestObj("2", 2)
+        );
+        var workingList = List.of(
+                new TestObj2("1", 1L),
+                new TestObj2("2", 2L)
+        );
+
+        var counts = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField, TestObj2::getStrField)
+                .count(EqPair.of(TestObj::getIntField, o2 -> o2.getLongField().intValue()));
+
+        assertEquals(2, counts.getUnchangedCount());
+        assertFalse(counts.hasChanges());
+        assertFalse(counts.hasDifferences());
+    }
+
+    @Test
+    public void compareFingerprints() {
+        var plan = EqualityPlan.of(EqPair.of(TestObj::getIntField, (TestObj2 o2) -> o2.getLongField().intValue()));
+        var snapshot = CollectionCmp.fingerprints(
+                List.of(new TestObj("1", 1), new TestObj("2", 2), new TestObj("3", 3)),
+                TestObj::getStrField,
+                plan::baseFingerprint);
+        var workingList = List.of(
+                new TestObj2("2", 9L),
+                new TestObj2("3", 3L),
+                new TestObj2("4", 4L)
+        );
+
+        var result = CollectionCmp.compareFingerprints(snapshot, workingList, TestObj2::getStrField, plan::workingFingerprint);
+
+        assertEquals(1, result.getRemoved().size());
+        assertEquals("1", result.getRemoved().get(0).getKey());
+        assertEquals(snapshot.get("1"), result.getRemoved().get(0).getBase());
+        assertEquals(1, result.getAdded().size());
+        assertEquals(1, result.getUpdated().size());
+        assertEquals("2", result.getUpdated().get(0).getKey());
+        assertEquals(1, result.getUnchanged().size());
+        assertEquals("3", result.getUnchanged().get(0).getKey());
+    }
+
+    @Test
+    public void compareFailsOnDuplicateKeys() {
+        var baseList = List.of(new TestObj("1", 1), new TestObj("1", 2));
+        var workingList = List.of(new TestObj("1", 1));
+
+        var builder = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .duplicateKeys(DuplicateKeys.FAIL);
+
+        assertThrows(IllegalStateException.class, () -> builder.compare(TestObj::getIntField));
+    }
+
+    @Test
+    public void compareAllDuplicateKeys() {
+        var baseList = List.of(
+                new TestObj("1", 1),
+                new TestObj("1", 2),
+                new TestObj("1", 3),
+                new TestObj("2", 2),
+                new TestObj("2", 2)
+        );
+        var workingList = List.of(
+                new TestObj("1", 3),
+                new TestObj("1", 9),
+                new TestObj("2", 2),
+                new TestObj("3", 3),
+                new TestObj("3", 4)
+        );
+
+        var result = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .duplicateKeys(DuplicateKeys.ALL)
+                .compare(TestObj::getIntField);
+
+        assertEquals(2, result.getUnchanged().size());
+        assertEquals(1, result.getUpdated().size());
+        assertEquals(1, result.getUpdated().get(0).getBase().getIntField().intValue());
+        assertEquals(9, result.getUpdated().get(0).getWorking().getIntField().intValue());
+        assertEquals(2, result.getRemoved().size());
+        assertEquals(2, result.getAdded().size());
+    }
 }
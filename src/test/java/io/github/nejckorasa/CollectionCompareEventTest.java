@@ -0,0 +1,57 @@
+package io.github.nejckorasa;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CollectionCompareEventTest {
+
+    @Test
+    public void recordsCompareAndPhaseEvents() throws Exception {
+        var baseList = List.of(new TestObj("1", 1), new TestObj("2", 2), new TestObj("2", 3), new TestObj("3", 3));
+        var workingList = List.of(new TestObj("2", 9), new TestObj("3", 3), new TestObj("4", 4));
+
+        List<RecordedEvent> events;
+        try (var recording = new Recording()) {
+            recording.enable(CollectionCompareEvent.class).withoutThreshold();
+            recording.enable(CmpPhaseEvent.class).withoutThreshold();
+            recording.start();
+            CollectionCmp.of(baseList, workingList, TestObj::getStrField).compareChanges(TestObj::getIntField);
+            recording.stop();
+
+            var file = Files.createTempFile("compare", ".jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+            Files.delete(file);
+        }
+
+        var compare = events.stream()
+                .filter(e -> e.getEventType().getName().equals("io.github.nejckorasa.CollectionCompare"))
+                .collect(Collectors.toList());
+        assertEquals(1, compare.size());
+        var event = compare.get(0);
+        assertEquals("PARTITION", event.getString("strategy"));
+        assertEquals("FIRST", event.getString("duplicateKeys"));
+        assertEquals(4, event.getInt("baseSize"));
+        assertEquals(3, event.getInt("workingSize"));
+        assertEquals(1, event.getInt("baseDuplicates"));
+        assertEquals(1L, event.getLong("removed"));
+        assertEquals(1L, event.getLong("added"));
+        assertEquals(1L, event.getLong("updated"));
+        assertEquals(1L, event.getLong("unchanged"));
+        assertEquals(2L, event.getLong("equalsInvocations"));
+
+        var phases = events.stream()
+                .filter(e -> e.getEventType().getName().equals("io.github.nejckorasa.ComparePhase"))
+                .map(e -> e.getString("phase"))
+                .collect(Collectors.toList());
+        assertEquals(List.of("PARTITION_BASE", "PARTITION_WORKING", "COMPARE", "ADDED_SCAN"), phases);
+    }
+}
@@ -4,9 +4,12 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
+import static io.github.nejckorasa.CollectionPartitioner.buildMultiPartition;
 import static io.github.nejckorasa.CollectionPartitioner.buildPartition;
+import static io.github.nejckorasa.CollectionPartitioner.buildStrictPartition;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SuppressWarnings("NonBooleanMethodNameMayNotStartWithQuestion")
@@ -60,4 +63,33 @@ public class CollectionPartitionerTest {
 
         assertFalse(CollectionPartitioner.canPartition(baseList, TestObj::getStrField));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void strictPartitionFailsOnCollision() {
+        var baseList = List.of(
+                new TestObj("1", 1),
+                new TestObj("2", 2),
+                new TestObj("2", 9)
+        );
+
+        var exception = assertThrows(IllegalStateException.class, () -> buildStrictPartition(baseList, TestObj::getStrField));
+        assertEquals("Duplicate key 2", exception.getMessage());
+        assertEquals(2, buildStrictPartition(baseList.subList(0, 2), TestObj::getStrField).size());
+    }
+
+    @Test
+    public void multiPartitionKeepsAllItems() {
+        var baseList = List.of(
+                new TestObj("1", 1),
+                new TestObj("2", 2),
+                new TestObj("2", 9),
+                new TestObj("2", 5)
+        );
+
+        var partitionMap = buildMultiPartition(baseList, TestObj::getStrField);
+
+        assertEquals(2, partitionMap.size());
+        assertEquals(List.of(baseList.get(0)), partitionMap.get("1"));
+        assertEquals(baseList.subList(1, 4), partitionMap.get("2"));
+    }
+}
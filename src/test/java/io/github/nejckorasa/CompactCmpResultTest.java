@@ -0,0 +1,106 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpPair;
+import io.github.nejckorasa.result.CmpResult;
+import io.github.nejckorasa.result.CompactCmpResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompactCmpResultTest {
+
+    @Test
+    public void compactResultMatchesResult() {
+        var result = cmp().compare(TestObj::getStrField, TestObj::getIntField);
+        var compact = cmp().compact().compare(TestObj::getStrField, TestObj::getIntField);
+
+        assertTrue(compact instanceof CompactCmpResult);
+        assertSameResult(result, compact);
+        assertEquals(result.getChangesCount(), compact.getChangesCount());
+        assertEquals(result.getDifferentCount(), compact.getDifferentCount());
+        assertEquals(result.getAddedItems(), compact.getAddedItems());
+        assertEquals(result.getRemovedItems(), compact.getRemovedItems());
+    }
+
+    @Test
+    public void compactResultRecordsMismatches() {
+        var result = cmp().compact().allMismatches().compare(TestObj::getStrField, TestObj::getIntField);
+
+        var updated = result.getUpdated();
+        assertFalse(updated.isEmpty());
+        updated.forEach(pair -> assertEquals(0b10L, pair.getMismatches()));
+    }
+
+    @Test
+    public void compactChangesHaveNoUnchanged() {
+        var changes = cmp().compact().compareChanges(TestObj::getIntField);
+        var expected = cmp().compareChanges(TestObj::getIntField);
+
+        assertTrue(changes.getUnchanged().isEmpty());
+        assertSameResult(expected, changes);
+    }
+
+    @Test
+    public void parallelCompactResultMatchesResult() {
+        var result = cmp().compare(TestObj::getIntField);
+        var compact = cmp().parallel().compact().compare(TestObj::getIntField);
+
+        assertEquals(keys(result.getAll()).stream().sorted().collect(Collectors.toList()),
+                keys(compact.getAll()).stream().sorted().collect(Collectors.toList()));
+        assertEquals(result.getUpdated().size(), compact.getUpdated().size());
+        assertEquals(result.getUnchanged().size(), compact.getUnchanged().size());
+    }
+
+    @Test
+    public void viewsAreUnmodifiable() {
+        var compact = cmp().compact().compare(TestObj::getIntField);
+
+        var all = compact.getAll();
+        assertEquals(all.size(), compact.getRemoved().size() + compact.getAdded().size()
+                + compact.getUpdated().size() + compact.getUnchanged().size());
+        assertEquals(compact.getRemoved().get(0).getKey(), all.get(0).getKey());
+        assertEquals(compact.getUnchanged().get(0).getKey(), all.get(compact.getChangesCount()).getKey());
+        assertThrows(UnsupportedOperationException.class, () -> compact.getChanged().add(all.get(0)));
+        assertThrows(IndexOutOfBoundsException.class, () -> all.get(all.size()));
+        assertThrows(IndexOutOfBoundsException.class, () -> compact.getUpdated().get(-1));
+    }
+
+    private static void assertSameResult(CmpResult<TestObj, TestObj> expected, CmpResult<TestObj, TestObj> actual) {
+        var expectedAll = expected.getAll();
+        var actualAll = actual.getAll();
+        assertEquals(expectedAll.size(), actualAll.size());
+        assertEquals(expected.getChanged().size(), actual.getChanged().size());
+        assertEquals(expected.getDifferent().size(), actual.getDifferent().size());
+        for (int i = 0; i < expectedAll.size(); i++) {
+            var expectedPair = expectedAll.get(i);
+            var actualPair = actualAll.get(i);
+            assertEquals(expectedPair.getKey(), actualPair.getKey());
+            assertEquals(expectedPair.getDiff(), actualPair.getDiff());
+            assertEquals(expectedPair.getBase(), actualPair.getBase());
+            assertEquals(expectedPair.getWorking(), actualPair.getWorking());
+            assertEquals(expectedPair.getMismatches(), actualPair.getMismatches());
+        }
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    private static CollectionCmpSameBuilder<TestObj> cmp() {
+        var baseList = IntStream.range(0, 5_000)
+                .mapToObj(i -> new TestObj("" + i, i))
+                .collect(Collectors.toList());
+        var workingList = IntStream.range(500, 5_500)
+                .mapToObj(i -> new TestObj("" + i, i % 4 == 0 ? -i : i))
+                .collect(Collectors.toList());
+        return CollectionCmp.of(baseList, workingList, TestObj::getStrField);
+    }
+
+    private static List<String> keys(List<CmpPair<TestObj, TestObj>> pairs) {
+        return pairs.stream().map(pair -> (String) pair.getKey()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.nejckorasa;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EqualityPlanTest {
+
+    @Test
+    public void planOfEqPairs() {
+        var plan = EqualityPlan.of(
+                EqPair.of(TestObj::getStrField, TestObj2::getStrField),
+                EqPair.of(TestObj::getIntField, (TestObj2 o2) -> o2.getLongField().intValue()));
+
+        assertEquals(2, plan.size());
+        assertTrue(plan.test(new TestObj("1", 1), new TestObj2("1", 1L)));
+        assertFalse(plan.test(new TestObj("1", 1), new TestObj2("1", 2L)));
+        assertFalse(plan.apply(new TestObj("1", 1), new TestObj2("2", 1L)));
+    }
+
+    @Test
+    public void planOfEqualities() {
+        var plan = EqualityPlan.ofEqualities(List.<Function<TestObj, ?>>of(TestObj::getStrField, TestObj::getIntField));
+
+        assertTrue(plan.test(new TestObj("1", 1), new TestObj("1", 1)));
+        assertFalse(plan.test(new TestObj("1", 1), new TestObj("1", 2)));
+    }
+
+    @Test
+    public void planStopsAtFirstMismatch() {
+        var evaluated = new AtomicInteger();
+        var plan = EqualityPlan.ofEqualities(List.<Function<TestObj, ?>>of(
+                TestObj::getStrField,
+                o -> evaluated.incrementAndGet()));
+
+        assertFalse(plan.test(new TestObj("1", 1), new TestObj("2", 1)));
+        assertEquals(0, evaluated.get());
+    }
+
+    @Test
+    public void planAsEqualsFunction() {
+        var plan = EqualityPlan.of(EqPair.of(TestObj::getIntField, TestObj::getIntField));
+
+        assertTrue(ObjectCmp.equals(new TestObj("1", 1), new TestObj("2", 1), plan));
+        assertFalse(ObjectCmp.equals(new TestObj("1", 1), null, plan));
+
+        var result = CollectionCmp
+                .of(List.of(new TestObj("1", 1)), List.of(new TestObj("1", 2)), TestObj::getStrField)
+                .compare(plan);
+        assertEquals(1, result.getUpdated().size());
+    }
+
+    @Test
+    public void fingerprints() {
+        var plan = EqualityPlan.of(
+                EqPair.of(TestObj::getStrField, TestObj2::getStrField),
+                EqPair.of(TestObj::getIntField, (TestObj2 o2) -> o2.getLongField().intValue()));
+
+        assertEquals(plan.baseFingerprint(new TestObj("1", 1)), plan.workingFingerprint(new TestObj2("1", 1L)));
+        assertNotEquals(plan.baseFingerprint(new TestObj("1", 1)), plan.workingFingerprint(new TestObj2("1", 2L)));
+        assertNotEquals(plan.baseFingerprint(new TestObj("Aa", 1)), plan.baseFingerprint(new TestObj("BB", 1)));
+        assertNotEquals(plan.baseFingerprint(new TestObj(null, 1)), plan.baseFingerprint(new TestObj("1", null)));
+    }
+
+    @Test
+    public void mismatchesOfFirstOrAllPairs() {
+        var plan = EqualityPlan.ofEqualities(List.<Function<TestObj, ?>>of(TestObj::getStrField, TestObj::getIntField));
+
+        assertEquals(0L, plan.mismatches(new TestObj("1", 1), new TestObj("1", 1)));
+        assertEquals(0b10L, plan.mismatches(new TestObj("1", 1), new TestObj("1", 2)));
+        assertEquals(0b01L, plan.mismatches(new TestObj("1", 1), new TestObj("2", 2)));
+        assertEquals(0b11L, plan.allMismatches().mismatches(new TestObj("1", 1), new TestObj("2", 2)));
+    }
+
+    @Test
+    public void compareRecordsMismatchesOfUpdatedPairs() {
+        var baseList = List.of(new TestObj("1", 1), new TestObj("2", 2), new TestObj("3", 3));
+        var workingList = List.of(new TestObj2("1", 1L), new TestObj2("2", 9L), new TestObj2("3", 3L));
+        EqPair<TestObj, TestObj2> str = EqPair.of(TestObj::getStrField, TestObj2::getStrField);
+        EqPair<TestObj, TestObj2> number = EqPair.of(TestObj::getIntField, (TestObj2 o2) -> o2.getLongField().intValue());
+        EqPair<TestObj, TestObj2> fixed = EqPair.of(o -> "a", (TestObj2 o2) -> o2.getStrField().equals("2") ? "b" : "a");
+
+        var first = CollectionCmp.of(baseList, workingList, TestObj::getStrField, TestObj2::getStrField)
+                .compare(str, number, fixed);
+        assertEquals(1, first.getUpdated().size());
+        assertEquals(0b010L, first.getUpdated().get(0).getMismatches());
+
+        var all = CollectionCmp.of(baseList, workingList, TestObj::getStrField, TestObj2::getStrField)
+                .strategy(CmpStrategy.SINGLE_INDEX)
+                .allMismatches()
+                .compare(str, number, fixed);
+        var updated = all.getUpdated().get(0);
+        assertEquals(0b110L, updated.getMismatches());
+        assertFalse(updated.isMismatched(0));
+        assertTrue(updated.isMismatched(1));
+        assertTrue(updated.isMismatched(2));
+    }
+
+    @Test
+    public void planCallsOverriddenIsEqual() {
+        EqPair<TestObj, TestObj2> tolerance = new EqPair<>(TestObj::getIntField, (TestObj2 o2) -> o2.getLongField().intValue()) {
+            @Override
+            public boolean isEqual(TestObj base, TestObj2 working) {
+                return Math.abs(base.getIntField() - working.getLongField()) <= 1;
+            }
+        };
+        var plan = EqualityPlan.of(EqPair.of(TestObj::getStrField, TestObj2::getStrField), tolerance);
+
+        assertTrue(plan.test(new TestObj("1", 1), new TestObj2("1", 2L)));
+        assertFalse(plan.test(new TestObj("1", 1), new TestObj2("1", 3L)));
+        assertEquals(0b10L, plan.mismatches(new TestObj("1", 1), new TestObj2("1", 3L)));
+        assertEquals(plan.baseFingerprint(new TestObj("1", 1)), plan.workingFingerprint(new TestObj2("1", 2L)));
+
+        var result = CollectionCmp.of(List.of(new TestObj("1", 1)), List.of(new TestObj2("1", 2L)),
+                        TestObj::getStrField, TestObj2::getStrField)
+                .compare(tolerance);
+        assertEquals(0, result.getChangesCount());
+    }
+}
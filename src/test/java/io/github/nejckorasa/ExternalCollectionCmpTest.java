@@ -0,0 +1,109 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpPair;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExternalCollectionCmpTest {
+    private static final int SIZE = 5_000;
+
+    private static final ItemCodec<TestObj> CODEC = new ItemCodec<>() {
+        @Override
+        public byte[] encode(TestObj item) {
+            var str = item.getStrField().getBytes(StandardCharsets.UTF_8);
+            return ByteBuffer.allocate(Integer.BYTES + str.length).putInt(item.getIntField()).put(str).array();
+        }
+
+        @Override
+        public TestObj decode(ByteBuffer bytes) {
+            var intField = bytes.getInt();
+            var str = new byte[bytes.remaining()];
+            bytes.get(str);
+            return new TestObj(new String(str, StandardCharsets.UTF_8), intField);
+        }
+    };
+
+    @Test
+    public void externalCompareMatchesInMemoryCompare() throws Exception {
+        var baseList = baseList();
+        var workingList = workingList();
+
+        var expected = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .compare(TestObj::getIntField);
+
+        var tempDirectory = Files.createTempDirectory("external-cmp-test");
+        List<CmpPair<TestObj, TestObj>> pairs;
+        try (var result = ExternalCollectionCmp
+                .of(baseList.iterator(), workingList.iterator(), TestObj::getStrField, CODEC)
+                .tempDirectory(tempDirectory)
+                .buckets(8)
+                .memoryBudget(4 * 1024)
+                .compare(EqPair.of(TestObj::getIntField, TestObj::getIntField))) {
+            pairs = result.collect(toList());
+        }
+
+        assertEquals(asMap(expected.getAll()), asMap(pairs));
+        try (var files = Files.list(tempDirectory)) {
+            assertEquals(0, files.count());
+        }
+        Files.delete(tempDirectory);
+    }
+
+    @Test
+    public void externalCompareSerializableCodec() {
+        var baseList = List.of("1", "2", "3");
+        var workingList = List.of("2", "3", "4");
+
+        List<CmpPair<String, String>> pairs;
+        try (var result = ExternalCollectionCmp
+                .of(baseList.iterator(), workingList.iterator(), s -> s, ItemCodec.<String>serializable())
+                .compare()) {
+            pairs = result.collect(toList());
+        }
+
+        assertEquals(4, pairs.size());
+        assertTrue(pairs.stream().anyMatch(p -> p.getKey().equals("1") && p.getBase().equals("1")));
+        assertTrue(pairs.stream().anyMatch(p -> p.getKey().equals("4") && p.getWorking().equals("4")));
+    }
+
+    private static List<TestObj> baseList() {
+        List<TestObj> baseList = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            baseList.add(new TestObj(String.valueOf(i), i));
+        }
+        baseList.add(new TestObj("0", -1));
+        return baseList;
+    }
+
+    private static List<TestObj> workingList() {
+        List<TestObj> workingList = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            if (i % 11 == 0) {
+                workingList.add(new TestObj(String.valueOf(SIZE + i), i));
+            } else {
+                workingList.add(new TestObj(String.valueOf(i), i % 7 == 0 ? -i : i));
+            }
+        }
+        return workingList;
+    }
+
+    private static Map<Object, String> asMap(List<CmpPair<TestObj, TestObj>> pairs) {
+        return pairs.stream().collect(toMap(CmpPair::getKey, p -> p.getDiff() + ":" + str(p.getBase()) + ":" + str(p.getWorking())));
+    }
+
+    private static String str(TestObj obj) {
+        return obj == null ? null : obj.getStrField() + "=" + obj.getIntField();
+    }
+}
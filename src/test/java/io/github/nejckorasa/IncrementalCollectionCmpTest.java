@@ -0,0 +1,60 @@
+package io.github.nejckorasa;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.nejckorasa.result.Diff.ADDED;
+import static io.github.nejckorasa.result.Diff.REMOVED;
+import static io.github.nejckorasa.result.Diff.UNCHANGED;
+import static io.github.nejckorasa.result.Diff.UPDATED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class IncrementalCollectionCmpTest {
+
+    @Test
+    public void initialResultMatchesCompare() {
+        var baseList = List.of(new TestObj("1", 1), new TestObj("2", 2), new TestObj("3", 3));
+        var workingList = List.of(new TestObj("2", 9), new TestObj("3", 3), new TestObj("4", 4));
+
+        var cmp = IncrementalCollectionCmp.of(baseList, workingList, TestObj::getStrField, EqualityPlan.of(EqPair.of(TestObj::getIntField, TestObj::getIntField)));
+
+        var counts = cmp.counts();
+        assertEquals(1, counts.getRemovedCount());
+        assertEquals(1, counts.getAddedCount());
+        assertEquals(1, counts.getUpdatedCount());
+        assertEquals(1, counts.getUnchangedCount());
+        assertEquals(REMOVED, cmp.get("1").getDiff());
+        assertEquals(4, cmp.result().getAll().size());
+    }
+
+    @Test
+    public void upsertAndDeleteUpdateState() {
+        var baseList = List.of(new TestObj("1", 1), new TestObj("2", 2));
+        var cmp = IncrementalCollectionCmp.of(baseList, List.<TestObj>of(), TestObj::getStrField, (b, w) -> b.getIntField().equals(w.getIntField()));
+        assertEquals(2, cmp.counts().getRemovedCount());
+
+        assertEquals(UNCHANGED, cmp.upsert(new TestObj("1", 1)).getDiff());
+        assertEquals(UPDATED, cmp.upsert(new TestObj("2", 9)).getDiff());
+        assertEquals(ADDED, cmp.upsert(new TestObj("3", 3)).getDiff());
+        assertEquals(UPDATED, cmp.upsert(new TestObj("1", 5)).getDiff());
+
+        var counts = cmp.counts();
+        assertEquals(0, counts.getRemovedCount());
+        assertEquals(1, counts.getAddedCount());
+        assertEquals(2, counts.getUpdatedCount());
+        assertEquals(0, counts.getUnchangedCount());
+
+        assertEquals(REMOVED, cmp.delete("2").getDiff());
+        assertNull(cmp.delete("3"));
+        assertNull(cmp.get("3"));
+
+        var result = cmp.result();
+        assertEquals(1, result.getRemoved().size());
+        assertEquals(0, result.getAdded().size());
+        assertEquals(1, result.getUpdated().size());
+        assertEquals(5, result.getUpdated().get(0).getWorking().getIntField().intValue());
+        assertEquals(2, cmp.counts().getChangesCount());
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.nejckorasa.result.Diff.ADDED;
+import static io.github.nejckorasa.result.Diff.REMOVED;
+import static io.github.nejckorasa.result.Diff.UNCHANGED;
+import static io.github.nejckorasa.result.Diff.UPDATED;
+import static java.util.stream.Collectors.toMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LongKeyCollectionCmpTest {
+
+    @Test
+    public void compareLongKeyMatchesSerializableKey() {
+        List<TestObj2> baseList = new ArrayList<>();
+        List<TestObj2> workingList = new ArrayList<>();
+        for (long i = 0; i < 5_000; i++) {
+            baseList.add(new TestObj2(String.valueOf(i), i * 31));
+            if (i % 13 != 0) {
+                workingList.add(new TestObj2(i % 5 == 0 ? "changed" : String.valueOf(i), i * 31));
+            }
+            if (i % 17 == 0) {
+                workingList.add(new TestObj2("new", -i * 31 - 1));
+            }
+        }
+
+        var expected = CollectionCmp
+                .of(baseList, workingList, TestObj2::getLongField)
+                .compare(TestObj2::getStrField);
+
+        var actual = CollectionCmp
+                .ofLongKey(baseList, workingList, TestObj2::getLongField)
+                .compare(TestObj2::getStrField);
+
+        assertEquals(asMap(expected), asMap(actual));
+    }
+
+    @Test
+    public void compareIntKeyDifferent() {
+        var baseList = List.of(
+                new TestObj("1", 1),
+                new TestObj("2", 2),
+                new TestObj("3", 3)
+        );
+        var workingList = List.of(
+                new TestObj2("2", 2L),
+                new TestObj2("30", 3L),
+                new TestObj2("4", 4L)
+        );
+
+        var compareResult = CollectionCmp
+                .ofIntKey(baseList, workingList, TestObj::getIntField, o2 -> o2.getLongField().intValue())
+                .compare(EqPair.of(TestObj::getStrField, TestObj2::getStrField));
+
+        assertEquals(Map.of(1, REMOVED, 2, UNCHANGED, 3, UPDATED, 4, ADDED),
+                compareResult.stream().collect(toMap(p -> p.getKey(), p -> p.getDiff())));
+    }
+
+    @Test
+    public void compareLongKeyKeepsFirstItemOfCollidingKeys() {
+        var baseList = List.of(
+                new TestObj2("1", 1L),
+                new TestObj2("1b", 1L),
+                new TestObj2("2", 2L)
+        );
+        var workingList = List.of(
+                new TestObj2("1", 1L),
+                new TestObj2("1c", 1L),
+                new TestObj2("3", 3L),
+                new TestObj2("3b", 3L)
+        );
+
+        var compareResult = CollectionCmp
+                .ofLongKey(baseList, workingList, TestObj2::getLongField)
+                .compare(TestObj2::getStrField);
+
+        assertEquals(Map.of(1L, UNCHANGED, 2L, REMOVED, 3L, ADDED),
+                compareResult.stream().collect(toMap(p -> p.getKey(), p -> p.getDiff())));
+        assertEquals("3", compareResult.getAdded().get(0).getWorking().getStrField());
+    }
+
+    @Test
+    public void longKeyIndexGrows() {
+        var index = new LongKeyIndex(0);
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(LongKeyIndex.ABSENT, index.putIfAbsent(i * 1024L, i));
+        }
+        assertEquals(1_000, index.size());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, index.get(i * 1024L));
+            assertEquals(i, index.putIfAbsent(i * 1024L, -1));
+        }
+        assertEquals(LongKeyIndex.ABSENT, index.get(1));
+    }
+
+    @Test
+    public void longKeyIndexMapsSequentialAndSpreadKeys() {
+        var keys = new ArrayList<Long>();
+        for (long i = -500; i < 500; i++) {
+            keys.add(i);
+            keys.add(i << 40);
+            keys.add(Long.MAX_VALUE - i * 16);
+        }
+        var index = new LongKeyIndex(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(keys.indexOf(keys.get(i)) == i ? LongKeyIndex.ABSENT : keys.indexOf(keys.get(i)),
+                    index.putIfAbsent(keys.get(i), i));
+        }
+        for (Long key : keys) {
+            assertEquals(keys.indexOf(key), index.get(key));
+        }
+        assertEquals(LongKeyIndex.ABSENT, index.get(500));
+    }
+
+    private static <B, W> Map<Object, String> asMap(CmpResult<B, W> result) {
+        return result.stream().collect(toMap(p -> p.getKey(), p -> p.getDiff() + ":" + p.getBase() + ":" + p.getWorking()));
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.MultiCmpPair;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static io.github.nejckorasa.result.Diff.ADDED;
+import static io.github.nejckorasa.result.Diff.REMOVED;
+import static io.github.nejckorasa.result.Diff.UNCHANGED;
+import static io.github.nejckorasa.result.Diff.UPDATED;
+import static java.util.stream.Collectors.toMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MultiCollectionCmpTest {
+
+    @Test
+    public void compareVersions() {
+        var baseList = List.of(new TestObj("1", 1), new TestObj("2", 2), new TestObj("3", 3));
+        var v1 = List.of(new TestObj("1", 1), new TestObj("2", 9), new TestObj("4", 4));
+        var v2 = List.of(new TestObj("1", 1), new TestObj("2", 2), new TestObj("3", 3));
+
+        var result = MultiCollectionCmp
+                .of(baseList, List.of(v1, v2), TestObj::getStrField)
+                .compare(EqPair.of(TestObj::getIntField, TestObj::getIntField));
+
+        Map<Object, MultiCmpPair<TestObj, TestObj>> pairs = result.stream().collect(toMap(MultiCmpPair::getKey, Function.identity()));
+        assertEquals(2, result.getVersionCount());
+        assertEquals(4, pairs.size());
+        assertEquals(Arrays.asList(UNCHANGED, UNCHANGED), pairs.get("1").getDiffs());
+        assertEquals(Arrays.asList(UPDATED, UNCHANGED), pairs.get("2").getDiffs());
+        assertEquals(Arrays.asList(REMOVED, UNCHANGED), pairs.get("3").getDiffs());
+        assertEquals(Arrays.asList(ADDED, null), pairs.get("4").getDiffs());
+        assertEquals(9, pairs.get("2").getWorking(0).getIntField().intValue());
+        assertFalse(pairs.get("1").hasChanges());
+        assertTrue(pairs.get("4").hasChanges());
+        assertEquals(3, result.getChanged().size());
+    }
+
+    @Test
+    public void versionResultMatchesCollectionCompare() {
+        var baseList = List.of(new TestObj("1", 1), new TestObj("2", 2), new TestObj("3", 3));
+        var versions = List.of(
+                List.of(new TestObj("2", 9), new TestObj("3", 3), new TestObj("4", 4)),
+                List.of(new TestObj("1", 1), new TestObj("5", 5)));
+
+        var result = MultiCollectionCmp.of(baseList, versions, TestObj::getStrField).compare(ObjectCmp::equals);
+
+        for (int version = 0; version < versions.size(); version++) {
+            var expected = CollectionCmp.of(baseList, versions.get(version), TestObj::getStrField).compare();
+            var actual = result.getResult(version);
+            assertEquals(expected.getRemoved().size(), actual.getRemoved().size());
+            assertEquals(expected.getAdded().size(), actual.getAdded().size());
+            assertEquals(expected.getUpdated().size(), actual.getUpdated().size());
+            assertEquals(expected.getUnchanged().size(), actual.getUnchanged().size());
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpResult;
+import io.github.nejckorasa.result.CmpSink;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.stream.Collectors.toMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ParallelCollectionCmpTest {
+    private static final int SIZE = 20_000;
+
+    @Test
+    public void parallelCompareMatchesSequential() {
+        var baseList = baseList();
+        var workingList = workingList();
+
+        var sequential = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .compare(TestObj::getIntField);
+
+        var pool = new ForkJoinPool(4);
+        try {
+            var parallel = CollectionCmp
+                    .of(baseList, workingList, TestObj::getStrField)
+                    .parallel(pool)
+                    .compare(TestObj::getIntField);
+
+            assertSameResult(sequential, parallel);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelCompareDifferentMatchesSequential() {
+        var baseList = baseList();
+        List<TestObj2> workingList = new ArrayList<>();
+        workingList().forEach(w -> workingList.add(new TestObj2(w.getStrField(), w.getIntField().longValue())));
+
+        var sequential = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField, TestObj2::getStrField)
+                .compare(EqPair.of(TestObj::getIntField, o2 -> o2.getLongField().intValue()));
+
+        var parallel = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField, TestObj2::getStrField)
+                .parallel()
+                .compare(EqPair.of(TestObj::getIntField, o2 -> o2.getLongField().intValue()));
+
+        assertSameResult(sequential, parallel);
+    }
+
+    @Test
+    public void parallelCompareKeepsFirstItemOfCollidingKeys() {
+        var baseList = baseList();
+        baseList.add(new TestObj("0", -1));
+        var workingList = baseList();
+
+        var result = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .parallel(ForkJoinPool.commonPool())
+                .compare();
+
+        assertEquals(0, result.getChangesCount());
+        assertEquals(SIZE, result.getUnchanged().size());
+    }
+
+    @Test
+    public void parallelCompareAllDuplicateKeysMatchesSequential() {
+        var baseList = baseList();
+        baseList.add(new TestObj("0", -1));
+        var workingList = workingList();
+        workingList.add(new TestObj("1", -1));
+
+        var sequential = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .duplicateKeys(DuplicateKeys.ALL)
+                .count(TestObj::getIntField);
+
+        var parallel = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .duplicateKeys(DuplicateKeys.ALL)
+                .parallel()
+                .count(TestObj::getIntField);
+
+        var first = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .count(TestObj::getIntField);
+
+        assertEquals(sequential.toString(), parallel.toString());
+        assertEquals(first.getRemovedCount() + 1, sequential.getRemovedCount());
+        assertEquals(first.getAddedCount() + 1, sequential.getAddedCount());
+    }
+
+    /**
+     * Every 13th base item has a duplicate and working collection has an added item for each, so both collections have
+     * the same size and no removed items, but there are added items
+     */
+    @Test
+    public void parallelCompareFirstDuplicateKeysMatchesSequential() {
+        List<TestObj> baseList = new ArrayList<>();
+        var workingList = baseList();
+        for (TestObj base : baseList()) {
+            baseList.add(base);
+            if (base.getIntField() % 13 == 0) {
+                baseList.add(new TestObj(base.getStrField(), -base.getIntField()));
+                workingList.add(new TestObj(String.valueOf(SIZE + base.getIntField()), base.getIntField()));
+            }
+        }
+
+        var sequential = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .compare(TestObj::getIntField);
+
+        var parallel = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .parallel()
+                .compare(TestObj::getIntField);
+
+        assertEquals(baseList.size(), workingList.size());
+        assertEquals(workingList.size() - SIZE, sequential.getAdded().size());
+        assertEquals(0, sequential.getRemoved().size());
+        assertSameResult(sequential, parallel);
+    }
+
+    @Test
+    public void parallelCountMatchesSequential() {
+        var baseList = baseList();
+        var workingList = workingList();
+
+        var sequential = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .compare(TestObj::getIntField);
+
+        var counts = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .parallel()
+                .count(TestObj::getIntField);
+
+        assertEquals(sequential.getAdded().size(), counts.getAddedCount());
+        assertEquals(sequential.getRemoved().size(), counts.getRemovedCount());
+        assertEquals(sequential.getUpdated().size(), counts.getUpdatedCount());
+        assertEquals(sequential.getUnchanged().size(), counts.getUnchangedCount());
+    }
+
+    @Test
+    public void parallelCompareIntoSink() {
+        var baseList = baseList();
+        var workingList = workingList();
+
+        var sequential = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .compare(TestObj::getIntField);
+
+        var counts = new int[4];
+        CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .parallel()
+                .compare(new CmpSink<>() {
+                    @Override
+                    public void onAdded(Serializable key, TestObj working) {
+                        counts[0]++;
+                    }
+
+                    @Override
+                    public void onRemoved(Serializable key, TestObj base) {
+                        counts[1]++;
+                    }
+
+                    @Override
+                    public void onUpdated(Serializable key, TestObj base, TestObj working) {
+                        counts[2]++;
+                    }
+
+                    @Override
+                    public void onUnchanged(Serializable key, TestObj base, TestObj working) {
+                        counts[3]++;
+                    }
+                }, TestObj::getIntField);
+
+        assertEquals(sequential.getAdded().size(), counts[0]);
+        assertEquals(sequential.getRemoved().size(), counts[1]);
+        assertEquals(sequential.getUpdated().size(), counts[2]);
+        assertEquals(sequential.getUnchanged().size(), counts[3]);
+    }
+
+    private static List<TestObj> baseList() {
+        List<TestObj> baseList = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            baseList.add(new TestObj(String.valueOf(i), i));
+        }
+        return baseList;
+    }
+
+    /**
+     * Every 7th item is updated, every 11th is removed and replaced with added item
+     */
+    private static List<TestObj> workingList() {
+        List<TestObj> workingList = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            if (i % 11 == 0) {
+                workingList.add(new TestObj(String.valueOf(SIZE + i), i));
+            } else {
+                workingList.add(new TestObj(String.valueOf(i), i % 7 == 0 ? -i : i));
+            }
+        }
+        return workingList;
+    }
+
+    private static <B, W> void assertSameResult(CmpResult<B, W> expected, CmpResult<B, W> actual) {
+        assertEquals(expected.getRemoved().size(), actual.getRemoved().size());
+        assertEquals(expected.getAdded().size(), actual.getAdded().size());
+        assertEquals(expected.getUpdated().size(), actual.getUpdated().size());
+        assertEquals(expected.getUnchanged().size(), actual.getUnchanged().size());
+        assertEquals(asMap(expected), asMap(actual));
+    }
+
+    private static <B, W> Map<Object, String> asMap(CmpResult<B, W> result) {
+        return result.stream().collect(toMap(p -> p.getKey(), p -> p.getDiff() + ":" + p.getBase() + ":" + p.getWorking()));
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.nejckorasa.result.Diff.ADDED;
+import static io.github.nejckorasa.result.Diff.REMOVED;
+import static io.github.nejckorasa.result.Diff.UNCHANGED;
+import static io.github.nejckorasa.result.Diff.UPDATED;
+import static java.util.stream.Collectors.toMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SingleIndexCollectionCmpTest {
+
+    @Test
+    public void singleIndexMatchesPartitionWhenWorkingIsLarger() {
+        var baseList = items(3_000, 0);
+        var workingList = items(5_000, 1);
+
+        assertEquals(asMap(compare(baseList, workingList, CmpStrategy.PARTITION)),
+                asMap(compare(baseList, workingList, CmpStrategy.SINGLE_INDEX)));
+    }
+
+    @Test
+    public void singleIndexMatchesPartitionWhenWorkingIsSmaller() {
+        var baseList = items(5_000, 0);
+        var workingList = items(3_000, 1);
+
+        assertEquals(asMap(compare(baseList, workingList, CmpStrategy.PARTITION)),
+                asMap(compare(baseList, workingList, CmpStrategy.SINGLE_INDEX)));
+    }
+
+    @Test
+    public void singleIndexKeepsFirstItemOfCollidingKeys() {
+        var baseList = List.of(
+                new TestObj("1", 1),
+                new TestObj("1", 10),
+                new TestObj("2", 2),
+                new TestObj("2", 20),
+                new TestObj("3", 3)
+        );
+        var workingList = List.of(
+                new TestObj("1", 1),
+                new TestObj("3", 30),
+                new TestObj("4", 4),
+                new TestObj("4", 40)
+        );
+
+        var result = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .strategy(CmpStrategy.SINGLE_INDEX)
+                .compare(TestObj::getIntField);
+
+        assertEquals(Map.of("1", UNCHANGED, "2", REMOVED, "3", UPDATED, "4", ADDED),
+                result.stream().collect(toMap(p -> p.getKey(), p -> p.getDiff())));
+        assertEquals(new TestObj("2", 2), result.getRemoved().get(0).getBase());
+        assertEquals(new TestObj("4", 4), result.getAdded().get(0).getWorking());
+    }
+
+    @Test
+    public void keyIndexSupportsNullKey() {
+        var index = new KeyIndex(0);
+        assertEquals(KeyIndex.ABSENT, index.putIfAbsent(null, 7));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(KeyIndex.ABSENT, index.putIfAbsent(String.valueOf(i), i));
+        }
+        assertEquals(7, index.get(null));
+        assertEquals(42, index.get("42"));
+        assertEquals(KeyIndex.ABSENT, index.get("100"));
+        assertEquals(101, index.size());
+    }
+
+    @Test
+    public void keyIndexMapsSequentialAndSpreadKeys() {
+        var index = new KeyIndex(0);
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(KeyIndex.ABSENT, index.putIfAbsent((long) i, i));
+            assertEquals(KeyIndex.ABSENT, index.putIfAbsent((double) i, 1_000 + i));
+            assertEquals(KeyIndex.ABSENT, index.putIfAbsent(i << 16, 2_000 + i));
+        }
+        assertEquals(3_000, index.size());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, index.get((long) i));
+            assertEquals(1_000 + i, index.get((double) i));
+            assertEquals(2_000 + i, index.get(i << 16));
+        }
+        assertEquals(KeyIndex.ABSENT, index.get(1_000L));
+    }
+
+    /**
+     * Every 5th item is updated, every 7th missing, every 11th item has a duplicate
+     */
+    private static List<TestObj> items(int size, int version) {
+        List<TestObj> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if ((i + version) % 7 == 0) continue;
+            items.add(new TestObj(String.valueOf(i), i % 5 == 0 ? i + version : i));
+            if ((i + version) % 11 == 0) {
+                items.add(new TestObj(String.valueOf(i), -i));
+            }
+        }
+        return items;
+    }
+
+    private static CmpResult<TestObj, TestObj> compare(List<TestObj> baseList, List<TestObj> workingList, CmpStrategy strategy) {
+        return CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .strategy(strategy)
+                .compare(TestObj::getIntField);
+    }
+
+    private static Map<Object, String> asMap(CmpResult<TestObj, TestObj> result) {
+        return result.stream().collect(toMap(p -> p.getKey(), p -> p.getDiff() + ":" + p.getBase() + ":" + p.getWorking()));
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpPair;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SnapshotIndexTest {
+    private static final int SIZE = 5_000;
+
+    @Test
+    public void snapshotCompareMatchesFingerprintCompare() throws Exception {
+        var plan = EqualityPlan.ofEqualities(List.<Function<TestObj, ?>>of(TestObj::getIntField));
+        var baseList = new ArrayList<TestObj>();
+        var workingList = new ArrayList<TestObj>();
+        for (int i = 0; i < SIZE; i++) {
+            baseList.add(new TestObj("key-" + i, i));
+            if (i % 10 != 0) workingList.add(new TestObj("key-" + i, i % 7 == 0 ? -i : i));
+        }
+        for (int i = SIZE; i < SIZE + 100; i++) {
+            workingList.add(new TestObj("key-" + i, i));
+        }
+
+        var fingerprints = CollectionCmp.fingerprints(baseList, TestObj::getStrField, plan::baseFingerprint);
+        var file = Files.createTempFile("snapshot", ".bin");
+        try {
+            SnapshotIndex.write(file, fingerprints);
+            var index = SnapshotIndex.open(file);
+
+            var expected = CollectionCmp.compareFingerprints(fingerprints, workingList, TestObj::getStrField, plan::workingFingerprint);
+            var result = index.compare(workingList, TestObj::getStrField, plan::workingFingerprint);
+
+            assertEquals(SIZE, index.size());
+            assertEquals(fingerprints.get("key-1"), index.get("key-1"));
+            assertNull(index.get("missing"));
+            assertEquals(expected.getRemoved().size(), result.getRemoved().size());
+            assertEquals(expected.getAdded().size(), result.getAdded().size());
+            assertEquals(expected.getUpdated().size(), result.getUpdated().size());
+            assertEquals(expected.getUnchanged().size(), result.getUnchanged().size());
+            assertEquals(keys(expected.getRemoved()), keys(result.getRemoved()));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void onlyMatchedKeysAreEncoded() throws Exception {
+        var encoded = new AtomicInteger();
+        var codec = new ItemCodec<Serializable>() {
+            private final ItemCodec<Serializable> delegate = ItemCodec.serializable();
+
+            @Override
+            public byte[] encode(Serializable item) {
+                encoded.incrementAndGet();
+                return delegate.encode(item);
+            }
+
+            @Override
+            public Serializable decode(ByteBuffer bytes) {
+                return delegate.decode(bytes);
+            }
+        };
+        var file = Files.createTempFile("snapshot", ".bin");
+        try {
+            SnapshotIndex.write(file, Map.of("1", 1L, "2", 2L), codec);
+            var index = SnapshotIndex.open(file, codec);
+            encoded.set(0);
+
+            var workingList = List.of(new TestObj("1", 1), new TestObj("3", 3), new TestObj("4", 4));
+            var result = index.compare(workingList, TestObj::getStrField, o -> (long) o.getIntField());
+
+            assertEquals(1, result.getUnchanged().size());
+            assertEquals(2, result.getAdded().size());
+            assertNull(index.get("5"));
+            assertEquals(1, encoded.get());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void emptySnapshot() throws Exception {
+        var file = Files.createTempFile("snapshot", ".bin");
+        try {
+            SnapshotIndex.write(file, Map.of());
+            var result = SnapshotIndex.open(file).compare(List.of(new TestObj("1", 1)), TestObj::getStrField, o -> 0L);
+
+            assertEquals(1, result.getAdded().size());
+            assertEquals(0, result.getRemoved().size());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static Set<Serializable> keys(List<? extends CmpPair<?, ?>> pairs) {
+        return pairs.stream().map(CmpPair::getKey).collect(toSet());
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.nejckorasa;
+
+import io.github.nejckorasa.result.CmpPair;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static io.github.nejckorasa.result.Diff.ADDED;
+import static io.github.nejckorasa.result.Diff.REMOVED;
+import static io.github.nejckorasa.result.Diff.UNCHANGED;
+import static io.github.nejckorasa.result.Diff.UPDATED;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SortedCollectionCmpTest {
+
+    @Test
+    public void compareSortedSame() {
+        var baseList = List.of(
+                new TestObj("1", 1),
+                new TestObj("2", 2),
+                new TestObj("3", 3),
+                new TestObj("5", 5)
+        );
+        var workingList = List.of(
+                new TestObj("2", 2),
+                new TestObj("3", 30),
+                new TestObj("4", 4),
+                new TestObj("5", 5)
+        );
+
+        var pairs = SortedCollectionCmp
+                .of(baseList.iterator(), workingList.iterator(), TestObj::getStrField, Comparator.naturalOrder())
+                .compare(EqPair.of(TestObj::getIntField, TestObj::getIntField))
+                .collect(toList());
+
+        assertEquals(5, pairs.size());
+        assertEquals(List.of("1", "2", "3", "4", "5"), pairs.stream().map(CmpPair::getKey).collect(toList()));
+        assertEquals(List.of(REMOVED, UNCHANGED, UPDATED, ADDED, UNCHANGED), pairs.stream().map(CmpPair::getDiff).collect(toList()));
+
+        assertEquals(new TestObj("1", 1), pairs.get(0).getBase());
+        assertNull(pairs.get(0).getWorking());
+        assertEquals(new TestObj("3", 30), pairs.get(2).getWorking());
+        assertEquals(new TestObj("4", 4), pairs.get(3).getWorking());
+        assertNull(pairs.get(3).getBase());
+    }
+
+    @Test
+    public void compareSortedDifferentStreams() {
+        var closed = new AtomicBoolean();
+        var baseStream = Stream.of(new TestObj("1", 1), new TestObj("2", 2)).onClose(() -> closed.set(true));
+        var workingStream = Stream.of(new TestObj2("2", 20L), new TestObj2("3", 3L));
+
+        List<CmpPair<TestObj, TestObj2>> pairs;
+        try (var result = SortedCollectionCmp
+                .of(baseStream, workingStream, TestObj::getStrField, TestObj2::getStrField, Comparator.<String>naturalOrder())
+                .compare((b, w) -> b.getIntField() == w.getLongField().intValue())) {
+            pairs = result.collect(toList());
+        }
+
+        assertTrue(closed.get());
+        assertEquals(List.of(REMOVED, UPDATED, ADDED), pairs.stream().map(CmpPair::getDiff).collect(toList()));
+    }
+
+    @Test
+    public void compareSortedMatchesCollectionCmp() {
+        var baseList = List.of(
+                new TestObj("1", 1),
+                new TestObj("2", 2),
+                new TestObj("3", 3)
+        );
+        var workingList = List.of(
+                new TestObj("2", 9),
+                new TestObj("3", 3),
+                new TestObj("4", 4)
+        );
+
+        var sorted = SortedCollectionCmp
+                .of(baseList.iterator(), workingList.iterator(), TestObj::getStrField, Comparator.naturalOrder())
+                .compare(EqPair.of(TestObj::getIntField, TestObj::getIntField))
+                .filter(p -> p.getDiff() != UNCHANGED)
+                .count();
+
+        var result = CollectionCmp
+                .of(baseList, workingList, TestObj::getStrField)
+                .compare(TestObj::getIntField);
+
+        assertEquals(result.getChangesCount(), sorted);
+    }
+
+    @Test
+    public void compareSortedSkipsRepeatedKeys() {
+        var baseList = List.of(
+                new TestObj("1", 1),
+                new TestObj("1", 9),
+                new TestObj("2", 2)
+        );
+        var workingList = List.of(
+                new TestObj("1", 1),
+                new TestObj("2", 2)
+        );
+
+        var pairs = SortedCollectionCmp
+                .of(baseList.iterator(), workingList.iterator(), TestObj::getStrField, Comparator.naturalOrder())
+                .compare()
+                .collect(toList());
+
+        assertEquals(List.of(UNCHANGED, UNCHANGED), pairs.stream().map(CmpPair::getDiff).collect(toList()));
+    }
+
+    @Test
+    public void compareUnsortedRejected() {
+        var baseList = List.of(
+                new TestObj("1", 1),
+                new TestObj("3", 3),
+                new TestObj("2", 2)
+        );
+        var workingList = List.of(
+                new TestObj("1", 1)
+        );
+
+        var pairs = SortedCollectionCmp
+                .of(baseList.iterator(), workingList.iterator(), TestObj::getStrField, Comparator.naturalOrder())
+                .compare();
+
+        var e = assertThrows(IllegalStateException.class, () -> pairs.collect(toList()));
+        assertTrue(e.getMessage().startsWith("Base items are not sorted"));
+    }
+}